@@ -0,0 +1,165 @@
+package com.speer.sharenotex.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.speer.sharenotex.util.Constants;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of Keycloak user lookups keyed by user ID. Unknown
+ * users are cached as empty entries with a shorter time-to-live, and concurrent
+ * misses for the same ID share a single load.
+ * <p>
+ * Loads run on the application task executor outside of the cache's internal
+ * locks, so a slow Keycloak never pins the carrier thread of a waiting virtual
+ * thread. The executor is a thread pool, or creates a virtual thread per load
+ * when {@code spring.threads.virtual.enabled} is set. Hit, miss and eviction
+ * counts are published as cache metrics.
+ */
+@Component
+public class KeycloakUserCache implements MeterBinder {
+
+	private final AsyncCache<String, Optional<UserRepresentation>> cache;
+
+	/**
+	 * Creates the cache from the configured size and time-to-live settings.
+	 *
+	 * @param maxSize           Maximum number of cached users.
+	 * @param ttlMillis         Time-to-live (in milliseconds) of a found user.
+	 * @param negativeTtlMillis Time-to-live (in milliseconds) of an unknown user.
+	 * @param executor          Executor running the loads.
+	 */
+	public KeycloakUserCache(@Value("${com.sharenotex.keycloak.user-cache.max-size:10000}") long maxSize,
+			@Value("${com.sharenotex.keycloak.user-cache.ttl:300000}") long ttlMillis,
+			@Value("${com.sharenotex.keycloak.user-cache.negative-ttl:30000}") long negativeTtlMillis,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+		this.cache = Caffeine.newBuilder().maximumSize(maxSize)
+				.expireAfter(new UserExpiry(Duration.ofMillis(ttlMillis), Duration.ofMillis(negativeTtlMillis)))
+				.executor(executor).recordStats().buildAsync();
+	}
+
+	/**
+	 * Returns the cached lookup result for a user, loading it on a miss. Only one
+	 * load runs per user ID at a time; concurrent callers wait for its result.
+	 * Exceptions thrown by the loader are propagated and not cached.
+	 *
+	 * @param userId Keycloak user ID.
+	 * @param loader Function performing the remote lookup, returning an empty
+	 *               Optional for an unknown user.
+	 * @return The user, or an empty Optional if the user does not exist.
+	 */
+	public Optional<UserRepresentation> get(String userId, Function<String, Optional<UserRepresentation>> loader) {
+		return join(cache.get(userId, loader));
+	}
+
+	/**
+	 * Returns the cached lookup results for several users, loading all misses
+	 * with one call of the bulk loader.
+	 *
+	 * @param userIds    Keycloak user IDs.
+	 * @param bulkLoader Function starting the remote lookups of the missing IDs on
+	 *                   the given executor of the cache.
+	 * @return Lookup result per user ID.
+	 */
+	public Map<String, Optional<UserRepresentation>> getAll(Iterable<String> userIds,
+			BiFunction<Set<? extends String>, Executor, CompletableFuture<Map<String, Optional<UserRepresentation>>>> bulkLoader) {
+		return join(cache.getAll(userIds, bulkLoader));
+	}
+
+	/**
+	 * Returns the cached lookup results for several users without blocking,
+	 * loading all misses with one call of the bulk loader.
+	 *
+	 * @param userIds    Keycloak user IDs.
+	 * @param bulkLoader Function starting the remote lookups of the missing IDs.
+	 * @return Future of the lookup result per user ID.
+	 */
+	public CompletableFuture<Map<String, Optional<UserRepresentation>>> getAllAsync(Iterable<String> userIds,
+			Function<Set<? extends String>, CompletableFuture<Map<String, Optional<UserRepresentation>>>> bulkLoader) {
+		return cache.getAll(userIds, (missing, executor) -> bulkLoader.apply(missing));
+	}
+
+	/**
+	 * Removes a user from the cache.
+	 *
+	 * @param userId Keycloak user ID.
+	 */
+	public void invalidate(String userId) {
+		cache.synchronous().invalidate(userId);
+	}
+
+	/**
+	 * Returns the hit, miss and load statistics of the cache.
+	 *
+	 * @return Snapshot of the cache statistics.
+	 */
+	public CacheStats stats() {
+		return cache.synchronous().stats();
+	}
+
+	/**
+	 * Returns the approximate number of cached users.
+	 *
+	 * @return Estimated number of entries.
+	 */
+	public long estimatedSize() {
+		return cache.synchronous().estimatedSize();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, Constants.METRIC_KEYCLOAK_USER_CACHE);
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private record UserExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<UserRepresentation>> {
+
+		@Override
+		public long expireAfterCreate(String key, Optional<UserRepresentation> value, long currentTime) {
+			return (value.isPresent() ? ttl : negativeTtl).toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Optional<UserRepresentation> value, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Optional<UserRepresentation> value, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
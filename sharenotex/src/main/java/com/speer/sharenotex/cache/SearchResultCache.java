@@ -0,0 +1,162 @@
+package com.speer.sharenotex.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.SearchMode;
+import com.speer.sharenotex.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of note search results, keyed by user, search
+ * generation, mode, normalized query and page. Every change to a user's notes
+ * moves the user to a new generation, which makes all of the user's cached
+ * results unreachable without scanning the cache; they are evicted as the
+ * cache fills up or expire after the configured time-to-live.
+ * <p>
+ * The cache is bounded by the estimated memory use of the results. Hit, miss
+ * and eviction counts, the hit ratio and the estimated memory use are
+ * published as metrics.
+ */
+@Component
+public class SearchResultCache implements MeterBinder {
+
+	// Rough per-object overhead of a cached note and of a cache entry, in bytes
+	private static final int NOTE_OVERHEAD_BYTES = 128;
+	private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+	private final boolean enabled;
+	private final Cache<Key, List<NoteResponseDto>> results;
+	private final Cache<String, Long> generations;
+	// Source of generations; never hands out the same value twice, so a user
+	// whose generation was evicted cannot see results cached before
+	private final AtomicLong nextGeneration = new AtomicLong();
+
+	/**
+	 * Creates the cache from the configured size and time-to-live settings.
+	 *
+	 * @param enabled   Whether search results are cached.
+	 * @param maxBytes  Maximum estimated memory use (in bytes) of the results.
+	 * @param maxUsers  Maximum number of users whose generation is tracked.
+	 * @param ttlMillis Time-to-live (in milliseconds) of cached results.
+	 */
+	public SearchResultCache(@Value("${com.sharenotex.search.cache.enabled:true}") boolean enabled,
+			@Value("${com.sharenotex.search.cache.max-bytes:33554432}") long maxBytes,
+			@Value("${com.sharenotex.search.cache.max-users:100000}") long maxUsers,
+			@Value("${com.sharenotex.search.cache.ttl:30000}") long ttlMillis) {
+		this.enabled = enabled;
+		this.results = Caffeine.newBuilder().maximumWeight(maxBytes).weigher(SearchResultCache::weigh)
+				.expireAfterWrite(Duration.ofMillis(ttlMillis)).recordStats().build();
+		this.generations = Caffeine.newBuilder().maximumSize(maxUsers).build();
+	}
+
+	/**
+	 * Creates the key of a search in the user's current generation. The key must
+	 * be created before the search runs, so that results read before a
+	 * concurrent change are cached under the generation that change ends.
+	 *
+	 * @param userId User identifier owning the notes.
+	 * @param mode   Search mode.
+	 * @param query  Search query, as given.
+	 * @param limit  Maximum number of notes returned.
+	 * @param offset Number of matching notes skipped.
+	 * @return The cache key of the search.
+	 */
+	public Key key(String userId, SearchMode mode, String query, int limit, int offset) {
+		long generation = generations.get(userId, id -> nextGeneration.incrementAndGet());
+		return new Key(userId, generation, mode, normalize(mode, query), limit, offset);
+	}
+
+	/**
+	 * Returns the cached results of a search.
+	 *
+	 * @param key Cache key of the search.
+	 * @return The cached results, or null if the search is not cached.
+	 */
+	public List<NoteResponseDto> get(Key key) {
+		return enabled ? results.getIfPresent(key) : null;
+	}
+
+	/**
+	 * Caches the results of a search. The content of the notes is decompressed
+	 * first, so that the cached DTOs are never modified while they are shared.
+	 *
+	 * @param key   Cache key of the search.
+	 * @param notes Results of the search.
+	 */
+	public void put(Key key, List<NoteResponseDto> notes) {
+		if (enabled) {
+			notes.forEach(NoteResponseDto::getContent);
+			results.put(key, List.copyOf(notes));
+		}
+	}
+
+	/**
+	 * Moves a user to a new generation once the current transaction, if any, has
+	 * committed, so that searches made from then on see the changes.
+	 *
+	 * @param userId User identifier whose notes changed.
+	 */
+	public void invalidate(String userId) {
+		TransactionCallbacks.afterCommit(() -> generations.put(userId, nextGeneration.incrementAndGet()));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, results, Constants.METRIC_SEARCH_RESULT_CACHE);
+		Gauge.builder(Constants.METRIC_SEARCH_RESULT_CACHE_HIT_RATIO, results, cache -> cache.stats().hitRate())
+				.description("Ratio of searches answered from the search result cache").register(registry);
+		Gauge.builder(Constants.METRIC_SEARCH_RESULT_CACHE_MEMORY, results,
+				cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+				.description("Estimated memory used by the cached search results").baseUnit("bytes")
+				.register(registry);
+	}
+
+	/**
+	 * Normalizes a query so that equivalent searches share an entry: all modes
+	 * are case-insensitive, and all but the substring search ignore extra
+	 * whitespace.
+	 */
+	private static String normalize(SearchMode mode, String query) {
+		String lowerCase = query.toLowerCase(Locale.ROOT);
+		return mode == SearchMode.CONTAINS ? lowerCase : lowerCase.strip().replaceAll("\\s+", " ");
+	}
+
+	private static int weigh(Key key, List<NoteResponseDto> notes) {
+		long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.query().length();
+		for (NoteResponseDto note : notes) {
+			bytes += NOTE_OVERHEAD_BYTES + 2L * (length(note.getTitle()) + length(note.getContent()));
+		}
+		return (int) Math.min(bytes, Integer.MAX_VALUE);
+	}
+
+	private static int length(String value) {
+		return value != null ? value.length() : 0;
+	}
+
+	/**
+	 * Key of a cached search.
+	 *
+	 * @param userId     User identifier owning the notes.
+	 * @param generation Generation of the user's notes the results were read in.
+	 * @param mode       Search mode.
+	 * @param query      Normalized search query.
+	 * @param limit      Maximum number of notes returned.
+	 * @param offset     Number of matching notes skipped.
+	 */
+	public record Key(String userId, long generation, SearchMode mode, String query, int limit, int offset) {
+	}
+}
@@ -0,0 +1,108 @@
+package com.speer.sharenotex.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.speer.sharenotex.util.Constants;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded in-process cache of access tokens whose signature and claims have
+ * been verified, keyed by the SHA-256 hash of the token. An entry never
+ * outlives the expiry time of its token, nor the configured time-to-live, which
+ * bounds how long a token stays accepted after its signing key was revoked.
+ */
+@Component
+public class VerifiedJwtCache implements MeterBinder {
+
+	private final Cache<String, Jwt> cache;
+
+	/**
+	 * Creates the cache from the configured size and time-to-live settings.
+	 *
+	 * @param maxSize   Maximum number of cached tokens.
+	 * @param ttlMillis Maximum time-to-live (in milliseconds) of a cached token.
+	 */
+	public VerifiedJwtCache(@Value("${com.sharenotex.jwt.cache.max-size:10000}") long maxSize,
+			@Value("${com.sharenotex.jwt.cache.ttl:300000}") long ttlMillis) {
+		this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new TokenExpiry(Duration.ofMillis(ttlMillis)))
+				.recordStats().build();
+	}
+
+	/**
+	 * Returns the verified token for a serialized access token, if cached.
+	 *
+	 * @param token Serialized access token.
+	 * @return The verified token, or null if the token is not cached.
+	 */
+	public Jwt get(String token) {
+		return cache.getIfPresent(hash(token));
+	}
+
+	/**
+	 * Caches a verified token until it expires. Tokens without an expiry time are
+	 * kept for the configured time-to-live.
+	 *
+	 * @param token Serialized access token.
+	 * @param jwt   The verified token.
+	 */
+	public void put(String token, Jwt jwt) {
+		if (jwt.getExpiresAt() == null || jwt.getExpiresAt().isAfter(Instant.now())) {
+			cache.put(hash(token), jwt);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, Constants.METRIC_VERIFIED_JWT_CACHE);
+	}
+
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Expires a cached token at its expiry time, or after the time-to-live if that
+	 * comes first.
+	 */
+	record TokenExpiry(Duration ttl) implements Expiry<String, Jwt> {
+
+		@Override
+		public long expireAfterCreate(String key, Jwt value, long currentTime) {
+			if (value.getExpiresAt() == null) {
+				return ttl.toNanos();
+			}
+			Duration untilExpiry = Duration.between(Instant.now(), value.getExpiresAt());
+			return Math.max(0, Math.min(ttl.toNanos(), untilExpiry.toNanos()));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Jwt value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Jwt value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.speer.sharenotex.config;
 
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
@@ -41,16 +42,18 @@ public class KeycloakConfig {
 
 	/**
 	 * Creates and configures a Keycloak admin client bean for interacting with the
-	 * Keycloak server.
+	 * Keycloak server. Its requests go through the pooled HTTP client of
+	 * {@link KeycloakHttpClientConfig}.
 	 *
+	 * @param keycloakAdminHttpClient HTTP client of the admin requests.
 	 * @return Keycloak admin client bean configured based on the specified
 	 *         properties.
 	 */
 	@Bean
-	public Keycloak keycloakAdminClient() {
+	public Keycloak keycloakAdminClient(ResteasyClient keycloakAdminHttpClient) {
 		return KeycloakBuilder.builder().serverUrl(keycloakServerUrl).realm(keycloakMasterRealm)
 				.clientId(keycloakMasterClientId).grantType(OAuth2Constants.PASSWORD).username(adminUsername)
-				.password(adminPassword).build();
+				.password(adminPassword).resteasyClient(keycloakAdminHttpClient).build();
 	}
 
 }
@@ -0,0 +1,126 @@
+package com.speer.sharenotex.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient43Engine;
+import org.keycloak.admin.client.JacksonProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.KeycloakAdminMetricsFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import jakarta.ws.rs.client.ClientBuilder;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuration class for the HTTP clients calling Keycloak. Token requests
+ * (through WebClient) and admin requests (through RESTEasy) each use a bounded
+ * pool of keep-alive connections with explicit timeouts, so that bursts of
+ * logins and registrations reuse connections instead of opening new ones, and
+ * fail fast when Keycloak stops answering.
+ * <p>
+ * Both pools publish their size and saturation: the WebClient pool as
+ * {@code reactor.netty.connection.provider.*} and the admin client pool as
+ * {@code httpcomponents.httpclient.pool.*} metrics.
+ */
+@Configuration
+public class KeycloakHttpClientConfig {
+
+	// Maximum number of open connections per pool
+	@Value("${com.sharenotex.keycloak.http.max-connections:50}")
+	private int maxConnections;
+
+	// Maximum time (in milliseconds) a request waits for a pooled connection
+	@Value("${com.sharenotex.keycloak.http.pending-acquire-timeout:5000}")
+	private long pendingAcquireTimeoutMillis;
+
+	@Value("${com.sharenotex.keycloak.http.connect-timeout:2000}")
+	private int connectTimeoutMillis;
+
+	@Value("${com.sharenotex.keycloak.http.read-timeout:5000}")
+	private int readTimeoutMillis;
+
+	// Idle connections are closed after this time (in milliseconds)
+	@Value("${com.sharenotex.keycloak.http.max-idle-time:30000}")
+	private long maxIdleTimeMillis;
+
+	// Connections are closed once this old (in milliseconds), even if busy
+	@Value("${com.sharenotex.keycloak.http.max-life-time:300000}")
+	private long maxLifeTimeMillis;
+
+	/**
+	 * Creates the connection pool of the WebClient calls to Keycloak.
+	 *
+	 * @return ConnectionProvider bean pooling the connections to Keycloak.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider keycloakConnectionProvider() {
+		return ConnectionProvider.builder(Constants.KEYCLOAK_HTTP_POOL).maxConnections(maxConnections)
+				.pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+				.maxIdleTime(Duration.ofMillis(maxIdleTimeMillis)).maxLifeTime(Duration.ofMillis(maxLifeTimeMillis))
+				.evictInBackground(Duration.ofMillis(maxIdleTimeMillis)).metrics(true).build();
+	}
+
+	/**
+	 * Creates the connector of the WebClients calling Keycloak.
+	 *
+	 * @param keycloakConnectionProvider Pool of the connections to Keycloak.
+	 * @return ReactorClientHttpConnector bean with keep-alive and timeouts.
+	 */
+	@Bean
+	public ReactorClientHttpConnector keycloakHttpConnector(ConnectionProvider keycloakConnectionProvider) {
+		HttpClient httpClient = HttpClient.create(keycloakConnectionProvider).keepAlive(true)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+				.option(ChannelOption.SO_KEEPALIVE, true).responseTimeout(Duration.ofMillis(readTimeoutMillis));
+		return new ReactorClientHttpConnector(httpClient);
+	}
+
+	/**
+	 * Creates the HTTP client of the Keycloak admin client. The client it creates
+	 * by default pools ten connections and never times out.
+	 *
+	 * @param meterRegistry Registry of the pool and request metrics.
+	 * @return ResteasyClient bean backed by a pooled Apache HTTP client.
+	 */
+	@Bean
+	public ResteasyClient keycloakAdminHttpClient(ObjectProvider<MeterRegistry> meterRegistry) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+				maxLifeTimeMillis, TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(maxConnections);
+		// All admin requests go to the same host
+		connectionManager.setDefaultMaxPerRoute(maxConnections);
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(connectTimeoutMillis)
+				.setSocketTimeout(readTimeoutMillis).setConnectionRequestTimeout((int) pendingAcquireTimeoutMillis)
+				.build();
+		CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig).setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+				.evictIdleConnections(maxIdleTimeMillis, TimeUnit.MILLISECONDS).evictExpiredConnections().build();
+
+		ResteasyClientBuilder builder = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
+				.httpEngine(new ApacheHttpClient43Engine(httpClient, true));
+		// Same JSON provider as the default client of the admin client
+		builder.register(JacksonProvider.class, 100);
+		meterRegistry.ifAvailable(registry -> {
+			new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, Constants.KEYCLOAK_ADMIN_HTTP_POOL)
+					.bindTo(registry);
+			builder.register(new KeycloakAdminMetricsFilter(registry));
+		});
+		return builder.build();
+	}
+}
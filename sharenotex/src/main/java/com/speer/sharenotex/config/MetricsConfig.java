@@ -0,0 +1,47 @@
+package com.speer.sharenotex.config;
+
+import java.util.Set;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.speer.sharenotex.util.Constants;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+/**
+ * Configuration class for application metrics. The timers of the note list and
+ * search endpoints, and of the service methods behind them, publish percentile
+ * histograms, so that their latency percentiles can be aggregated across
+ * instances.
+ */
+@Configuration
+public class MetricsConfig {
+
+	private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+	private static final Set<String> HISTOGRAM_URIS = Set.of("/api/notes", "/api/notes/search");
+	private static final Set<String> HISTOGRAM_SERVICE_METHODS = Set.of("findAll", "searchNotes");
+
+	/**
+	 * Enables percentile histograms for the list and search endpoints.
+	 *
+	 * @return MeterFilter bean configuring the timers of these endpoints.
+	 */
+	@Bean
+	public MeterFilter listAndSearchHistogramFilter() {
+		return new MeterFilter() {
+			@Override
+			public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+				boolean listOrSearch = HTTP_SERVER_REQUESTS.equals(id.getName()) && "GET".equals(id.getTag("method"))
+						&& HISTOGRAM_URIS.contains(id.getTag("uri"))
+						|| Constants.METRIC_NOTE_SERVICE.equals(id.getName())
+								&& HISTOGRAM_SERVICE_METHODS.contains(id.getTag("method"));
+				return listOrSearch
+						? DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config)
+						: config;
+			}
+		};
+	}
+}
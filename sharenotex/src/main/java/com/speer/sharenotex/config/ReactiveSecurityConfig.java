@@ -0,0 +1,106 @@
+package com.speer.sharenotex.config;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.speer.sharenotex.cache.VerifiedJwtCache;
+import com.speer.sharenotex.util.CachingReactiveJwtDecoder;
+import com.speer.sharenotex.util.KeycloakJwkSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration class for Spring Security in the reactive profile. Applies the
+ * same rules as {@link SecurityConfig} to the WebFlux filter chain and
+ * validates JWTs against a key set that is fetched without blocking.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+	/**
+	 * Configures the security filter chain for the application.
+	 *
+	 * @param http The ServerHttpSecurity object to configure.
+	 * @return The configured SecurityWebFilterChain.
+	 */
+	@Bean
+	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+		// Disable CSRF protection
+		http.csrf(t -> t.disable());
+
+		// Configure authorization rules
+		http.authorizeExchange(authorize -> {
+			authorize.pathMatchers(HttpMethod.POST, "/api/auth/*").permitAll()
+					.pathMatchers(SecurityConfig.SWAGGER_PATH_ALLOWED).permitAll()
+					.pathMatchers(HttpMethod.GET, SecurityConfig.ACTUATOR_PATH_ALLOWED).permitAll().anyExchange()
+					.authenticated();
+		});
+
+		// Configure OAuth2 resource server with JWT authentication
+		http.oauth2ResourceServer(t -> {
+			t.jwt(Customizer.withDefaults());
+		});
+
+		// Do not keep a security context between requests
+		http.securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+		return http.build();
+	}
+
+	/**
+	 * Provides a ReactiveJwtDecoder bean for decoding JWT tokens. Keys come from
+	 * the pre-fetched set of {@link KeycloakJwkSource}; only fetches for rotated
+	 * keys block, on a bounded elastic thread. Tokens that have been verified
+	 * once are served from the {@link VerifiedJwtCache}.
+	 *
+	 * @param jwkSource        Source of the Keycloak signing keys.
+	 * @param verifiedJwtCache Cache of verified tokens.
+	 * @param meterRegistry    Registry of the verification timers.
+	 * @return ReactiveJwtDecoder bean verifying tokens issued by Keycloak.
+	 */
+	@Bean
+	public ReactiveJwtDecoder reactiveJwtDecoder(KeycloakJwkSource jwkSource, VerifiedJwtCache verifiedJwtCache,
+			MeterRegistry meterRegistry) {
+		return new CachingReactiveJwtDecoder(NimbusReactiveJwtDecoder.withJwkSource(signedJwt -> {
+			JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(signedJwt.getHeader()));
+			List<JWK> keys = jwkSource.getCached(selector);
+			return !keys.isEmpty() ? Flux.fromIterable(keys)
+					: Mono.fromCallable(() -> jwkSource.get(selector, null)).subscribeOn(Schedulers.boundedElastic())
+							.flatMapIterable(Function.identity());
+		}).build(), verifiedJwtCache, meterRegistry);
+	}
+
+	/**
+	 * Exposes the current exchange in the Reactor context, where the rate limiter
+	 * reads the client address and sets its response headers.
+	 *
+	 * @return ServerWebExchangeContextFilter bean.
+	 */
+	@Bean
+	public ServerWebExchangeContextFilter serverWebExchangeContextFilter() {
+		return new ServerWebExchangeContextFilter();
+	}
+}
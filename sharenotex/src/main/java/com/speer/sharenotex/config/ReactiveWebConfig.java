@@ -0,0 +1,25 @@
+package com.speer.sharenotex.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration class for the web server in the reactive profile.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+	/**
+	 * Serves the reactive stack from Reactor Netty. Tomcat stays on the class path
+	 * for the servlet stack and would otherwise be picked first.
+	 *
+	 * @return The Netty web server factory.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+}
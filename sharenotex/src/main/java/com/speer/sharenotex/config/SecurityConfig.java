@@ -2,6 +2,7 @@ package com.speer.sharenotex.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -12,11 +13,23 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.speer.sharenotex.cache.VerifiedJwtCache;
+import com.speer.sharenotex.util.CachingJwtDecoder;
+import com.speer.sharenotex.util.KeycloakJwkSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Configuration class for Spring Security, enabling web security and
- * method-level security.
+ * method-level security. Replaced by {@link ReactiveSecurityConfig} in the
+ * reactive profile.
  */
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -35,8 +48,10 @@ public class SecurityConfig {
 
 		// Configure authorization rules
 		http.authorizeHttpRequests(authorize -> {
-			authorize.requestMatchers(HttpMethod.POST, "/api/auth/*").permitAll().requestMatchers(SWAGGER_PATH_ALLOWED)
-					.permitAll().anyRequest().authenticated();
+			authorize.requestMatchers(HttpMethod.POST, "/api/auth/*").permitAll()
+					.requestMatchers(HttpMethod.GET, "/api/auth/signup/*").permitAll().requestMatchers(SWAGGER_PATH_ALLOWED)
+					.permitAll().requestMatchers(HttpMethod.GET, ACTUATOR_PATH_ALLOWED).permitAll().anyRequest()
+					.authenticated();
 		});
 
 		// Configure OAuth2 resource server with JWT authentication
@@ -51,14 +66,24 @@ public class SecurityConfig {
 	}
 
 	/**
-	 * Provides a JwtDecoder bean for decoding JWT tokens.
+	 * Provides a JwtDecoder bean for decoding JWT tokens. Signatures are checked
+	 * against the pre-fetched keys of {@link KeycloakJwkSource}, and tokens that
+	 * have been verified once are served from the {@link VerifiedJwtCache}.
 	 *
-	 * @return JwtDecoder bean configured with the JWK set URI.
+	 * @param jwkSource        Source of the Keycloak signing keys.
+	 * @param verifiedJwtCache Cache of verified tokens.
+	 * @param meterRegistry    Registry of the verification timers.
+	 * @return JwtDecoder bean verifying tokens issued by Keycloak.
 	 */
 	@Bean
-	public JwtDecoder jwtDecoder() {
-		return NimbusJwtDecoder.withJwkSetUri("http://localhost:8080/realms/Security/protocol/openid-connect/certs")
-				.build();
+	public JwtDecoder jwtDecoder(KeycloakJwkSource jwkSource, VerifiedJwtCache verifiedJwtCache,
+			MeterRegistry meterRegistry) {
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+		// Claims are validated by the Spring Security validators of the decoder
+		jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+		});
+		return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor), verifiedJwtCache, meterRegistry);
 	}
 
 	/**
@@ -68,4 +93,10 @@ public class SecurityConfig {
 			"/v3/api-docs/**", "/swagger-resources", "/swagger-resources/**", "/configuration/ui",
 			"/configuration/security", "/swebjars/**", "swagger-ui/index.html", "swagger-ui/**", "/swagger-ui.html",
 			"/v3/api-docs.yml" };
+
+	/**
+	 * Array of actuator paths allowed without authentication, for health checks.
+	 * The other endpoints, including the Prometheus scrape, need a token.
+	 */
+	protected static final String[] ACTUATOR_PATH_ALLOWED = { "/actuator/health", "/actuator/health/**" };
 }
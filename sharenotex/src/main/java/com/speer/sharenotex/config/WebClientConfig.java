@@ -3,14 +3,14 @@ package com.speer.sharenotex.config;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.ClientRequest;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
@@ -20,29 +20,25 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.speer.sharenotex.exception.NotFoundException;
 
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
 /**
  * Configuration class for creating WebClient to make reactive HTTP requests.
+ * Requests share the pooled connections of {@link KeycloakHttpClientConfig} and
+ * are observed, which records them as {@code http.client.requests} metrics.
+ * Bearer tokens are passed per call, so concurrent requests never see each
+ * other's token.
  */
 @Configuration
+@RequiredArgsConstructor
 @Slf4j
 public class WebClientConfig {
 
-	private String token;
-
-	/**
-	 * Setter method for setting the OAuth token.
-	 * 
-	 * This method is used to set the OAuth token that will be included in the
-	 * headers of outgoing requests made by the WebClient.
-	 * 
-	 * @param token The OAuth token to be set
-	 */
-	public void setToken(String token) {
-		this.token = token;
-	}
+	private final ObjectProvider<ObservationRegistry> observationRegistry;
+	private final ReactorClientHttpConnector keycloakHttpConnector;
 
 	/**
 	 * Creates and returns an ObjectMapper bean.
@@ -65,7 +61,8 @@ public class WebClientConfig {
 	public WebClient.Builder webClientBuilder() {
 		return WebClient.builder().defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
 				.defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-				.filter(oauthTokenFilter());
+				.clientConnector(keycloakHttpConnector)
+				.observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
 	}
 
 	/**
@@ -78,35 +75,19 @@ public class WebClientConfig {
 		return webClientBuilder().build();
 	}
 
-	/**
-	 * Creates an ExchangeFilterFunction for adding OAuth token to the request
-	 * headers.
-	 * 
-	 * This function is used as a filter in the WebClient to include the OAuth token
-	 * in the headers of outgoing requests.
-	 * 
-	 * @return ExchangeFilterFunction instance for processing requests
-	 */
-	private ExchangeFilterFunction oauthTokenFilter() {
-		return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-			// Add OAuth token to the request headers
-			ClientRequest authorizedRequest = ClientRequest.from(clientRequest)
-					.headers(headers -> headers.setBearerAuth(token)).build();
-			return Mono.just(authorizedRequest);
-		});
-	}
-
 	/**
 	 * Performs a GET request to the specified URL and retrieves the response as the
 	 * given response type.
 	 * 
 	 * @param url          URL to send the GET request to
+	 * @param token        OAuth token authorizing the request
 	 * @param responseType Class representing the type of the response
 	 * @param <T>          Type of the response
 	 * @return Response of the specified type
 	 */
-	public <T> T get(String url, Class<T> responseType) {
-		return webclient().get().uri(url).retrieve().bodyToMono(responseType).block();
+	public <T> T get(String url, String token, Class<T> responseType) {
+		return webclient().get().uri(url).headers(headers -> headers.setBearerAuth(token)).retrieve()
+				.bodyToMono(responseType).block();
 	}
 
 	/**
@@ -114,12 +95,14 @@ public class WebClientConfig {
 	 * list of the given response type.
 	 * 
 	 * @param url          URL to send the GET request to
+	 * @param token        OAuth token authorizing the request
 	 * @param responseType TypeReference representing the type of the response list
 	 * @param <T>          Type of the response
 	 * @return List of responses of the specified type
 	 */
-	public <T> List<T> getList(String url, TypeReference<List<T>> responseType) {
-		String jsonResponse = webclient().get().uri(url).retrieve().bodyToMono(String.class).block();
+	public <T> List<T> getList(String url, String token, TypeReference<List<T>> responseType) {
+		String jsonResponse = webclient().get().uri(url).headers(headers -> headers.setBearerAuth(token)).retrieve()
+				.bodyToMono(String.class).block();
 		return parseJsonResponse(jsonResponse, responseType);
 	}
 
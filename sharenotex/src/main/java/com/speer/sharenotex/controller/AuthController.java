@@ -1,8 +1,12 @@
 package com.speer.sharenotex.controller;
 
+import java.net.URI;
 import java.util.Optional;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.speer.sharenotex.requesdto.LoginRequestDto;
 import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
 import com.speer.sharenotex.responsedto.LoginResponseDto;
+import com.speer.sharenotex.responsedto.RegistrationStatusDto;
 import com.speer.sharenotex.service.AuthService;
 import com.speer.sharenotex.util.Constants;
 import com.speer.sharenotex.util.RateLimited;
@@ -23,6 +28,7 @@ import lombok.RequiredArgsConstructor;
  * endpoints for user registration and obtaining access tokens.
  */
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/api/auth")
 @Tag(name = "Auth Controller", description = "API endpoints for Auth")
@@ -31,20 +37,38 @@ public class AuthController {
 	private final AuthService authService;
 
 	/**
-	 * Endpoint for user registration.
+	 * Endpoint for user registration. When the registration queue is enabled, the
+	 * signup is accepted with its registration status, to be polled at the
+	 * returned location.
 	 *
 	 * @param userRegistrationRequestDto DTO containing user registration details.
 	 * @return ResponseEntity indicating the success or failure of the registration
-	 *         process.
+	 *         process, or the status of the queued registration.
 	 */
 	@PostMapping("/signup")
 	@Operation(summary = "Register a new user", description = "Endpoint to register a new user")
-	ResponseEntity<String> signup(@Valid @RequestBody UserRegistrationRequestDto userRegistrationRequestDto) {
+	ResponseEntity<?> signup(@Valid @RequestBody UserRegistrationRequestDto userRegistrationRequestDto) {
+		if (authService.isRegistrationQueued()) {
+			RegistrationStatusDto status = authService.queueNewUser(userRegistrationRequestDto);
+			return ResponseEntity.accepted().location(URI.create("/api/auth/signup/" + status.getId())).body(status);
+		}
 		return Optional.of(authService.addNewUser(userRegistrationRequestDto)).filter(Boolean::booleanValue)
 				.map(result -> ResponseEntity.ok(Constants.USER_REGISTER_SUCCESS))
 				.orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Constants.USER_REGISTER_FAIL));
 	}
 
+	/**
+	 * Endpoint for polling the status of a queued registration.
+	 *
+	 * @param registrationId ID returned when the signup was queued.
+	 * @return ResponseEntity containing the status of the registration.
+	 */
+	@GetMapping("/signup/{registrationId}")
+	@Operation(summary = "Get a registration status", description = "Endpoint to poll the status of a queued registration")
+	ResponseEntity<RegistrationStatusDto> getRegistrationStatus(@PathVariable String registrationId) {
+		return ResponseEntity.ok(authService.getRegistrationStatus(registrationId));
+	}
+
 	/**
 	 * Endpoint for obtaining an access token by user login.
 	 *
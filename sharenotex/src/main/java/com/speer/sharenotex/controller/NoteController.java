@@ -1,6 +1,13 @@
 package com.speer.sharenotex.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.util.function.Supplier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,15 +15,30 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.speer.sharenotex.model.NoteCollectionVersion;
+import com.speer.sharenotex.model.NoteMetadata;
+import com.speer.sharenotex.requesdto.BatchShareNoteRequestDto;
 import com.speer.sharenotex.requesdto.NoteRequestDto;
 import com.speer.sharenotex.requesdto.ShareNoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportResultDto;
+import com.speer.sharenotex.responsedto.NoteChangesResponseDto;
 import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.OffsetPageResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
 import com.speer.sharenotex.service.NoteService;
 import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.ETags;
+import com.speer.sharenotex.util.ImportFormat;
 import com.speer.sharenotex.util.RateLimited;
+import com.speer.sharenotex.util.SearchMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -27,6 +49,7 @@ import lombok.RequiredArgsConstructor;
  * retrieval, update, deletion, sharing, and searching.
  */
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/api/notes")
 @Tag(name = "Note Controller", description = "Endpoint for notes")
@@ -49,55 +72,133 @@ public class NoteController {
 	}
 
 	/**
-	 * Endpoint for retrieving a note by its ID.
+	 * Endpoint for retrieving the notes shared with the current user page by
+	 * page.
 	 *
-	 * @param id ID of the note to retrieve.
-	 * @return ResponseEntity containing the retrieved note.
+	 * @param cursor Cursor returned with the previous page; omitted for the first
+	 *               page.
+	 * @param limit  Maximum number of notes to return.
+	 * @return ResponseEntity containing a page of shared notes and the next
+	 *         cursor.
+	 */
+	@GetMapping("/shared")
+	@RateLimited
+	@Operation(summary = "Get notes shared with me", description = "Endpoint to retrieve the notes shared with the current user, most recently shared first.")
+	ResponseEntity<PageResponseDto<SharedNoteResponseDto>> fetchSharedNotes(
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "limit", defaultValue = "20") int limit) {
+		return ResponseEntity.ok(noteService.findSharedWithMe(cursor, limit));
+	}
+
+	/**
+	 * Answers a conditional GET. Responds with 304 Not Modified, without loading
+	 * the body, when the If-None-Match or If-Modified-Since headers of the request
+	 * still match; otherwise loads the body and responds with the validators.
+	 *
+	 * @param request      Current request.
+	 * @param eTag         Entity tag of the current representation.
+	 * @param lastModified Timestamp of the last change, or null if unknown.
+	 * @param body         Supplier of the response body.
+	 * @return ResponseEntity with the body, or null if the response was already
+	 *         completed with 304 Not Modified.
+	 */
+	private <T> ResponseEntity<T> conditionalGet(ServletWebRequest request, String eTag, Timestamp lastModified,
+			Supplier<T> body) {
+		request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+				CacheControl.noCache().cachePrivate().getHeaderValue());
+		if (request.checkNotModified(eTag, lastModified == null ? -1 : lastModified.getTime())) {
+			return null;
+		}
+		return ResponseEntity.ok(body.get());
+	}
+
+	/**
+	 * Endpoint for retrieving a note by its ID. Supports conditional requests
+	 * through If-None-Match and If-Modified-Since.
+	 *
+	 * @param id      ID of the note to retrieve.
+	 * @param request Current request.
+	 * @return ResponseEntity containing the retrieved note, or 304 Not Modified.
 	 */
 	@GetMapping("/{id}")
 	@RateLimited
 	@Operation(summary = "Get a note by ID", description = "Endpoint to retrieve a note by its ID.")
-	ResponseEntity<NoteResponseDto> fetchNoteById(@PathVariable Integer id) {
-		return ResponseEntity.ok(noteService.findNote(id));
+	ResponseEntity<NoteResponseDto> fetchNoteById(@PathVariable Integer id, ServletWebRequest request) {
+		NoteMetadata metadata = noteService.findNoteMetadata(id);
+		return conditionalGet(request, ETags.forNote(metadata.getId(), metadata.getVersion()),
+				metadata.getUpdatedAt(), () -> noteService.findNote(id));
 	}
 
 	/**
-	 * Endpoint for retrieving all notes.
+	 * Endpoint for retrieving the notes page by page. Supports conditional
+	 * requests through If-None-Match and If-Modified-Since.
 	 *
-	 * @return ResponseEntity containing a list of all notes.
+	 * @param cursor  Cursor returned with the previous page; omitted for the first
+	 *                page.
+	 * @param limit   Maximum number of notes to return.
+	 * @param request Current request.
+	 * @return ResponseEntity containing a page of notes and the next cursor, or
+	 *         304 Not Modified if none of the user's notes changed.
 	 */
 	@GetMapping()
 	@RateLimited
-	@Operation(summary = "Get all notes", description = "Endpoint to retrieve all notes.")
-	ResponseEntity<List<NoteResponseDto>> fetchAllNote() {
-		return ResponseEntity.ok(noteService.findAll());
+	@Operation(summary = "Get all notes", description = "Endpoint to retrieve all notes, most recently updated first, using cursor pagination.")
+	ResponseEntity<PageResponseDto<NoteResponseDto>> fetchAllNote(
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "limit", defaultValue = "20") int limit, ServletWebRequest request) {
+		NoteCollectionVersion collection = noteService.findNoteCollectionVersion();
+		return conditionalGet(request, ETags.forNoteCollection(collection.getUserId(), collection.getVersion()),
+				collection.getUpdatedAt(), () -> noteService.findAll(cursor, limit));
 	}
 
 	/**
-	 * Endpoint for updating a note by its ID.
+	 * Endpoint for incremental syncs: retrieves the notes created or updated and
+	 * the IDs of the notes deleted since a sync cursor.
+	 *
+	 * @param since Cursor returned by the previous sync; omitted for a full sync.
+	 * @param limit Maximum number of changes to return.
+	 * @return ResponseEntity containing the changes and the cursor to continue
+	 *         from.
+	 */
+	@GetMapping("/changes")
+	@RateLimited
+	@Operation(summary = "Get note changes", description = "Endpoint to retrieve the notes created, updated or deleted since a sync cursor.")
+	ResponseEntity<NoteChangesResponseDto> fetchChanges(@RequestParam(value = "since", required = false) String since,
+			@RequestParam(value = "limit", defaultValue = "100") int limit) {
+		return ResponseEntity.ok(noteService.findChanges(since, limit));
+	}
+
+	/**
+	 * Endpoint for updating a note by its ID. With an If-Match header the update
+	 * only succeeds if the note still has the given entity tag.
 	 *
 	 * @param id             ID of the note to update.
 	 * @param noteRequestDto DTO containing updated details for the note.
+	 * @param ifMatch        Optional entity tag the note must still have.
 	 * @return ResponseEntity indicating the success of the note update.
 	 */
 	@PutMapping("/{id}")
 	@RateLimited
 	@Operation(summary = "Update a note by ID", description = "Endpoint to update a note by its ID.")
-	ResponseEntity<String> updateNote(@Valid @PathVariable Integer id, @RequestBody NoteRequestDto noteRequestDto) {
-		return ResponseEntity.ok(noteService.updateNote(id, noteRequestDto));
+	ResponseEntity<String> updateNote(@Valid @PathVariable Integer id, @RequestBody NoteRequestDto noteRequestDto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return ResponseEntity.ok(noteService.updateNote(id, noteRequestDto, ETags.expectedVersion(ifMatch, id)));
 	}
 
 	/**
-	 * Endpoint for deleting a note by its ID.
+	 * Endpoint for deleting a note by its ID. With an If-Match header the note is
+	 * only deleted if it still has the given entity tag.
 	 *
-	 * @param id ID of the note to delete.
+	 * @param id      ID of the note to delete.
+	 * @param ifMatch Optional entity tag the note must still have.
 	 * @return ResponseEntity indicating the success of the note deletion.
 	 */
 	@DeleteMapping("/{id}")
 	@RateLimited
 	@Operation(summary = "Delete a note by ID", description = "Endpoint to delete a note by its ID.")
-	ResponseEntity<String> deleteNote(@PathVariable Integer id) {
-		return ResponseEntity.ok(noteService.deleteNoteById(id));
+	ResponseEntity<String> deleteNote(@PathVariable Integer id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return ResponseEntity.ok(noteService.deleteNoteById(id, ETags.expectedVersion(ifMatch, id)));
 	}
 
 	/**
@@ -113,18 +214,91 @@ public class NoteController {
 		return ResponseEntity.ok(noteService.shareNoteWithUser(shareNoteRequestDto));
 	}
 
+	/**
+	 * Endpoint for sharing one or more notes with several users at once.
+	 *
+	 * @param batchShareNoteRequestDto DTO containing the notes and recipients.
+	 * @return ResponseEntity indicating the success of note sharing.
+	 */
+	@PostMapping("/share/batch")
+	@RateLimited
+	@Operation(summary = "Share notes with users", description = "Endpoint to share one or more notes with several users at once.")
+	ResponseEntity<String> shareNotes(@RequestBody BatchShareNoteRequestDto batchShareNoteRequestDto) {
+		return ResponseEntity.ok(noteService.shareNotesWithUsers(batchShareNoteRequestDto));
+	}
+
 	/**
 	 * Endpoint for searching notes based on a query.
 	 *
-	 * @param query Search query string.
-	 * @return ResponseEntity containing a list of notes matching the search query.
+	 * @param query  Search query string.
+	 * @param mode   Optional search mode ({@code contains}, the default,
+	 *               {@code fulltext}, {@code fuzzy} or {@code index}).
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
+	 * @return ResponseEntity containing a page of notes matching the search query,
+	 *         with the offset of the next page if more notes match.
 	 */
 	@GetMapping("/search")
 	@RateLimited
 	@Operation(summary = "Search notes", description = "Endpoint to search notes based on a query.")
-	ResponseEntity<List<NoteResponseDto>> searchNotes(@RequestParam("query") String query) {
-		List<NoteResponseDto> searchResults = noteService.searchNotes(query);
-		return ResponseEntity.ok(searchResults);
+	ResponseEntity<OffsetPageResponseDto<NoteResponseDto>> searchNotes(@RequestParam("query") String query,
+			@RequestParam(value = "mode", required = false) String mode,
+			@RequestParam(value = "limit", defaultValue = "20") int limit,
+			@RequestParam(value = "offset", defaultValue = "0") int offset) {
+		SearchMode searchMode = mode != null ? SearchMode.from(mode) : null;
+		return ResponseEntity.ok(noteService.searchNotes(query, searchMode, limit, offset));
+	}
+
+	/**
+	 * Endpoint for streaming the changes to the current user's notes, and the
+	 * notes shared with the user, as Server-Sent Events. A reconnecting client
+	 * receives the events it missed after the one given in Last-Event-ID, or a
+	 * {@code resync} event if they are no longer available.
+	 *
+	 * @param lastEventId Optional ID of the last event received.
+	 * @return SseEmitter sending {@code created}, {@code updated},
+	 *         {@code deleted}, {@code shared} and {@code resync} events.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@RateLimited
+	@Operation(summary = "Stream note changes", description = "Endpoint to receive note changes and shares as Server-Sent Events.")
+	SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+		return noteService.streamEvents(lastEventId);
+	}
+
+	/**
+	 * Endpoint for exporting all notes as newline-delimited JSON. The notes are
+	 * streamed from the database straight to the response.
+	 *
+	 * @return ResponseEntity streaming one JSON note per line.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@RateLimited
+	@Operation(summary = "Export notes", description = "Endpoint to export all notes as newline-delimited JSON.")
+	ResponseEntity<StreamingResponseBody> exportNotes() {
+		return ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"")
+				.body(noteService::exportNotes);
+	}
+
+	/**
+	 * Endpoint for importing notes in bulk from a newline-delimited JSON or CSV
+	 * body. The body is streamed into the database without being buffered.
+	 *
+	 * @param contentType Content type of the body.
+	 * @param body        Stream of the notes to import.
+	 * @return ResponseEntity containing the number of imported notes and the
+	 *         rejected rows.
+	 * @throws IOException If reading the body fails.
+	 */
+	@PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+	@RateLimited
+	@Operation(summary = "Import notes", description = "Endpoint to import notes from newline-delimited JSON or CSV (title,content).")
+	ResponseEntity<ImportResultDto> importNotes(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) throws IOException {
+		ImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+				? ImportFormat.NDJSON
+				: ImportFormat.CSV;
+		return ResponseEntity.ok(noteService.importNotes(body, format));
 	}
 
 }
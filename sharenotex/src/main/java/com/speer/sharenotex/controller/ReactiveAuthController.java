@@ -0,0 +1,62 @@
+package com.speer.sharenotex.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.speer.sharenotex.requesdto.LoginRequestDto;
+import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
+import com.speer.sharenotex.responsedto.LoginResponseDto;
+import com.speer.sharenotex.service.ReactiveKeycloakService;
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.RateLimited;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link AuthController}, active in the reactive
+ * profile.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/auth")
+@Tag(name = "Auth Controller", description = "API endpoints for Auth")
+public class ReactiveAuthController {
+
+	private final ReactiveKeycloakService keycloakService;
+
+	/**
+	 * Endpoint for user registration.
+	 *
+	 * @param userRegistrationRequestDto DTO containing user registration details.
+	 * @return ResponseEntity indicating the success or failure of the registration
+	 *         process.
+	 */
+	@PostMapping("/signup")
+	@Operation(summary = "Register a new user", description = "Endpoint to register a new user")
+	Mono<ResponseEntity<String>> signup(@Valid @RequestBody UserRegistrationRequestDto userRegistrationRequestDto) {
+		return keycloakService.addKeycloakUser(userRegistrationRequestDto)
+				.map(created -> created ? ResponseEntity.ok(Constants.USER_REGISTER_SUCCESS)
+						: ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Constants.USER_REGISTER_FAIL));
+	}
+
+	/**
+	 * Endpoint for obtaining an access token by user login.
+	 *
+	 * @param loginRequestDto DTO containing user login details.
+	 * @return ResponseEntity containing the access token or an error response.
+	 */
+	@PostMapping("/login")
+	@RateLimited(name = "AuthController.login")
+	@Operation(summary = "Get an access token", description = "Endpoint for getting an access token")
+	Mono<ResponseEntity<LoginResponseDto>> login(@Valid @RequestBody LoginRequestDto loginRequestDto) {
+		return keycloakService.getAccessToken(loginRequestDto).map(ResponseEntity::ok);
+	}
+}
@@ -0,0 +1,287 @@
+package com.speer.sharenotex.controller;
+
+import java.sql.Timestamp;
+import java.util.function.Supplier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import com.speer.sharenotex.requesdto.BatchShareNoteRequestDto;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.requesdto.ShareNoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportResultDto;
+import com.speer.sharenotex.responsedto.NoteChangesResponseDto;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.OffsetPageResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+import com.speer.sharenotex.service.ReactiveNoteService;
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.ETags;
+import com.speer.sharenotex.util.ImportFormat;
+import com.speer.sharenotex.util.RateLimited;
+import com.speer.sharenotex.util.SearchMode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link NoteController}, active in the reactive
+ * profile. Offers the same endpoints as non-blocking handlers; rate limits use
+ * the endpoint names of {@link NoteController}, so their overrides apply to
+ * both.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/notes")
+@Tag(name = "Note Controller", description = "Endpoint for notes")
+public class ReactiveNoteController {
+
+	private final ReactiveNoteService noteService;
+
+	/**
+	 * Endpoint for creating a new note.
+	 *
+	 * @param noteRequestDto DTO containing details for creating a new note.
+	 * @return ResponseEntity indicating the success of note creation.
+	 */
+	@PostMapping()
+	@RateLimited(name = "NoteController.newNote")
+	@Operation(summary = "Create a new note", description = "Endpoint to create a new note.")
+	Mono<ResponseEntity<String>> newNote(@Valid @RequestBody NoteRequestDto noteRequestDto) {
+		return noteService.createNewNote(noteRequestDto).thenReturn(ResponseEntity.ok(Constants.NOTE_ADDED_SUCCESS));
+	}
+
+	/**
+	 * Endpoint for retrieving the notes shared with the current user page by
+	 * page.
+	 *
+	 * @param cursor Cursor returned with the previous page; omitted for the first
+	 *               page.
+	 * @param limit  Maximum number of notes to return.
+	 * @return ResponseEntity containing a page of shared notes and the next
+	 *         cursor.
+	 */
+	@GetMapping("/shared")
+	@RateLimited(name = "NoteController.fetchSharedWithMe")
+	@Operation(summary = "Get notes shared with me", description = "Endpoint to retrieve the notes shared with the current user, most recently shared first.")
+	Mono<ResponseEntity<PageResponseDto<SharedNoteResponseDto>>> fetchSharedWithMe(
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "limit", defaultValue = "20") int limit) {
+		return noteService.findSharedWithMe(cursor, limit).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Answers a conditional GET. Completes with 304 Not Modified, without loading
+	 * the body, when the If-None-Match or If-Modified-Since headers of the request
+	 * still match; otherwise loads the body and responds with the validators.
+	 *
+	 * @param exchange     Current exchange.
+	 * @param eTag         Entity tag of the current representation.
+	 * @param lastModified Timestamp of the last change, or null if unknown.
+	 * @param body         Supplier of the response body.
+	 * @return ResponseEntity with the body, or an empty Mono if the response was
+	 *         completed with 304 Not Modified.
+	 */
+	private <T> Mono<ResponseEntity<T>> conditionalGet(ServerWebExchange exchange, String eTag,
+			Timestamp lastModified, Supplier<Mono<T>> body) {
+		exchange.getResponse().getHeaders().setCacheControl(CacheControl.noCache().cachePrivate());
+		boolean notModified = lastModified == null ? exchange.checkNotModified(eTag)
+				: exchange.checkNotModified(eTag, lastModified.toInstant());
+		return notModified ? Mono.empty() : body.get().map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for retrieving a note by its ID. Supports conditional requests
+	 * through If-None-Match and If-Modified-Since.
+	 *
+	 * @param id       ID of the note to retrieve.
+	 * @param exchange Current exchange.
+	 * @return ResponseEntity containing the retrieved note, or 304 Not Modified.
+	 */
+	@GetMapping("/{id}")
+	@RateLimited(name = "NoteController.fetchNoteById")
+	@Operation(summary = "Get a note by ID", description = "Endpoint to retrieve a note by its ID.")
+	Mono<ResponseEntity<NoteResponseDto>> fetchNoteById(@PathVariable Integer id, ServerWebExchange exchange) {
+		return noteService.findNoteMetadata(id)
+				.flatMap(metadata -> conditionalGet(exchange, ETags.forNote(metadata.getId(), metadata.getVersion()),
+						metadata.getUpdatedAt(), () -> noteService.findNote(id)));
+	}
+
+	/**
+	 * Endpoint for retrieving the notes page by page. Supports conditional
+	 * requests through If-None-Match and If-Modified-Since.
+	 *
+	 * @param cursor   Cursor returned with the previous page; omitted for the
+	 *                 first page.
+	 * @param limit    Maximum number of notes to return.
+	 * @param exchange Current exchange.
+	 * @return ResponseEntity containing a page of notes and the next cursor, or
+	 *         304 Not Modified if none of the user's notes changed.
+	 */
+	@GetMapping()
+	@RateLimited(name = "NoteController.fetchAllNote")
+	@Operation(summary = "Get all notes", description = "Endpoint to retrieve all notes, most recently updated first, using cursor pagination.")
+	Mono<ResponseEntity<PageResponseDto<NoteResponseDto>>> fetchAllNote(
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "limit", defaultValue = "20") int limit, ServerWebExchange exchange) {
+		return noteService.findNoteCollectionVersion()
+				.flatMap(collection -> conditionalGet(exchange,
+						ETags.forNoteCollection(collection.getUserId(), collection.getVersion()),
+						collection.getUpdatedAt(), () -> noteService.findAll(cursor, limit)));
+	}
+
+	/**
+	 * Endpoint for incremental syncs: retrieves the notes created or updated and
+	 * the IDs of the notes deleted since a sync cursor.
+	 *
+	 * @param since Cursor returned by the previous sync; omitted for a full sync.
+	 * @param limit Maximum number of changes to return.
+	 * @return ResponseEntity containing the changes and the cursor to continue
+	 *         from.
+	 */
+	@GetMapping("/changes")
+	@RateLimited(name = "NoteController.fetchChanges")
+	@Operation(summary = "Get note changes", description = "Endpoint to retrieve the notes created, updated or deleted since a sync cursor.")
+	Mono<ResponseEntity<NoteChangesResponseDto>> fetchChanges(
+			@RequestParam(value = "since", required = false) String since,
+			@RequestParam(value = "limit", defaultValue = "100") int limit) {
+		return noteService.findChanges(since, limit).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for updating a note by its ID. With an If-Match header the update
+	 * only succeeds if the note still has the given entity tag.
+	 *
+	 * @param id             ID of the note to update.
+	 * @param noteRequestDto DTO containing updated details for the note.
+	 * @param ifMatch        Optional entity tag the note must still have.
+	 * @return ResponseEntity indicating the success of the note update.
+	 */
+	@PutMapping("/{id}")
+	@RateLimited(name = "NoteController.updateNote")
+	@Operation(summary = "Update a note by ID", description = "Endpoint to update a note by its ID.")
+	Mono<ResponseEntity<String>> updateNote(@Valid @PathVariable Integer id,
+			@RequestBody NoteRequestDto noteRequestDto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return noteService.updateNote(id, noteRequestDto, ETags.expectedVersion(ifMatch, id)).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for deleting a note by its ID. With an If-Match header the note is
+	 * only deleted if it still has the given entity tag.
+	 *
+	 * @param id      ID of the note to delete.
+	 * @param ifMatch Optional entity tag the note must still have.
+	 * @return ResponseEntity indicating the success of the note deletion.
+	 */
+	@DeleteMapping("/{id}")
+	@RateLimited(name = "NoteController.deleteNote")
+	@Operation(summary = "Delete a note by ID", description = "Endpoint to delete a note by its ID.")
+	Mono<ResponseEntity<String>> deleteNote(@PathVariable Integer id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return noteService.deleteNoteById(id, ETags.expectedVersion(ifMatch, id)).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for sharing a note with a user.
+	 *
+	 * @param shareNoteRequestDto DTO containing details for sharing a note.
+	 * @return ResponseEntity indicating the success of note sharing.
+	 */
+	@PostMapping("/share")
+	@RateLimited(name = "NoteController.shareNote")
+	@Operation(summary = "Share a note with a user", description = "Endpoint to share a note with a user.")
+	Mono<ResponseEntity<String>> shareNote(@RequestBody ShareNoteRequestDto shareNoteRequestDto) {
+		return noteService.shareNoteWithUser(shareNoteRequestDto).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for sharing one or more notes with several users at once.
+	 *
+	 * @param batchShareNoteRequestDto DTO containing the notes and recipients.
+	 * @return ResponseEntity indicating the success of note sharing.
+	 */
+	@PostMapping("/share/batch")
+	@RateLimited(name = "NoteController.shareNotes")
+	@Operation(summary = "Share notes with users", description = "Endpoint to share one or more notes with several users at once.")
+	Mono<ResponseEntity<String>> shareNotes(@RequestBody BatchShareNoteRequestDto batchShareNoteRequestDto) {
+		return noteService.shareNotesWithUsers(batchShareNoteRequestDto).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for searching notes based on a query.
+	 *
+	 * @param query  Search query string.
+	 * @param mode   Optional search mode ({@code contains}, the default,
+	 *               {@code fulltext} or {@code fuzzy}).
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
+	 * @return ResponseEntity containing a page of notes matching the search query,
+	 *         with the offset of the next page if more notes match.
+	 */
+	@GetMapping("/search")
+	@RateLimited(name = "NoteController.searchNotes")
+	@Operation(summary = "Search notes", description = "Endpoint to search notes based on a query.")
+	Mono<ResponseEntity<OffsetPageResponseDto<NoteResponseDto>>> searchNotes(@RequestParam("query") String query,
+			@RequestParam(value = "mode", required = false) String mode,
+			@RequestParam(value = "limit", defaultValue = "20") int limit,
+			@RequestParam(value = "offset", defaultValue = "0") int offset) {
+		SearchMode searchMode = mode != null ? SearchMode.from(mode) : null;
+		return noteService.searchNotes(query, searchMode, limit, offset).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Endpoint for exporting all notes as newline-delimited JSON. The notes are
+	 * streamed from the database as the client reads them.
+	 *
+	 * @return ResponseEntity streaming one JSON note per line.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@RateLimited(name = "NoteController.exportNotes")
+	@Operation(summary = "Export notes", description = "Endpoint to export all notes as newline-delimited JSON.")
+	Mono<ResponseEntity<Flux<NoteResponseDto>>> exportNotes() {
+		return Mono.just(ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"")
+				.body(noteService.exportNotes()));
+	}
+
+	/**
+	 * Endpoint for importing notes in bulk from a newline-delimited JSON or CSV
+	 * body. The body is parsed as it arrives and inserted in batches within one
+	 * transaction.
+	 *
+	 * @param contentType Content type of the body.
+	 * @param body        Stream of the notes to import.
+	 * @return ResponseEntity containing the number of imported notes and the
+	 *         rejected rows.
+	 */
+	@PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+	@RateLimited(name = "NoteController.importNotes")
+	@Operation(summary = "Import notes", description = "Endpoint to import notes from newline-delimited JSON or CSV (title,content).")
+	Mono<ResponseEntity<ImportResultDto>> importNotes(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			@RequestBody Flux<DataBuffer> body) {
+		ImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+				? ImportFormat.NDJSON
+				: ImportFormat.CSV;
+		return noteService.importNotes(body, format).map(ResponseEntity::ok);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.speer.sharenotex.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An event pushed to the note event stream of a user. The ID is sent in the
+ * {@code id} field of the stream, and the rest as JSON data.
+ *
+ * @param id       Identifier of the event; later events have greater IDs.
+ * @param type     Kind of the event.
+ * @param noteId   The unique identifier of the note, or null for a resync.
+ * @param sharedBy The user who shared the note, for a share.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NoteEvent(@JsonIgnore long id, NoteEventType type, Integer noteId, String sharedBy) {
+}
@@ -0,0 +1,330 @@
+package com.speer.sharenotex.event;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans note events out to the Server-Sent Events streams of their users.
+ * <p>
+ * Every connection has a bounded queue of events waiting to be sent, drained
+ * by a virtual thread only while it is not empty, so an idle connection holds
+ * no thread. When the queue is full, the queued events are replaced by a single
+ * resync event. The last events of each user are kept for a while, so that a
+ * client reconnecting with a {@code Last-Event-ID} header receives the events
+ * it missed, or a resync event if they are no longer available. Heartbeat
+ * comments keep idle connections open through proxies and detect closed ones.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class NoteEventBroker implements MeterBinder {
+
+	private final int bufferSize;
+	private final int replaySize;
+	private final long replayTtlMillis;
+	private final int maxUsers;
+	private final long timeoutMillis;
+	private final ConcurrentMap<String, UserStream> streams = new ConcurrentHashMap<>();
+	// Starts at the startup time, so that IDs sent before a restart are older than any sent after it
+	private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+	private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+	private final AtomicInteger connections = new AtomicInteger();
+	private final LongAdder overflows = new LongAdder();
+
+	/**
+	 * Creates the broker from the configured buffer and replay settings.
+	 *
+	 * @param bufferSize      Maximum number of events queued for a connection.
+	 * @param replaySize      Number of recent events kept per user for replay.
+	 * @param replayTtlMillis Time (in milliseconds) the recent events of a user
+	 *                        without connections are kept.
+	 * @param maxUsers        Maximum number of users whose recent events are
+	 *                        kept.
+	 * @param timeoutMillis   Time (in milliseconds) after which a connection is
+	 *                        closed; clients reconnect with the last event ID.
+	 */
+	public NoteEventBroker(@Value("${com.sharenotex.stream.buffer-size:256}") int bufferSize,
+			@Value("${com.sharenotex.stream.replay-size:100}") int replaySize,
+			@Value("${com.sharenotex.stream.replay-ttl:300000}") long replayTtlMillis,
+			@Value("${com.sharenotex.stream.max-users:100000}") int maxUsers,
+			@Value("${com.sharenotex.stream.timeout:1800000}") long timeoutMillis) {
+		this.bufferSize = bufferSize;
+		this.replaySize = replaySize;
+		this.replayTtlMillis = replayTtlMillis;
+		this.maxUsers = maxUsers;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Opens an event stream for a user.
+	 *
+	 * @param userId      User identifier receiving the events.
+	 * @param lastEventId ID of the last event the client received before
+	 *                    reconnecting, or null for a new stream.
+	 * @return The emitter of the stream.
+	 */
+	public SseEmitter subscribe(String userId, Long lastEventId) {
+		SseEmitter emitter = createEmitter(timeoutMillis);
+		Subscription subscription = new Subscription(userId, emitter);
+		emitter.onCompletion(subscription::close);
+		emitter.onTimeout(subscription::close);
+		emitter.onError(e -> subscription.close());
+		connections.incrementAndGet();
+		streams.compute(userId, (id, stream) -> {
+			UserStream userStream = stream != null ? stream : new UserStream(sequence.get());
+			userStream.subscriptions.add(subscription);
+			if (lastEventId != null) {
+				userStream.replay(subscription, lastEventId, sequence.get());
+			}
+			return userStream;
+		});
+		return emitter;
+	}
+
+	/**
+	 * Creates the emitter of a new connection.
+	 *
+	 * @param timeout Time (in milliseconds) after which the connection is closed.
+	 * @return The emitter.
+	 */
+	SseEmitter createEmitter(long timeout) {
+		return new SseEmitter(timeout);
+	}
+
+	/**
+	 * Publishes an event to a user once the current transaction, if any, has
+	 * committed.
+	 *
+	 * @param userId User identifier receiving the event.
+	 * @param type   Kind of the event.
+	 * @param noteId The unique identifier of the note, or null for a resync.
+	 */
+	public void publish(String userId, NoteEventType type, Integer noteId) {
+		publish(userId, type, noteId, null);
+	}
+
+	/**
+	 * Publishes an event to a user once the current transaction, if any, has
+	 * committed.
+	 *
+	 * @param userId   User identifier receiving the event.
+	 * @param type     Kind of the event.
+	 * @param noteId   The unique identifier of the note, or null for a resync.
+	 * @param sharedBy The user who shared the note, for a share.
+	 */
+	public void publish(String userId, NoteEventType type, Integer noteId, String sharedBy) {
+		TransactionCallbacks.afterCommit(() -> streams.compute(userId, (id, stream) -> {
+			// Without a stream the event is not kept; reconnecting clients then get a resync
+			if (stream == null && streams.size() >= maxUsers) {
+				return null;
+			}
+			// Numbered inside compute, so that the events of a user are kept in ID order
+			NoteEvent event = new NoteEvent(sequence.incrementAndGet(), type, noteId, sharedBy);
+			UserStream userStream = stream != null ? stream : new UserStream(event.id() - 1);
+			userStream.publish(event);
+			return userStream;
+		}));
+	}
+
+	/**
+	 * Sends a heartbeat on the idle connections and drops the recent events of
+	 * users without connections once they expire.
+	 */
+	@Scheduled(fixedDelayString = "${com.sharenotex.stream.heartbeat-interval:15000}")
+	public void heartbeat() {
+		long now = System.currentTimeMillis();
+		forEachStream(stream -> stream.subscriptions.forEach(Subscription::heartbeat),
+				stream -> stream.subscriptions.isEmpty() && now - stream.lastActive > replayTtlMillis);
+	}
+
+	/**
+	 * Closes all connections; clients reconnect to another instance.
+	 */
+	@PreDestroy
+	public void close() {
+		List<SseEmitter> emitters = new ArrayList<>();
+		forEachStream(stream -> stream.subscriptions.forEach(subscription -> emitters.add(subscription.emitter)),
+				stream -> false);
+		emitters.forEach(SseEmitter::complete);
+		senders.shutdown();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(Constants.METRIC_STREAM_CONNECTIONS, connections, AtomicInteger::get)
+				.description("Open note event streams").register(registry);
+		FunctionCounter.builder(Constants.METRIC_STREAM_OVERFLOWS, overflows, LongAdder::sum)
+				.description("Connections whose event buffer overflowed and were sent a resync event")
+				.register(registry);
+	}
+
+	/**
+	 * Runs an action on every user stream while holding it exclusively, and
+	 * removes the streams matching the given condition.
+	 */
+	private void forEachStream(Consumer<UserStream> action, Predicate<UserStream> remove) {
+		for (String userId : streams.keySet()) {
+			streams.computeIfPresent(userId, (id, stream) -> {
+				action.accept(stream);
+				return remove.test(stream) ? null : stream;
+			});
+		}
+	}
+
+	/**
+	 * Connections and recent events of a user. Only accessed while the stream is
+	 * held exclusively through {@link ConcurrentMap#compute}.
+	 */
+	private final class UserStream {
+
+		private final ArrayDeque<NoteEvent> recent = new ArrayDeque<>();
+		private final List<Subscription> subscriptions = new ArrayList<>();
+		// Events up to this ID may have been missed by a reconnecting client
+		private long floor;
+		private long lastActive = System.currentTimeMillis();
+
+		private UserStream(long floor) {
+			this.floor = floor;
+		}
+
+		private void publish(NoteEvent event) {
+			recent.addLast(event);
+			if (recent.size() > replaySize) {
+				floor = recent.removeFirst().id();
+			}
+			lastActive = System.currentTimeMillis();
+			subscriptions.forEach(subscription -> subscription.offer(event));
+		}
+
+		private void replay(Subscription subscription, long lastEventId, long latestId) {
+			if (lastEventId < floor || lastEventId > latestId) {
+				subscription.offer(new NoteEvent(latestId, NoteEventType.RESYNC, null, null));
+				return;
+			}
+			recent.stream().filter(event -> event.id() > lastEventId).forEach(subscription::offer);
+		}
+	}
+
+	/**
+	 * A connection of a user, with the events waiting to be sent on it.
+	 */
+	private final class Subscription {
+
+		private final String userId;
+		private final SseEmitter emitter;
+		private final ArrayDeque<NoteEvent> queue = new ArrayDeque<>();
+		private boolean heartbeatDue;
+		private boolean sending;
+		private boolean closed;
+
+		private Subscription(String userId, SseEmitter emitter) {
+			this.userId = userId;
+			this.emitter = emitter;
+		}
+
+		private synchronized void offer(NoteEvent event) {
+			if (closed) {
+				return;
+			}
+			if (queue.size() >= bufferSize) {
+				// The client catches up through a sync instead of receiving every queued event
+				queue.clear();
+				queue.add(new NoteEvent(event.id(), NoteEventType.RESYNC, null, null));
+				overflows.increment();
+			} else {
+				queue.add(event);
+			}
+			startSending();
+		}
+
+		private synchronized void heartbeat() {
+			if (!closed && !sending) {
+				heartbeatDue = true;
+				startSending();
+			}
+		}
+
+		private void startSending() {
+			if (!sending) {
+				sending = true;
+				try {
+					senders.execute(this::send);
+				} catch (RejectedExecutionException e) {
+					sending = false;
+				}
+			}
+		}
+
+		/**
+		 * Sends the queued events, then the due heartbeat, until there is nothing
+		 * left to send.
+		 */
+		private void send() {
+			while (true) {
+				NoteEvent event;
+				synchronized (this) {
+					event = queue.poll();
+					if (closed || event == null && !heartbeatDue) {
+						sending = false;
+						return;
+					}
+					heartbeatDue = false;
+				}
+				try {
+					emitter.send(event != null
+							? SseEmitter.event().id(Long.toString(event.id())).name(event.type().eventName())
+									.data(event, MediaType.APPLICATION_JSON)
+							: SseEmitter.event().comment("heartbeat"));
+				} catch (IOException | IllegalStateException e) {
+					log.debug("Closing note event stream of user {}: {}", userId, e.getMessage());
+					close();
+				}
+			}
+		}
+
+		private void close() {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				queue.clear();
+			}
+			connections.decrementAndGet();
+			streams.computeIfPresent(userId, (id, stream) -> {
+				stream.subscriptions.remove(this);
+				stream.lastActive = System.currentTimeMillis();
+				return stream;
+			});
+		}
+	}
+}
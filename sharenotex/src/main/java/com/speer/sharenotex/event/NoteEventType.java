@@ -0,0 +1,49 @@
+package com.speer.sharenotex.event;
+
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Kinds of events pushed to the note event streams of users.
+ */
+public enum NoteEventType {
+
+	/**
+	 * One of the user's notes was created.
+	 */
+	CREATED,
+
+	/**
+	 * One of the user's notes was updated.
+	 */
+	UPDATED,
+
+	/**
+	 * One of the user's notes was deleted.
+	 */
+	DELETED,
+
+	/**
+	 * A note was shared with the user.
+	 */
+	SHARED,
+
+	/**
+	 * Events were missed, because they could not be replayed or did not fit in
+	 * the connection's buffer, or the user's notes changed in bulk. The client
+	 * should catch up through an incremental sync.
+	 */
+	RESYNC;
+
+	/**
+	 * Returns the name of the event type, as sent in the {@code event} field of
+	 * the stream.
+	 *
+	 * @return Lower-case name of the event type.
+	 */
+	@JsonValue
+	public String eventName() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
@@ -2,13 +2,16 @@ package com.speer.sharenotex.exception;
 
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import com.speer.sharenotex.responsedto.ErrorResponse;
+import com.speer.sharenotex.util.Constants;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -31,6 +34,33 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(errorResponse, errorCode);
 	}
 
+	/**
+	 * Handles instances of {@link RateLimitExceedException} and returns an error
+	 * response carrying the {@code Retry-After} and {@code X-RateLimit-*}
+	 * headers.
+	 *
+	 * @param rateLimitExceedException The instance of
+	 *                                 {@link RateLimitExceedException} to be
+	 *                                 handled.
+	 * @return A {@link ResponseEntity} containing the error response, rate limit
+	 *         headers and HTTP status code.
+	 */
+	@ExceptionHandler(RateLimitExceedException.class)
+	public ResponseEntity<ErrorResponse> rateLimitExceedExceptionHandler(
+			RateLimitExceedException rateLimitExceedException) {
+		HttpHeaders headers = new HttpHeaders();
+		if (rateLimitExceedException.getRetryAfterSeconds() > 0) {
+			headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimitExceedException.getRetryAfterSeconds()));
+		}
+		if (rateLimitExceedException.getLimit() > 0) {
+			headers.set(Constants.HEADER_RATE_LIMIT_LIMIT, String.valueOf(rateLimitExceedException.getLimit()));
+			headers.set(Constants.HEADER_RATE_LIMIT_REMAINING, "0");
+		}
+		final ErrorResponse errorResponse = new ErrorResponse(rateLimitExceedException.getFieldName(),
+				rateLimitExceedException.getMessage());
+		return new ResponseEntity<>(errorResponse, headers, rateLimitExceedException.getHttpStatusCode());
+	}
+
 	/**
 	 * Handles instances of {@link MethodArgumentNotValidException} and returns
 	 * field-level validation errors.
@@ -54,4 +84,24 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Handles instances of {@link WebExchangeBindException}, the reactive
+	 * counterpart of {@link MethodArgumentNotValidException}, and returns
+	 * field-level validation errors.
+	 *
+	 * @param message The instance of {@link WebExchangeBindException} to be
+	 *                handled.
+	 * @return A {@link ResponseEntity} containing a map of field-level validation
+	 *         errors and HTTP status code.
+	 */
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<Map<String, String>> webExchangeBindExceptionHandler(WebExchangeBindException message) {
+		Map<String, String> response = new HashMap<>();
+
+		message.getBindingResult().getFieldErrors()
+				.forEach(error -> response.put(error.getField(), error.getDefaultMessage()));
+
+		return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.speer.sharenotex.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends GenericException {
+
+	private static final long serialVersionUID = 1L;
+	private static final HttpStatus httpStatusCode = HttpStatus.PRECONDITION_FAILED;
+
+	/**
+	 * Constructs a new PreconditionFailedException with the specified field name
+	 * and message.
+	 *
+	 * @param fieldName The name of the field that caused the exception.
+	 * @param message   The detailed message describing the exception.
+	 */
+	public PreconditionFailedException(final String fieldName, final String message) {
+		super(fieldName, httpStatusCode, String.format("%s", message));
+	}
+}
@@ -2,11 +2,17 @@ package com.speer.sharenotex.exception;
 
 import org.springframework.http.HttpStatus;
 
+import lombok.Getter;
+
+@Getter
 public class RateLimitExceedException extends GenericException {
 
 	private static final long serialVersionUID = 1L;
 	private static final HttpStatus httpStatusCode = HttpStatus.TOO_MANY_REQUESTS;
 
+	private final int limit;
+	private final long retryAfterSeconds;
+
 	/**
 	 * Constructs a new RateLimitExceedException with the specified field name and
 	 * message.
@@ -15,6 +21,22 @@ public class RateLimitExceedException extends GenericException {
 	 * @param message   The detailed message describing the exception.
 	 */
 	public RateLimitExceedException(final String fieldName, final String message) {
+		this(fieldName, message, 0, 0);
+	}
+
+	/**
+	 * Constructs a new RateLimitExceedException with the specified field name,
+	 * message and the details reported back to the client.
+	 *
+	 * @param fieldName         The name of the field that caused the exception.
+	 * @param message           The detailed message describing the exception.
+	 * @param limit             The limit that was exceeded.
+	 * @param retryAfterSeconds Seconds after which the client may retry.
+	 */
+	public RateLimitExceedException(final String fieldName, final String message, final int limit,
+			final long retryAfterSeconds) {
 		super(fieldName, httpStatusCode, String.format("%s", message));
+		this.limit = limit;
+		this.retryAfterSeconds = retryAfterSeconds;
 	}
 }
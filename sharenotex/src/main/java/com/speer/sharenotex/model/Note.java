@@ -2,10 +2,19 @@ package com.speer.sharenotex.model;
 
 import java.sql.Timestamp;
 
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.util.NoteContentCodec;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
+import jakarta.persistence.ConstructorResult;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.SqlResultSetMapping;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,8 +24,52 @@ import lombok.NoArgsConstructor;
  * Entity class representing a Note in the application.
  * Each Note has a unique identifier (ID), title, content, creation timestamp, update timestamp,
  * and a user identifier associated with it.
+ * Queries that need PostgreSQL-specific SQL map their rows straight into
+ * {@link NoteResponseDto} through the {@code NoteResponseDto} result set mapping.
+ * The {@code change_seq} column and the {@code note_tombstone} table read by
+ * incremental syncs are maintained by a trigger declared in schema.sql.
  */
 @Entity
+@SqlResultSetMapping(name = "NoteResponseDto", classes = @ConstructorResult(targetClass = NoteResponseDto.class, columns = {
+        @ColumnResult(name = "id", type = Integer.class), @ColumnResult(name = "title"),
+        @ColumnResult(name = "content"), @ColumnResult(name = "content_deflated", type = byte[].class),
+        @ColumnResult(name = "created_at", type = Timestamp.class),
+        @ColumnResult(name = "updated_at", type = Timestamp.class),
+        @ColumnResult(name = "version", type = Long.class) }))
+@SqlResultSetMapping(name = "NoteChange", classes = @ConstructorResult(targetClass = NoteChange.class, columns = {
+        @ColumnResult(name = "id", type = Integer.class), @ColumnResult(name = "title"),
+        @ColumnResult(name = "content"), @ColumnResult(name = "content_deflated", type = byte[].class),
+        @ColumnResult(name = "created_at", type = Timestamp.class),
+        @ColumnResult(name = "updated_at", type = Timestamp.class),
+        @ColumnResult(name = "version", type = Long.class), @ColumnResult(name = "change_seq", type = Long.class),
+        @ColumnResult(name = "deleted", type = Boolean.class) }))
+@NamedNativeQuery(name = "Note.searchByFullText", resultSetMapping = "NoteResponseDto", query = """
+        SELECT n.id, n.title, n.content, n.content_deflated, n.created_at, n.updated_at, n.version
+        FROM note n, websearch_to_tsquery('english', :query) q
+        WHERE n.user_id = :userId AND n.search_vector @@ q
+        ORDER BY ts_rank(n.search_vector, q) DESC, n.id DESC
+        LIMIT :limit OFFSET :offset
+        """)
+@NamedNativeQuery(name = "Note.searchByTrigram", resultSetMapping = "NoteResponseDto", query = """
+        SELECT n.id, n.title, n.content, n.content_deflated, n.created_at, n.updated_at, n.version
+        FROM note n
+        WHERE n.user_id = :userId AND (:query <% n.title OR :query <% n.content)
+        ORDER BY GREATEST(word_similarity(:query, n.title), word_similarity(:query, n.content)) DESC, n.id DESC
+        LIMIT :limit OFFSET :offset
+        """)
+@NamedNativeQuery(name = "Note.findChanges", resultSetMapping = "NoteChange", query = """
+        SELECT n.id, n.title, n.content, n.content_deflated, n.created_at, n.updated_at, n.version, n.change_seq,
+            false AS deleted
+        FROM note n
+        WHERE n.user_id = :userId AND (n.change_seq, n.id) > (:changeSeq, :id) AND n.change_seq < :watermark
+        UNION ALL
+        SELECT t.note_id, NULL, NULL, NULL, NULL, NULL, NULL, t.change_seq, true
+        FROM note_tombstone t
+        WHERE :includeDeleted AND t.user_id = :userId AND (t.change_seq, t.note_id) > (:changeSeq, :id)
+            AND t.change_seq < :watermark
+        ORDER BY change_seq, id
+        LIMIT :limit
+        """)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -36,11 +89,19 @@ public class Note {
     private String title;
 
     /**
-     * Content of the note.
+     * Content of the note. For content above the compression threshold, only
+     * its searchable prefix; see {@link NoteContentCodec}.
      */
     @NotBlank(message = "Content cannot be empty")
+    @Column(columnDefinition = "text")
     private String content;
 
+    /**
+     * Deflate-compressed content of the note, set only for content above the
+     * compression threshold.
+     */
+    private byte[] contentDeflated;
+
     /**
      * Timestamp indicating the creation time of the note.
      */
@@ -56,4 +117,12 @@ public class Note {
      */
     private String userId;
 
+    /**
+     * Version of the note, incremented on every update. Used for optimistic
+     * concurrency control.
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
 }
@@ -0,0 +1,34 @@
+package com.speer.sharenotex.model;
+
+import java.sql.Timestamp;
+
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+
+/**
+ * A change to one of a user's notes read by an incremental sync: either the
+ * current state of a created or updated note, or the tombstone of a deleted
+ * one, which only carries the note's ID.
+ *
+ * @param id              The unique identifier of the note.
+ * @param title           The title of the note, or null if it was deleted.
+ * @param content         The stored content of the note, or null if it was
+ *                        deleted.
+ * @param contentDeflated The compressed content of a large note, or null.
+ * @param createdAt       The creation timestamp of the note.
+ * @param updatedAt       The last update timestamp of the note.
+ * @param version         The version of the note.
+ * @param changeSeq       Sequence number of the change.
+ * @param deleted         Whether the note was deleted.
+ */
+public record NoteChange(Integer id, String title, String content, byte[] contentDeflated, Timestamp createdAt,
+		Timestamp updatedAt, Long version, Long changeSeq, Boolean deleted) {
+
+	/**
+	 * Maps a change to a created or updated note to the note's response DTO.
+	 *
+	 * @return Response DTO carrying the note's current fields.
+	 */
+	public NoteResponseDto toResponseDto() {
+		return new NoteResponseDto(id, title, content, contentDeflated, createdAt, updatedAt, version);
+	}
+}
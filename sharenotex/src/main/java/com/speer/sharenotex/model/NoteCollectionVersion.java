@@ -0,0 +1,37 @@
+package com.speer.sharenotex.model;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class tracking changes to the set of notes of a user. The version is
+ * incremented whenever one of the user's notes is created, updated or deleted,
+ * so clients can revalidate their copy of the note list cheaply.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteCollectionVersion {
+
+	/**
+	 * User identifier owning the notes.
+	 */
+	@Id
+	private String userId;
+
+	/**
+	 * Version of the user's note collection.
+	 */
+	private Long version;
+
+	/**
+	 * Timestamp of the last change to the user's note collection.
+	 */
+	private Timestamp updatedAt;
+}
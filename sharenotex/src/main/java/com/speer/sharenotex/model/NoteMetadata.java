@@ -0,0 +1,25 @@
+package com.speer.sharenotex.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Projection of the fields of a Note needed to answer conditional requests,
+ * loaded without the note's title and content.
+ */
+public interface NoteMetadata {
+
+	/**
+	 * @return Unique identifier of the note.
+	 */
+	Integer getId();
+
+	/**
+	 * @return Version of the note.
+	 */
+	Long getVersion();
+
+	/**
+	 * @return Timestamp of the last update of the note.
+	 */
+	Timestamp getUpdatedAt();
+}
@@ -1,25 +1,35 @@
 package com.speer.sharenotex.model;
 
 import java.sql.Timestamp;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * Entity class representing a SharedNote in the application. Each SharedNote
- * has a unique identifier (ID), information about who shared the note
- * (sharedBy), who the note was shared with (sharedTo), the timestamp when it
- * was shared (sharedAt), and the actual shared Note object (note) stored in
- * JSON format.
+ * has a unique identifier (ID), a reference to the shared note (noteId),
+ * information about who shared the note (sharedBy), who the note was shared
+ * with (sharedTo) and the timestamp when it was shared (sharedAt). The note
+ * itself is not copied, so recipients always see its current version.
+ * {@code SharedNote.insertAll} is a named query because Spring Data cannot
+ * parse {@code ON CONFLICT ... DO NOTHING} in a query method.
  */
 @Entity
+@NamedNativeQuery(name = "SharedNote.insertAll", resultClass = SharedNote.class, query = """
+		INSERT INTO shared_note (id, note_id, shared_by, shared_to, shared_at)
+		SELECT nextval('shared_note_seq'), n.note_id, :sharedBy, r.shared_to, :sharedAt
+		FROM unnest(CAST(:noteIds AS integer[])) AS n(note_id)
+			CROSS JOIN unnest(CAST(:recipients AS varchar[])) AS r(shared_to)
+		ON CONFLICT (note_id, shared_to) DO NOTHING
+		RETURNING *
+		""")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,9 +39,16 @@ public class SharedNote {
 	 * Unique identifier for the shared note.
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shared_note_seq")
+	@SequenceGenerator(name = "shared_note_seq", sequenceName = "shared_note_seq", allocationSize = 1)
 	private Integer id;
 
+	/**
+	 * Unique identifier of the shared note.
+	 */
+	@Column(name = "note_id")
+	private Integer noteId;
+
 	/**
 	 * User identifier of the person who shared the note.
 	 */
@@ -47,11 +64,4 @@ public class SharedNote {
 	 */
 	private Timestamp sharedAt;
 
-	/**
-	 * Actual Note object stored in JSON format.
-	 */
-	@JdbcTypeCode(SqlTypes.JSON)
-	@Column(name = "note", columnDefinition = "jsonb")
-	private Note note;
-
 }
@@ -0,0 +1,34 @@
+package com.speer.sharenotex.repository;
+
+import java.sql.Timestamp;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.speer.sharenotex.model.NoteCollectionVersion;
+
+/**
+ * Repository interface for managing NoteCollectionVersion entities in the
+ * database. Extends JpaRepository for basic CRUD operations on the
+ * NoteCollectionVersion entity.
+ */
+public interface NoteCollectionVersionRepository extends JpaRepository<NoteCollectionVersion, String> {
+
+	/**
+	 * Increments the version of the user's note collection, creating it at
+	 * version 1 if it does not exist yet.
+	 *
+	 * @param userId    User identifier owning the notes.
+	 * @param updatedAt Timestamp of the change.
+	 * @return Number of affected rows.
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = """
+			INSERT INTO note_collection_version (user_id, version, updated_at) VALUES (:userId, 1, :updatedAt)
+			ON CONFLICT (user_id) DO UPDATE
+			SET version = note_collection_version.version + 1, updated_at = EXCLUDED.updated_at
+			""", nativeQuery = true)
+	int increment(@Param("userId") String userId, @Param("updatedAt") Timestamp updatedAt);
+}
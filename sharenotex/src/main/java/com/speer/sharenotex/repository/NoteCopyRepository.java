@@ -0,0 +1,118 @@
+package com.speer.sharenotex.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import com.speer.sharenotex.model.Note;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository for loading large numbers of Note entities through the PostgreSQL
+ * {@code COPY} protocol, bypassing per-row statements and the persistence
+ * context.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class NoteCopyRepository {
+
+	private static final String COPY_NOTES_SQL = "COPY note (title, content, content_deflated, created_at, updated_at, "
+			+ "user_id) FROM STDIN WITH (FORMAT csv)";
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	private final DataSource dataSource;
+
+	/**
+	 * Streams the notes into the note table with a single {@code COPY}. The notes
+	 * are consumed lazily, so the iterator may read them from a stream. Either all
+	 * notes are stored or, if the copy fails, none are.
+	 *
+	 * @param notes Notes to insert; their IDs are ignored and generated by the
+	 *              database.
+	 * @return Number of inserted notes.
+	 * @throws IOException If the iterator fails to produce the notes.
+	 */
+	public long copyNotes(Iterator<Note> notes) throws IOException {
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		CopyIn copyIn = null;
+		try {
+			copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_NOTES_SQL);
+			PGCopyOutputStream copyStream = new PGCopyOutputStream(copyIn, COPY_BUFFER_SIZE);
+			Writer writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8),
+					COPY_BUFFER_SIZE);
+			while (notes.hasNext()) {
+				writeRow(writer, notes.next());
+			}
+			writer.flush();
+			// Only ending the copy stores the rows; on any failure it is cancelled below
+			return copyStream.endCopy();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (SQLException e) {
+			throw new DataAccessResourceFailureException("COPY into note failed", e);
+		} finally {
+			cancelIfActive(copyIn);
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	private void writeRow(Writer writer, Note note) throws IOException {
+		writeField(writer, note.getTitle());
+		writer.write(',');
+		writeField(writer, note.getContent());
+		writer.write(',');
+		// An unquoted empty field is NULL; bytea is written in its hex format
+		if (note.getContentDeflated() != null) {
+			writer.write("\\x");
+			writer.write(HexFormat.of().formatHex(note.getContentDeflated()));
+		}
+		writer.write(',');
+		writeField(writer, note.getCreatedAt().toString());
+		writer.write(',');
+		writeField(writer, note.getUpdatedAt().toString());
+		writer.write(',');
+		writeField(writer, note.getUserId());
+		writer.write('\n');
+	}
+
+	private void writeField(Writer writer, String value) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				writer.write('"');
+			}
+			writer.write(c);
+		}
+		writer.write('"');
+	}
+
+	private void cancelIfActive(CopyIn copyIn) {
+		if (copyIn != null && copyIn.isActive()) {
+			try {
+				copyIn.cancelCopy();
+			} catch (SQLException e) {
+				// The connection is released right after; nothing else to clean up
+			}
+		}
+	}
+}
@@ -1,17 +1,30 @@
 package com.speer.sharenotex.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.speer.sharenotex.model.Note;
+import com.speer.sharenotex.model.NoteMetadata;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.search.NoteIndexDocument;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing Note entities in the database. Extends
- * JpaRepository for basic CRUD operations on the Note entity.
+ * JpaRepository for basic CRUD operations on the Note entity and
+ * NoteSearchRepository for full-text search.
  */
 @Repository
-public interface NoteRepository extends JpaRepository<Note, Integer> {
+public interface NoteRepository extends JpaRepository<Note, Integer>, NoteSearchRepository {
 
 	/**
 	 * Retrieves an optional Note by its unique identifier (ID) and associated user
@@ -24,21 +37,244 @@ public interface NoteRepository extends JpaRepository<Note, Integer> {
 	Optional<Note> findByIdAndUserId(Integer id, String userId);
 
 	/**
-	 * Retrieves a list of Notes by the associated user ID.
+	 * Retrieves the ID, version and update timestamp of a Note belonging to the
+	 * user, without loading its title and content.
 	 *
+	 * @param id     Unique identifier of the note.
+	 * @param userId User identifier associated with the note.
+	 * @return Optional containing the note metadata or an empty Optional if not
+	 *         found.
+	 */
+	@Query("SELECT n.id AS id, n.version AS version, n.updatedAt AS updatedAt FROM Note n WHERE n.id = :id AND n.userId = :userId")
+	Optional<NoteMetadata> findMetadataByIdAndUserId(@Param("id") Integer id, @Param("userId") String userId);
+
+	/**
+	 * Checks whether a Note with the given ID belongs to the user.
+	 *
+	 * @param id     Unique identifier of the note.
+	 * @param userId User identifier associated with the note.
+	 * @return true if the note exists and belongs to the user.
+	 */
+	boolean existsByIdAndUserId(Integer id, String userId);
+
+	/**
+	 * Updates the title and content of a Note in a single statement, provided it
+	 * belongs to the user, and increments its version.
+	 *
+	 * @param id              Unique identifier of the note.
+	 * @param userId          User identifier associated with the note.
+	 * @param title           New title of the note.
+	 * @param content         New content of the note, or its searchable prefix.
+	 * @param contentDeflated New compressed content, or null if not compressed.
+	 * @param updatedAt       Update timestamp to store.
+	 * @return Number of updated notes (0 or 1).
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Note n SET n.title = :title, n.content = :content, n.contentDeflated = :contentDeflated,
+				n.updatedAt = :updatedAt, n.version = n.version + 1
+			WHERE n.id = :id AND n.userId = :userId
+			""")
+	int updateByIdAndUserId(@Param("id") Integer id, @Param("userId") String userId, @Param("title") String title,
+			@Param("content") String content, @Param("contentDeflated") byte[] contentDeflated,
+			@Param("updatedAt") Timestamp updatedAt);
+
+	/**
+	 * Updates the title and content of a Note in a single statement, provided it
+	 * belongs to the user and still has the expected version, and increments its
+	 * version.
+	 *
+	 * @param id              Unique identifier of the note.
+	 * @param userId          User identifier associated with the note.
+	 * @param version         Version the note is expected to have.
+	 * @param title           New title of the note.
+	 * @param content         New content of the note, or its searchable prefix.
+	 * @param contentDeflated New compressed content, or null if not compressed.
+	 * @param updatedAt       Update timestamp to store.
+	 * @return Number of updated notes (0 or 1).
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Note n SET n.title = :title, n.content = :content, n.contentDeflated = :contentDeflated,
+				n.updatedAt = :updatedAt, n.version = n.version + 1
+			WHERE n.id = :id AND n.userId = :userId AND n.version = :version
+			""")
+	int updateByIdAndUserIdAndVersion(@Param("id") Integer id, @Param("userId") String userId,
+			@Param("version") Long version, @Param("title") String title, @Param("content") String content,
+			@Param("contentDeflated") byte[] contentDeflated, @Param("updatedAt") Timestamp updatedAt);
+
+	/**
+	 * Deletes a Note in a single statement, provided it belongs to the user.
+	 *
+	 * @param id     Unique identifier of the note.
+	 * @param userId User identifier associated with the note.
+	 * @return Number of deleted notes (0 or 1).
+	 */
+	@Modifying
+	@Query("DELETE FROM Note n WHERE n.id = :id AND n.userId = :userId")
+	int deleteByIdAndUserId(@Param("id") Integer id, @Param("userId") String userId);
+
+	/**
+	 * Deletes a Note in a single statement, provided it belongs to the user and
+	 * still has the expected version.
+	 *
+	 * @param id      Unique identifier of the note.
+	 * @param userId  User identifier associated with the note.
+	 * @param version Version the note is expected to have.
+	 * @return Number of deleted notes (0 or 1).
+	 */
+	@Modifying
+	@Query("DELETE FROM Note n WHERE n.id = :id AND n.userId = :userId AND n.version = :version")
+	int deleteByIdAndUserIdAndVersion(@Param("id") Integer id, @Param("userId") String userId,
+			@Param("version") Long version);
+
+	/**
+	 * Retrieves the Notes with the given IDs that belong to the user.
+	 *
+	 * @param ids    Unique identifiers of the notes.
 	 * @param userId User identifier associated with the notes.
+	 * @return List of the found notes; IDs not owned by the user are skipped.
+	 */
+	List<Note> findByIdInAndUserId(Collection<Integer> ids, String userId);
+
+	/**
+	 * Retrieves the first page of Notes belonging to the user, most recently
+	 * updated first, selected directly into response DTOs.
+	 *
+	 * @param userId User identifier associated with the notes.
+	 * @param limit  Maximum number of notes to return.
+	 * @return List of notes belonging to the specified user.
+	 */
+	@Query("""
+			SELECT new com.speer.sharenotex.responsedto.NoteResponseDto(n.id, n.title, n.content, n.contentDeflated,
+				n.createdAt, n.updatedAt, n.version)
+			FROM Note n
+			WHERE n.userId = :userId
+			ORDER BY n.updatedAt DESC, n.id DESC
+			LIMIT :limit
+			""")
+	List<NoteResponseDto> findFirstPageByUserId(@Param("userId") String userId, @Param("limit") int limit);
+
+	/**
+	 * Retrieves the page of Notes belonging to the user that follows the given
+	 * {@code (updatedAt, id)} keyset position, most recently updated first,
+	 * selected directly into response DTOs.
+	 *
+	 * @param userId    User identifier associated with the notes.
+	 * @param updatedAt Update timestamp of the last note of the previous page.
+	 * @param id        Identifier of the last note of the previous page.
+	 * @param limit     Maximum number of notes to return.
 	 * @return List of notes belonging to the specified user.
 	 */
-	List<Note> findByUserId(String userId);
+	@Query("""
+			SELECT new com.speer.sharenotex.responsedto.NoteResponseDto(n.id, n.title, n.content, n.contentDeflated,
+				n.createdAt, n.updatedAt, n.version)
+			FROM Note n
+			WHERE n.userId = :userId AND (n.updatedAt, n.id) < (:updatedAt, :id)
+			ORDER BY n.updatedAt DESC, n.id DESC
+			LIMIT :limit
+			""")
+	List<NoteResponseDto> findPageByUserIdAfter(@Param("userId") String userId, @Param("updatedAt") Timestamp updatedAt,
+			@Param("id") Integer id, @Param("limit") int limit);
 
 	/**
-	 * Retrieves a list of Notes by the associated user ID and containing a
-	 * specified query in the content (case-insensitive).
+	 * Retrieves a page of Notes belonging to the user whose content contains the
+	 * specified query (case-insensitive), most recently updated first, selected
+	 * directly into response DTOs.
 	 *
-	 * @param id    User identifier associated with the notes.
-	 * @param query Search query string to be found in the content of notes.
+	 * @param userId User identifier associated with the notes.
+	 * @param query  Search query string to be found in the content of notes.
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
 	 * @return List of notes belonging to the specified user and matching the query
 	 *         in content.
 	 */
-	List<Note> findByUserIdAndContentContainingIgnoreCase(String id, String query);
+	@Query("""
+			SELECT new com.speer.sharenotex.responsedto.NoteResponseDto(n.id, n.title, n.content, n.contentDeflated,
+				n.createdAt, n.updatedAt, n.version)
+			FROM Note n
+			WHERE n.userId = :userId AND n.content ILIKE CONCAT('%', :query, '%') ESCAPE '\\'
+			ORDER BY n.updatedAt DESC, n.id DESC
+			LIMIT :limit OFFSET :offset
+			""")
+	List<NoteResponseDto> searchByContent(@Param("userId") String userId, @Param("query") String query,
+			@Param("limit") int limit, @Param("offset") int offset);
+
+	/**
+	 * Streams all Notes belonging to the user as response DTOs using a
+	 * server-side cursor, so that only one fetch batch is held in memory at a time
+	 * and no entities enter the persistence context. Must be consumed inside a
+	 * transaction and the returned stream must be closed.
+	 *
+	 * @param userId User identifier associated with the notes.
+	 * @return Stream of notes belonging to the specified user, ordered by ID.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("""
+			SELECT new com.speer.sharenotex.responsedto.NoteResponseDto(n.id, n.title, n.content, n.contentDeflated,
+				n.createdAt, n.updatedAt, n.version)
+			FROM Note n
+			WHERE n.userId = :userId
+			ORDER BY n.id
+			""")
+	Stream<NoteResponseDto> streamByUserId(@Param("userId") String userId);
+
+	/**
+	 * Streams all Notes as search index documents using a server-side cursor.
+	 * Must be consumed inside a transaction and the returned stream must be
+	 * closed.
+	 *
+	 * @return Stream of all notes, ordered by ID.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("""
+			SELECT new com.speer.sharenotex.search.NoteIndexDocument(n.id, n.userId, n.title, n.content,
+				n.contentDeflated)
+			FROM Note n
+			ORDER BY n.id
+			""")
+	Stream<NoteIndexDocument> streamIndexDocuments();
+
+	/**
+	 * Streams all Notes belonging to the user as search index documents using a
+	 * server-side cursor. Must be consumed inside a transaction and the returned
+	 * stream must be closed.
+	 *
+	 * @param userId User identifier associated with the notes.
+	 * @return Stream of notes belonging to the specified user, ordered by ID.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("""
+			SELECT new com.speer.sharenotex.search.NoteIndexDocument(n.id, n.userId, n.title, n.content,
+				n.contentDeflated)
+			FROM Note n
+			WHERE n.userId = :userId
+			ORDER BY n.id
+			""")
+	Stream<NoteIndexDocument> streamIndexDocumentsByUserId(@Param("userId") String userId);
+
+	/**
+	 * Retrieves a Note as a search index document.
+	 *
+	 * @param id The unique identifier of the note.
+	 * @return Optional containing the note, or empty if it does not exist.
+	 */
+	@Query("""
+			SELECT new com.speer.sharenotex.search.NoteIndexDocument(n.id, n.userId, n.title, n.content,
+				n.contentDeflated)
+			FROM Note n
+			WHERE n.id = :id
+			""")
+	Optional<NoteIndexDocument> findIndexDocumentById(@Param("id") Integer id);
+
+	/**
+	 * Purges the tombstones of notes deleted before the given time. Syncs from
+	 * cursors older than that can no longer learn about those deletions.
+	 *
+	 * @param deletedBefore Deletion time before which tombstones are purged.
+	 * @return Number of purged tombstones.
+	 */
+	@Modifying
+	@Query(value = "DELETE FROM note_tombstone WHERE deleted_at < :deletedBefore", nativeQuery = true)
+	int deleteTombstonesDeletedBefore(@Param("deletedBefore") Timestamp deletedBefore);
 }
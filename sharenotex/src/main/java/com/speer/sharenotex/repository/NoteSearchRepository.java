@@ -0,0 +1,68 @@
+package com.speer.sharenotex.repository;
+
+import java.util.List;
+import com.speer.sharenotex.model.NoteChange;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+
+/**
+ * Repository fragment for the note queries that need PostgreSQL-specific SQL
+ * but still select directly into response DTOs.
+ */
+public interface NoteSearchRepository {
+
+	/**
+	 * Retrieves a page of Notes belonging to the user that match the query using
+	 * PostgreSQL full-text search over the indexed {@code search_vector} column.
+	 * Results are ordered by {@code ts_rank}, best match first.
+	 *
+	 * @param userId User identifier associated with the notes.
+	 * @param query  Web-search style query (quoted phrases, {@code or}, {@code -}).
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
+	 * @return List of matching notes ordered by relevance.
+	 */
+	List<NoteResponseDto> searchByFullText(String userId, String query, int limit, int offset);
+
+	/**
+	 * Retrieves a page of Notes belonging to the user whose title or content
+	 * contains words similar to the query, using the trigram word similarity of
+	 * pg_trgm and its GIN indexes. Results are ordered by similarity, best match
+	 * first.
+	 *
+	 * @param userId    User identifier associated with the notes.
+	 * @param query     Text to match, possibly misspelled.
+	 * @param threshold Minimum word similarity (between 0 and 1) of a match.
+	 * @param limit     Maximum number of notes to return.
+	 * @param offset    Number of matching notes to skip.
+	 * @return List of matching notes ordered by similarity.
+	 */
+	List<NoteResponseDto> searchByTrigram(String userId, String query, double threshold, int limit, int offset);
+
+	/**
+	 * Returns the change sequence number below which no change can still
+	 * commit: the oldest transaction running when it is read. Changes below it
+	 * are final, so a sync that stops there never skips a change that commits
+	 * later with a lower number.
+	 *
+	 * @return The current change watermark.
+	 */
+	long currentChangeWatermark();
+
+	/**
+	 * Retrieves the changes to the user's notes that follow the given
+	 * {@code (changeSeq, id)} position and precede the watermark, in change
+	 * order: the current state of created or updated notes and, if requested,
+	 * the tombstones of deleted notes.
+	 *
+	 * @param userId         User identifier associated with the notes.
+	 * @param changeSeq      Change sequence number of the last change read.
+	 * @param id             Identifier of the note of the last change read.
+	 * @param includeDeleted Whether tombstones of deleted notes are returned.
+	 * @param watermark      Change watermark read by
+	 *                       {@link #currentChangeWatermark()}.
+	 * @param limit          Maximum number of changes to return.
+	 * @return List of changes ordered by change sequence number and note ID.
+	 */
+	List<NoteChange> findChanges(String userId, long changeSeq, int id, boolean includeDeleted, long watermark,
+			int limit);
+}
@@ -0,0 +1,54 @@
+package com.speer.sharenotex.repository;
+
+import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
+import com.speer.sharenotex.model.NoteChange;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementation of {@link NoteSearchRepository}. Runs the named native
+ * queries declared on the Note entity, whose result set mapping constructs the
+ * DTOs without hydrating entities.
+ */
+@RequiredArgsConstructor
+public class NoteSearchRepositoryImpl implements NoteSearchRepository {
+
+	private final EntityManager entityManager;
+
+	@Override
+	public List<NoteResponseDto> searchByFullText(String userId, String query, int limit, int offset) {
+		return entityManager.createNamedQuery("Note.searchByFullText", NoteResponseDto.class)
+				.setParameter("userId", userId).setParameter("query", query).setParameter("limit", limit)
+				.setParameter("offset", offset).getResultList();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<NoteResponseDto> searchByTrigram(String userId, String query, double threshold, int limit,
+			int offset) {
+		// The <% operator reads its threshold from this setting; local to the transaction
+		entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+				.setParameter("threshold", Double.toString(threshold)).getSingleResult();
+		return entityManager.createNamedQuery("Note.searchByTrigram", NoteResponseDto.class)
+				.setParameter("userId", userId).setParameter("query", query).setParameter("limit", limit)
+				.setParameter("offset", offset).getResultList();
+	}
+
+	@Override
+	public long currentChangeWatermark() {
+		return ((Number) entityManager
+				.createNativeQuery("SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)").getSingleResult())
+				.longValue();
+	}
+
+	@Override
+	public List<NoteChange> findChanges(String userId, long changeSeq, int id, boolean includeDeleted,
+			long watermark, int limit) {
+		return entityManager.createNamedQuery("Note.findChanges", NoteChange.class).setParameter("userId", userId)
+				.setParameter("changeSeq", changeSeq).setParameter("id", id)
+				.setParameter("includeDeleted", includeDeleted).setParameter("watermark", watermark)
+				.setParameter("limit", limit).getResultList();
+	}
+}
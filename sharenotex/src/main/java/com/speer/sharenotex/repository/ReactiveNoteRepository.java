@@ -0,0 +1,412 @@
+package com.speer.sharenotex.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.speer.sharenotex.model.NoteChange;
+import com.speer.sharenotex.model.NoteCollectionVersion;
+import com.speer.sharenotex.model.NoteMetadata;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.util.KeysetCursor;
+import com.speer.sharenotex.util.NoteContentCodec;
+import com.speer.sharenotex.util.NoteContentCodec.StoredContent;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link NoteRepository} and
+ * {@link NoteCollectionVersionRepository} used by the reactive profile. Runs
+ * the same statements through R2DBC. Content is stored in the form given by
+ * {@link NoteContentCodec}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveNoteRepository {
+
+	private static final String NOTE_COLUMNS = "n.id, n.title, n.content, n.content_deflated, n.created_at, n.updated_at, "
+			+ "n.version";
+
+	private final DatabaseClient databaseClient;
+	private final NoteContentCodec noteContentCodec;
+
+	/**
+	 * Inserts a new note.
+	 *
+	 * @param userId    User identifier owning the note.
+	 * @param title     Title of the note.
+	 * @param content   Content of the note.
+	 * @param createdAt Timestamp of the creation.
+	 * @return ID of the new note.
+	 */
+	public Mono<Integer> insert(String userId, String title, String content, Timestamp createdAt) {
+		StoredContent storedContent = noteContentCodec.encode(content);
+		return bindDeflated(databaseClient.sql("""
+				INSERT INTO note (title, content, content_deflated, created_at, updated_at, user_id)
+				VALUES (:title, :content, :contentDeflated, :createdAt, :createdAt, :userId)
+				RETURNING id
+				""").bind("title", title).bind("content", storedContent.text()), storedContent)
+				.bind("createdAt", createdAt.toLocalDateTime()).bind("userId", userId)
+				.map(row -> row.get("id", Integer.class)).one();
+	}
+
+	/**
+	 * Inserts several notes with one statement.
+	 *
+	 * @param userId    User identifier owning the notes.
+	 * @param notes     Titles and contents of the notes.
+	 * @param createdAt Timestamp of the creation.
+	 * @return Number of inserted notes.
+	 */
+	public Mono<Long> insertAll(String userId, List<NoteRequestDto> notes, Timestamp createdAt) {
+		List<StoredContent> contents = notes.stream().map(note -> noteContentCodec.encode(note.content())).toList();
+		// Compressed contents are passed hex-encoded, as arrays of bytea cannot be bound
+		return databaseClient.sql("""
+				INSERT INTO note (title, content, content_deflated, created_at, updated_at, user_id)
+				SELECT r.title, r.content, decode(r.content_deflated, 'hex'), :createdAt, :createdAt, :userId
+				FROM unnest(:titles::text[], :contents::text[], :contentsDeflated::text[])
+					AS r(title, content, content_deflated)
+				""").bind("titles", notes.stream().map(NoteRequestDto::title).toArray(String[]::new))
+				.bind("contents", contents.stream().map(StoredContent::text).toArray(String[]::new))
+				.bind("contentsDeflated",
+						contents.stream().map(content -> content.deflated() != null
+								? HexFormat.of().formatHex(content.deflated())
+								: null).toArray(String[]::new))
+				.bind("createdAt", createdAt.toLocalDateTime()).bind("userId", userId).fetch().rowsUpdated();
+	}
+
+	/**
+	 * Retrieves a note belonging to the user.
+	 *
+	 * @param id     Unique identifier of the note.
+	 * @param userId User identifier associated with the note.
+	 * @return The note, or an empty Mono if not found.
+	 */
+	public Mono<NoteResponseDto> findByIdAndUserId(Integer id, String userId) {
+		return databaseClient.sql("SELECT " + NOTE_COLUMNS + " FROM note n WHERE n.id = :id AND n.user_id = :userId")
+				.bind("id", id).bind("userId", userId).map(ReactiveNoteRepository::toNote).one();
+	}
+
+	/**
+	 * Retrieves the ID, version and update timestamp of a note belonging to the
+	 * user, without loading its title and content.
+	 *
+	 * @param id     Unique identifier of the note.
+	 * @param userId User identifier associated with the note.
+	 * @return The note metadata, or an empty Mono if not found.
+	 */
+	public Mono<NoteMetadata> findMetadataByIdAndUserId(Integer id, String userId) {
+		return databaseClient.sql("SELECT n.id, n.version, n.updated_at FROM note n WHERE n.id = :id AND n.user_id = :userId")
+				.bind("id", id).bind("userId", userId)
+				.map(row -> (NoteMetadata) new Metadata(row.get("id", Integer.class), row.get("version", Long.class),
+						timestamp(row, "updated_at")))
+				.one();
+	}
+
+	/**
+	 * Checks whether a note with the given ID belongs to the user.
+	 *
+	 * @param id     Unique identifier of the note.
+	 * @param userId User identifier associated with the note.
+	 * @return True if the note exists and belongs to the user.
+	 */
+	public Mono<Boolean> existsByIdAndUserId(Integer id, String userId) {
+		return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM note n WHERE n.id = :id AND n.user_id = :userId)")
+				.bind("id", id).bind("userId", userId).map(row -> row.get(0, Boolean.class)).one();
+	}
+
+	/**
+	 * Retrieves the IDs among the given ones of notes belonging to the user.
+	 *
+	 * @param ids    Unique identifiers of the notes.
+	 * @param userId User identifier associated with the notes.
+	 * @return IDs of the notes belonging to the user.
+	 */
+	public Flux<Integer> findIdsByIdInAndUserId(Collection<Integer> ids, String userId) {
+		return databaseClient.sql("SELECT n.id FROM note n WHERE n.id = ANY(:ids) AND n.user_id = :userId")
+				.bind("ids", ids.toArray(Integer[]::new)).bind("userId", userId)
+				.map(row -> row.get("id", Integer.class)).all();
+	}
+
+	/**
+	 * Retrieves one page of a user's notes, most recently updated first.
+	 *
+	 * @param userId User identifier owning the notes.
+	 * @param after  Position of the last note of the previous page, or null for
+	 *               the first page.
+	 * @param limit  Maximum number of notes to return.
+	 * @return Notes of the page.
+	 */
+	public Flux<NoteResponseDto> findPageByUserId(String userId, KeysetCursor after, int limit) {
+		if (after == null) {
+			return databaseClient.sql("SELECT " + NOTE_COLUMNS + """
+					 FROM note n
+					WHERE n.user_id = :userId
+					ORDER BY n.updated_at DESC, n.id DESC
+					LIMIT :limit
+					""").bind("userId", userId).bind("limit", limit).map(ReactiveNoteRepository::toNote).all();
+		}
+		return databaseClient.sql("SELECT " + NOTE_COLUMNS + """
+				 FROM note n
+				WHERE n.user_id = :userId AND (n.updated_at, n.id) < (:updatedAt, :id)
+				ORDER BY n.updated_at DESC, n.id DESC
+				LIMIT :limit
+				""").bind("userId", userId).bind("updatedAt", after.timestamp().toLocalDateTime())
+				.bind("id", after.id()).bind("limit", limit).map(ReactiveNoteRepository::toNote).all();
+	}
+
+	/**
+	 * Searches a user's notes whose content contains the query, ignoring case.
+	 *
+	 * @param userId User identifier owning the notes.
+	 * @param query  Text to search for, with LIKE wildcards escaped.
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
+	 * @return Matching notes, most recently updated first.
+	 */
+	public Flux<NoteResponseDto> searchByContent(String userId, String query, int limit, int offset) {
+		return databaseClient.sql("SELECT " + NOTE_COLUMNS + """
+				 FROM note n
+				WHERE n.user_id = :userId AND n.content ILIKE CONCAT('%', :query, '%')
+				ORDER BY n.updated_at DESC, n.id DESC
+				LIMIT :limit OFFSET :offset
+				""").bind("userId", userId).bind("query", query).bind("limit", limit).bind("offset", offset)
+				.map(ReactiveNoteRepository::toNote).all();
+	}
+
+	/**
+	 * Searches a user's notes with PostgreSQL full-text search.
+	 *
+	 * @param userId User identifier owning the notes.
+	 * @param query  Web search style query.
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
+	 * @return Matching notes, best match first.
+	 */
+	public Flux<NoteResponseDto> searchByFullText(String userId, String query, int limit, int offset) {
+		return databaseClient.sql("SELECT " + NOTE_COLUMNS + """
+				 FROM note n, websearch_to_tsquery('english', :query) q
+				WHERE n.user_id = :userId AND n.search_vector @@ q
+				ORDER BY ts_rank(n.search_vector, q) DESC, n.id DESC
+				LIMIT :limit OFFSET :offset
+				""").bind("userId", userId).bind("query", query).bind("limit", limit).bind("offset", offset)
+				.map(ReactiveNoteRepository::toNote).all();
+	}
+
+	/**
+	 * Searches a user's notes by trigram word similarity. Runs in a transaction
+	 * so that the threshold set for the {@code <%} operator stays local to it.
+	 *
+	 * @param userId    User identifier owning the notes.
+	 * @param query     Text to match, possibly misspelled.
+	 * @param threshold Minimum word similarity (between 0 and 1) of a match.
+	 * @param limit     Maximum number of notes to return.
+	 * @param offset    Number of matching notes to skip.
+	 * @return Matching notes, most similar first.
+	 */
+	@Transactional(readOnly = true)
+	public Flux<NoteResponseDto> searchByTrigram(String userId, String query, double threshold, int limit,
+			int offset) {
+		return databaseClient.sql("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+				.bind("threshold", Double.toString(threshold)).fetch().first()
+				.thenMany(databaseClient.sql("SELECT " + NOTE_COLUMNS + """
+						 FROM note n
+						WHERE n.user_id = :userId AND (:query <% n.title OR :query <% n.content)
+						ORDER BY GREATEST(word_similarity(:query, n.title), word_similarity(:query, n.content)) DESC,
+							n.id DESC
+						LIMIT :limit OFFSET :offset
+						""").bind("userId", userId).bind("query", query).bind("limit", limit)
+						.bind("offset", offset).map(ReactiveNoteRepository::toNote).all());
+	}
+
+	/**
+	 * Streams all notes of a user, ordered by ID. Rows are fetched as the
+	 * subscriber requests them.
+	 *
+	 * @param userId User identifier owning the notes.
+	 * @return Flux of the user's notes.
+	 */
+	public Flux<NoteResponseDto> streamByUserId(String userId) {
+		return databaseClient.sql("SELECT " + NOTE_COLUMNS + " FROM note n WHERE n.user_id = :userId ORDER BY n.id")
+				.bind("userId", userId).map(ReactiveNoteRepository::toNote).all();
+	}
+
+	/**
+	 * Returns the change sequence number below which no change can still
+	 * commit; see {@link NoteSearchRepository#currentChangeWatermark()}.
+	 *
+	 * @return The current change watermark.
+	 */
+	public Mono<Long> currentChangeWatermark() {
+		return databaseClient.sql("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint")
+				.map(row -> row.get(0, Long.class)).one();
+	}
+
+	/**
+	 * Retrieves the changes to a user's notes that follow the given
+	 * {@code (changeSeq, id)} position and precede the watermark, in change
+	 * order.
+	 *
+	 * @param userId         User identifier owning the notes.
+	 * @param changeSeq      Change sequence number of the last change read.
+	 * @param id             Identifier of the note of the last change read.
+	 * @param includeDeleted Whether tombstones of deleted notes are returned.
+	 * @param watermark      Change watermark read by
+	 *                       {@link #currentChangeWatermark()}.
+	 * @param limit          Maximum number of changes to return.
+	 * @return Changes ordered by change sequence number and note ID.
+	 */
+	public Flux<NoteChange> findChanges(String userId, long changeSeq, int id, boolean includeDeleted,
+			long watermark, int limit) {
+		return databaseClient.sql("SELECT " + NOTE_COLUMNS + """
+				, n.change_seq, false AS deleted
+				FROM note n
+				WHERE n.user_id = :userId AND (n.change_seq, n.id) > (:changeSeq, :id) AND n.change_seq < :watermark
+				UNION ALL
+				SELECT t.note_id, NULL, NULL, NULL, NULL, NULL, NULL, t.change_seq, true
+				FROM note_tombstone t
+				WHERE :includeDeleted AND t.user_id = :userId AND (t.change_seq, t.note_id) > (:changeSeq, :id)
+					AND t.change_seq < :watermark
+				ORDER BY change_seq, id
+				LIMIT :limit
+				""").bind("userId", userId).bind("changeSeq", changeSeq).bind("id", id)
+				.bind("includeDeleted", includeDeleted).bind("watermark", watermark).bind("limit", limit)
+				.map(row -> new NoteChange(row.get("id", Integer.class), row.get("title", String.class),
+						row.get("content", String.class), row.get("content_deflated", byte[].class),
+						timestamp(row, "created_at"), timestamp(row, "updated_at"), row.get("version", Long.class),
+						row.get("change_seq", Long.class), row.get("deleted", Boolean.class)))
+				.all();
+	}
+
+	/**
+	 * Purges the tombstones of notes deleted before the given time.
+	 *
+	 * @param deletedBefore Deletion time before which tombstones are purged.
+	 * @return Number of purged tombstones.
+	 */
+	public Mono<Long> deleteTombstonesDeletedBefore(Timestamp deletedBefore) {
+		return databaseClient.sql("DELETE FROM note_tombstone WHERE deleted_at < :deletedBefore")
+				.bind("deletedBefore", deletedBefore.toLocalDateTime()).fetch().rowsUpdated();
+	}
+
+	/**
+	 * Updates the title and content of a note belonging to the user and
+	 * increments its version. With an expected version, the note is only
+	 * updated if it still has that version.
+	 *
+	 * @param id              Unique identifier of the note.
+	 * @param userId          User identifier associated with the note.
+	 * @param expectedVersion Version the note must have, or null for any version.
+	 * @param title           New title of the note.
+	 * @param content         New content of the note.
+	 * @param updatedAt       Timestamp of the update.
+	 * @return Number of updated notes (0 or 1).
+	 */
+	public Mono<Long> update(Integer id, String userId, Long expectedVersion, String title, String content,
+			Timestamp updatedAt) {
+		StoredContent storedContent = noteContentCodec.encode(content);
+		DatabaseClient.GenericExecuteSpec spec = bindDeflated(databaseClient.sql("""
+				UPDATE note SET title = :title, content = :content, content_deflated = :contentDeflated,
+					updated_at = :updatedAt, version = version + 1
+				WHERE id = :id AND user_id = :userId
+				""" + (expectedVersion != null ? " AND version = :version" : "")).bind("title", title)
+				.bind("content", storedContent.text()), storedContent)
+				.bind("updatedAt", updatedAt.toLocalDateTime()).bind("id", id).bind("userId", userId);
+		return (expectedVersion != null ? spec.bind("version", expectedVersion) : spec).fetch().rowsUpdated();
+	}
+
+	/**
+	 * Deletes a note belonging to the user. With an expected version, the note is
+	 * only deleted if it still has that version.
+	 *
+	 * @param id              Unique identifier of the note.
+	 * @param userId          User identifier associated with the note.
+	 * @param expectedVersion Version the note must have, or null for any version.
+	 * @return Number of deleted notes (0 or 1).
+	 */
+	public Mono<Long> delete(Integer id, String userId, Long expectedVersion) {
+		DatabaseClient.GenericExecuteSpec spec = databaseClient
+				.sql("DELETE FROM note WHERE id = :id AND user_id = :userId"
+						+ (expectedVersion != null ? " AND version = :version" : ""))
+				.bind("id", id).bind("userId", userId);
+		return (expectedVersion != null ? spec.bind("version", expectedVersion) : spec).fetch().rowsUpdated();
+	}
+
+	/**
+	 * Retrieves the version of a user's note collection.
+	 *
+	 * @param userId User identifier owning the notes.
+	 * @return The collection version, or an empty Mono if the user never changed
+	 *         a note.
+	 */
+	public Mono<NoteCollectionVersion> findCollectionVersion(String userId) {
+		return databaseClient
+				.sql("SELECT user_id, version, updated_at FROM note_collection_version WHERE user_id = :userId")
+				.bind("userId", userId).map(row -> new NoteCollectionVersion(row.get("user_id", String.class),
+						row.get("version", Long.class), timestamp(row, "updated_at")))
+				.one();
+	}
+
+	/**
+	 * Increments the version of the user's note collection, creating it at
+	 * version 1 if it does not exist yet.
+	 *
+	 * @param userId    User identifier owning the notes.
+	 * @param updatedAt Timestamp of the change.
+	 * @return Number of affected rows.
+	 */
+	public Mono<Long> incrementCollectionVersion(String userId, Timestamp updatedAt) {
+		return databaseClient.sql("""
+				INSERT INTO note_collection_version (user_id, version, updated_at) VALUES (:userId, 1, :updatedAt)
+				ON CONFLICT (user_id) DO UPDATE
+				SET version = note_collection_version.version + 1, updated_at = EXCLUDED.updated_at
+				""").bind("userId", userId).bind("updatedAt", updatedAt.toLocalDateTime()).fetch().rowsUpdated();
+	}
+
+	private static NoteResponseDto toNote(Readable row) {
+		return new NoteResponseDto(row.get("id", Integer.class), row.get("title", String.class),
+				row.get("content", String.class), row.get("content_deflated", byte[].class),
+				timestamp(row, "created_at"), timestamp(row, "updated_at"), row.get("version", Long.class));
+	}
+
+	private static DatabaseClient.GenericExecuteSpec bindDeflated(DatabaseClient.GenericExecuteSpec spec,
+			StoredContent storedContent) {
+		return storedContent.deflated() != null ? spec.bind("contentDeflated", storedContent.deflated())
+				: spec.bindNull("contentDeflated", byte[].class);
+	}
+
+	static Timestamp timestamp(Readable row, String column) {
+		LocalDateTime value = row.get(column, LocalDateTime.class);
+		return value != null ? Timestamp.valueOf(value) : null;
+	}
+
+	private record Metadata(Integer id, Long version, Timestamp updatedAt) implements NoteMetadata {
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+
+		@Override
+		public Long getVersion() {
+			return version;
+		}
+
+		@Override
+		public Timestamp getUpdatedAt() {
+			return updatedAt;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.speer.sharenotex.repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+import com.speer.sharenotex.util.KeysetCursor;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link SharedNoteRepository} used by the reactive
+ * profile.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveSharedNoteRepository {
+
+	private static final String SHARED_NOTE_COLUMNS = """
+			SELECT s.id, n.id AS note_id, n.title, n.content, n.content_deflated, n.created_at, n.updated_at,
+				s.shared_by, s.shared_at
+			FROM shared_note s JOIN note n ON n.id = s.note_id
+			""";
+
+	private final DatabaseClient databaseClient;
+
+	/**
+	 * Shares every given note with every given user with one statement, skipping
+	 * the notes already shared with a user. IDs come from the same sequence as
+	 * {@link SharedNoteRepository#insertAll}, one value per share.
+	 *
+	 * @param noteIds    IDs of the notes to share.
+	 * @param sharedBy   User identifier sharing the notes.
+	 * @param recipients User identifiers to share the notes with.
+	 * @param sharedAt   Timestamp of the share.
+	 * @return Number of created shares.
+	 */
+	public Mono<Long> insertAll(Collection<Integer> noteIds, String sharedBy, Collection<String> recipients,
+			Timestamp sharedAt) {
+		return databaseClient.sql("""
+				INSERT INTO shared_note (id, note_id, shared_by, shared_to, shared_at)
+				SELECT nextval('shared_note_seq'), n.note_id, :sharedBy, r.shared_to, :sharedAt
+				FROM unnest(:noteIds::integer[]) AS n(note_id) CROSS JOIN unnest(:recipients::text[]) AS r(shared_to)
+				ON CONFLICT (note_id, shared_to) DO NOTHING
+				""").bind("noteIds", noteIds.toArray(Integer[]::new)).bind("sharedBy", sharedBy)
+				.bind("recipients", recipients.toArray(String[]::new)).bind("sharedAt", sharedAt.toLocalDateTime())
+				.fetch().rowsUpdated();
+	}
+
+	/**
+	 * Retrieves one page of the notes shared with a user, most recently shared
+	 * first.
+	 *
+	 * @param sharedTo User identifier the notes are shared with.
+	 * @param after    Position of the last share of the previous page, or null
+	 *                 for the first page.
+	 * @param limit    Maximum number of shares to return.
+	 * @return Shared notes of the page.
+	 */
+	public Flux<SharedNoteResponseDto> findSharedWith(String sharedTo, KeysetCursor after, int limit) {
+		if (after == null) {
+			return databaseClient.sql(SHARED_NOTE_COLUMNS + """
+					WHERE s.shared_to = :sharedTo
+					ORDER BY s.shared_at DESC, s.id DESC
+					LIMIT :limit
+					""").bind("sharedTo", sharedTo).bind("limit", limit)
+					.map(ReactiveSharedNoteRepository::toSharedNote).all();
+		}
+		return databaseClient.sql(SHARED_NOTE_COLUMNS + """
+				WHERE s.shared_to = :sharedTo AND (s.shared_at, s.id) < (:sharedAt, :id)
+				ORDER BY s.shared_at DESC, s.id DESC
+				LIMIT :limit
+				""").bind("sharedTo", sharedTo).bind("sharedAt", after.timestamp().toLocalDateTime())
+				.bind("id", after.id()).bind("limit", limit).map(ReactiveSharedNoteRepository::toSharedNote).all();
+	}
+
+	private static SharedNoteResponseDto toSharedNote(Readable row) {
+		return new SharedNoteResponseDto(row.get("id", Integer.class), row.get("note_id", Integer.class),
+				row.get("title", String.class), row.get("content", String.class),
+				row.get("content_deflated", byte[].class), ReactiveNoteRepository.timestamp(row, "created_at"), ReactiveNoteRepository.timestamp(row, "updated_at"),
+				row.get("shared_by", String.class), ReactiveNoteRepository.timestamp(row, "shared_at"));
+	}
+}
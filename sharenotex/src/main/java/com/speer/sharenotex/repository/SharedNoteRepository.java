@@ -1,7 +1,14 @@
 package com.speer.sharenotex.repository;
 
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.speer.sharenotex.model.SharedNote;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
 
 /**
  * Repository interface for managing SharedNote entities in the database.
@@ -9,4 +16,55 @@ import com.speer.sharenotex.model.SharedNote;
  */
 public interface SharedNoteRepository extends JpaRepository<SharedNote, Integer> {
 
+	/**
+	 * Retrieves the first page of notes shared with the user, most recently
+	 * shared first, joining each share with its note in a single query.
+	 *
+	 * @param sharedTo User identifier of the recipient.
+	 * @param pageable Page request limiting the number of results.
+	 * @return List of the shared notes.
+	 */
+	@Query("""
+			SELECT new com.speer.sharenotex.responsedto.SharedNoteResponseDto(s.id, n.id, n.title, n.content,
+				n.contentDeflated, n.createdAt, n.updatedAt, s.sharedBy, s.sharedAt)
+			FROM SharedNote s JOIN Note n ON n.id = s.noteId
+			WHERE s.sharedTo = :sharedTo
+			ORDER BY s.sharedAt DESC, s.id DESC
+			""")
+	List<SharedNoteResponseDto> findSharedWith(@Param("sharedTo") String sharedTo, Pageable pageable);
+
+	/**
+	 * Retrieves the page of notes shared with the user that follows the given
+	 * {@code (sharedAt, id)} keyset position, most recently shared first.
+	 *
+	 * @param sharedTo User identifier of the recipient.
+	 * @param sharedAt Share timestamp of the last share of the previous page.
+	 * @param id       Identifier of the last share of the previous page.
+	 * @param pageable Page request limiting the number of results.
+	 * @return List of the shared notes.
+	 */
+	@Query("""
+			SELECT new com.speer.sharenotex.responsedto.SharedNoteResponseDto(s.id, n.id, n.title, n.content,
+				n.contentDeflated, n.createdAt, n.updatedAt, s.sharedBy, s.sharedAt)
+			FROM SharedNote s JOIN Note n ON n.id = s.noteId
+			WHERE s.sharedTo = :sharedTo AND (s.sharedAt, s.id) < (:sharedAt, :id)
+			ORDER BY s.sharedAt DESC, s.id DESC
+			""")
+	List<SharedNoteResponseDto> findSharedWithAfter(@Param("sharedTo") String sharedTo,
+			@Param("sharedAt") Timestamp sharedAt, @Param("id") Integer id, Pageable pageable);
+
+	/**
+	 * Shares every given note with every given user with one statement, skipping
+	 * the notes already shared with a user. IDs come from the sequence of
+	 * {@link SharedNote#getId()}, one value per share.
+	 *
+	 * @param noteIds    IDs of the notes to share.
+	 * @param sharedBy   User identifier sharing the notes.
+	 * @param recipients User identifiers to share the notes with.
+	 * @param sharedAt   Timestamp of the share.
+	 * @return The shares created.
+	 */
+	@Transactional
+	List<SharedNote> insertAll(@Param("noteIds") Integer[] noteIds, @Param("sharedBy") String sharedBy,
+			@Param("recipients") String[] recipients, @Param("sharedAt") Timestamp sharedAt);
 }
@@ -0,0 +1,15 @@
+package com.speer.sharenotex.requesdto;
+
+import java.util.List;
+
+/**
+ * A data transfer object (DTO) representing the request for sharing one or
+ * more notes with several users at once. Every note is shared with every
+ * listed user.
+ *
+ * @param noteIds  The unique identifiers of the notes to be shared.
+ * @param sharedTo The user identifiers with whom the notes are to be shared.
+ */
+public record BatchShareNoteRequestDto(List<Integer> noteIds, List<String> sharedTo) {
+
+}
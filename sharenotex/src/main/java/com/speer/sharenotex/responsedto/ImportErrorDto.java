@@ -0,0 +1,25 @@
+package com.speer.sharenotex.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A data transfer object (DTO) describing a row rejected by the bulk note
+ * import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDto {
+
+	/**
+	 * The line (NDJSON) or record (CSV) number of the rejected row, starting at 1.
+	 */
+	private long row;
+
+	/**
+	 * The reason why the row was rejected.
+	 */
+	private String message;
+}
@@ -0,0 +1,32 @@
+package com.speer.sharenotex.responsedto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A data transfer object (DTO) representing the outcome of a bulk note import.
+ * This class encapsulates the number of imported and rejected rows and the
+ * details of the first rejected rows.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResultDto {
+
+	/**
+	 * The number of notes imported.
+	 */
+	private long imported;
+
+	/**
+	 * The number of rows rejected.
+	 */
+	private long failed;
+
+	/**
+	 * Details of the rejected rows, limited to the first ones.
+	 */
+	private List<ImportErrorDto> errors;
+}
@@ -0,0 +1,37 @@
+package com.speer.sharenotex.responsedto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A data transfer object (DTO) representing the changes to a user's notes
+ * since a sync cursor: the notes created or updated since, and the IDs of the
+ * notes deleted since.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteChangesResponseDto {
+
+	/**
+	 * The notes created or updated since the cursor, in their current state.
+	 */
+	private List<NoteResponseDto> updated;
+
+	/**
+	 * The IDs of the notes deleted since the cursor.
+	 */
+	private List<Integer> deleted;
+
+	/**
+	 * The cursor to request the following changes with.
+	 */
+	private String nextCursor;
+
+	/**
+	 * Whether more changes are available right away with the next cursor.
+	 */
+	private boolean hasMore;
+}
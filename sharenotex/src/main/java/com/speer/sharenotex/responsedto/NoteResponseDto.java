@@ -1,9 +1,15 @@
 package com.speer.sharenotex.responsedto;
 
 import java.sql.Timestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.speer.sharenotex.util.NoteContentCodec;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * A data transfer object (DTO) representing the response for a Note entity.
@@ -30,6 +36,15 @@ public class NoteResponseDto {
 	 */
 	private String content;
 
+	/**
+	 * The compressed content of a large note, inflated into the content when it
+	 * is first read, so that notes are only decompressed when they are returned.
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private byte[] contentDeflated;
+
 	/**
 	 * The timestamp indicating when the note was created.
 	 */
@@ -39,4 +54,37 @@ public class NoteResponseDto {
 	 * The timestamp indicating when the note was last updated.
 	 */
 	private Timestamp updatedAt;
+
+	/**
+	 * The version of the note, incremented on every update.
+	 */
+	private Long version;
+
+	/**
+	 * Creates a response for a note whose content is not compressed.
+	 *
+	 * @param id        The unique identifier of the note.
+	 * @param title     The title of the note.
+	 * @param content   The content of the note.
+	 * @param createdAt The creation timestamp of the note.
+	 * @param updatedAt The last update timestamp of the note.
+	 * @param version   The version of the note.
+	 */
+	public NoteResponseDto(Integer id, String title, String content, Timestamp createdAt, Timestamp updatedAt,
+			Long version) {
+		this(id, title, content, null, createdAt, updatedAt, version);
+	}
+
+	/**
+	 * Returns the content of the note, decompressing it on first access.
+	 *
+	 * @return The full content of the note.
+	 */
+	public String getContent() {
+		if (contentDeflated != null) {
+			content = NoteContentCodec.decode(content, contentDeflated);
+			contentDeflated = null;
+		}
+		return content;
+	}
 }
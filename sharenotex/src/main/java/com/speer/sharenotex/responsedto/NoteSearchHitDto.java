@@ -0,0 +1,43 @@
+package com.speer.sharenotex.responsedto;
+
+import java.sql.Timestamp;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A data transfer object (DTO) representing a note found by the search index,
+ * with the passages that matched the query.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class NoteSearchHitDto extends NoteResponseDto {
+
+	/**
+	 * Passages of the note matching the query, with the matches wrapped in
+	 * {@code <mark>} tags and the rest HTML-escaped.
+	 */
+	private String snippet;
+
+	/**
+	 * Creates a search hit for a note.
+	 *
+	 * @param id              The unique identifier of the note.
+	 * @param title           The title of the note.
+	 * @param content         The content of the note.
+	 * @param contentDeflated The compressed content of a large note, or null.
+	 * @param createdAt       The creation timestamp of the note.
+	 * @param updatedAt       The last update timestamp of the note.
+	 * @param version         The version of the note.
+	 * @param snippet         The highlighted passages of the note.
+	 */
+	public NoteSearchHitDto(Integer id, String title, String content, byte[] contentDeflated, Timestamp createdAt,
+			Timestamp updatedAt, Long version, String snippet) {
+		super(id, title, content, contentDeflated, createdAt, updatedAt, version);
+		this.snippet = snippet;
+	}
+}
@@ -0,0 +1,34 @@
+package com.speer.sharenotex.responsedto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A data transfer object (DTO) representing one page of an offset-paginated
+ * collection, such as search results. This class encapsulates the items of the
+ * page, whether more items follow and the offset to request them with.
+ *
+ * @param <T> Type of the items in the page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OffsetPageResponseDto<T> {
+
+	/**
+	 * The items of this page.
+	 */
+	private List<T> items;
+
+	/**
+	 * Whether more items follow this page.
+	 */
+	private boolean hasMore;
+
+	/**
+	 * The offset of the next page, or null when this is the last page.
+	 */
+	private Integer nextOffset;
+}
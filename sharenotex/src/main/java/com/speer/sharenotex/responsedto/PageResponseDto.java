@@ -0,0 +1,29 @@
+package com.speer.sharenotex.responsedto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A data transfer object (DTO) representing one page of a cursor-paginated
+ * collection. This class encapsulates the items of the page and the opaque
+ * cursor to request the next page with.
+ *
+ * @param <T> Type of the items in the page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageResponseDto<T> {
+
+	/**
+	 * The items of this page.
+	 */
+	private List<T> items;
+
+	/**
+	 * The cursor for the next page, or null when this is the last page.
+	 */
+	private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.speer.sharenotex.responsedto;
+
+import com.speer.sharenotex.util.RegistrationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A data transfer object (DTO) representing the state of a queued signup. This
+ * class encapsulates the registration ID to poll, the current status and, once
+ * processed, the outcome message.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationStatusDto {
+
+	/**
+	 * The unique identifier of the registration.
+	 */
+	private String id;
+
+	/**
+	 * The current status of the registration.
+	 */
+	private RegistrationStatus status;
+
+	/**
+	 * The outcome of the registration; null while it is pending.
+	 */
+	private String message;
+}
@@ -0,0 +1,102 @@
+package com.speer.sharenotex.responsedto;
+
+import java.sql.Timestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.speer.sharenotex.util.NoteContentCodec;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A data transfer object (DTO) representing a note shared with the current
+ * user. This class encapsulates the share's unique identifier (ID), the note's
+ * details and who shared it when.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SharedNoteResponseDto {
+
+	/**
+	 * The unique identifier of the share.
+	 */
+	private Integer id;
+
+	/**
+	 * The unique identifier of the shared note.
+	 */
+	private Integer noteId;
+
+	/**
+	 * The title of the note.
+	 */
+	private String title;
+
+	/**
+	 * The content of the note.
+	 */
+	private String content;
+
+	/**
+	 * The compressed content of a large note, inflated into the content when it
+	 * is first read, so that notes are only decompressed when they are returned.
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private byte[] contentDeflated;
+
+	/**
+	 * The timestamp indicating when the note was created.
+	 */
+	private Timestamp createdAt;
+
+	/**
+	 * The timestamp indicating when the note was last updated.
+	 */
+	private Timestamp updatedAt;
+
+	/**
+	 * The user identifier of the person who shared the note.
+	 */
+	private String sharedBy;
+
+	/**
+	 * The timestamp indicating when the note was shared.
+	 */
+	private Timestamp sharedAt;
+
+	/**
+	 * Creates a response for a shared note whose content is not compressed.
+	 *
+	 * @param id        The unique identifier of the share.
+	 * @param noteId    The unique identifier of the shared note.
+	 * @param title     The title of the note.
+	 * @param content   The content of the note.
+	 * @param createdAt The creation timestamp of the note.
+	 * @param updatedAt The last update timestamp of the note.
+	 * @param sharedBy  The user identifier of the person who shared the note.
+	 * @param sharedAt  The timestamp of the share.
+	 */
+	public SharedNoteResponseDto(Integer id, Integer noteId, String title, String content, Timestamp createdAt,
+			Timestamp updatedAt, String sharedBy, Timestamp sharedAt) {
+		this(id, noteId, title, content, null, createdAt, updatedAt, sharedBy, sharedAt);
+	}
+
+	/**
+	 * Returns the content of the note, decompressing it on first access.
+	 *
+	 * @return The full content of the note.
+	 */
+	public String getContent() {
+		if (contentDeflated != null) {
+			content = NoteContentCodec.decode(content, contentDeflated);
+			contentDeflated = null;
+		}
+		return content;
+	}
+}
@@ -0,0 +1,24 @@
+package com.speer.sharenotex.search;
+
+import com.speer.sharenotex.util.NoteContentCodec;
+
+/**
+ * Fields of a note read from the database to be added to the search index.
+ *
+ * @param id              The unique identifier of the note.
+ * @param userId          The owner of the note.
+ * @param title           The title of the note.
+ * @param content         The stored content of the note.
+ * @param contentDeflated The compressed content of a large note, or null.
+ */
+public record NoteIndexDocument(Integer id, String userId, String title, String content, byte[] contentDeflated) {
+
+	/**
+	 * Returns the full content of the note, decompressing it if needed.
+	 *
+	 * @return The full content of the note.
+	 */
+	public String fullContent() {
+		return NoteContentCodec.decode(content, contentDeflated);
+	}
+}
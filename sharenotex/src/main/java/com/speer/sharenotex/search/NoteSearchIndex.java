@@ -0,0 +1,478 @@
+package com.speer.sharenotex.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.speer.sharenotex.repository.NoteRepository;
+import com.speer.sharenotex.util.TransactionCallbacks;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Embedded Lucene index of the notes, kept in a memory-mapped directory on local
+ * disk. Notes are indexed as they are created, updated and deleted; changes
+ * become searchable when the searcher is refreshed, every refresh interval, and
+ * durable when the index is committed, every commit interval and at shutdown.
+ * <p>
+ * PostgreSQL stays the source of truth: index updates run after the transaction
+ * commits, a failed update is only logged, and the index is rebuilt from the
+ * database when it does not exist yet or when
+ * {@code com.sharenotex.search.index.rebuild-on-startup} is set. An update reads
+ * the note from the database while holding a lock for it, so that the last
+ * update of a note indexes its latest version, even if the updates of two
+ * commits run in the opposite order.
+ * <p>
+ * While a rebuild or re-index reads notes from the database, updates of single
+ * notes are queued and applied once it has finished, so that they are not
+ * overwritten by the older copies of the notes it read.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "com.sharenotex.search.index.enabled", havingValue = "true")
+@Slf4j
+public class NoteSearchIndex {
+
+	private static final String ID = "id";
+	private static final String USER_ID = "userId";
+	private static final String TITLE = "title";
+	private static final String CONTENT = "content";
+	private static final String[] HIGHLIGHTED_FIELDS = { CONTENT, TITLE };
+	private static final int[] MAX_PASSAGES = { 2, 1 };
+	private static final float TITLE_BOOST = 2f;
+	private static final int NOTE_LOCK_STRIPES = 64;
+	// Offsets in the postings let the highlighter skip re-analyzing the content
+	private static final FieldType TEXT_WITH_OFFSETS = textWithOffsets();
+
+	private final NoteRepository noteRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private final Directory directory;
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+	private final boolean rebuildNeeded;
+	private final int snippetMaxLength;
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+	// Serializes the updates of a note, striped by note ID
+	private final ReentrantLock[] noteLocks = new ReentrantLock[NOTE_LOCK_STRIPES];
+	private final ReentrantReadWriteLock updateLock = new ReentrantReadWriteLock();
+	private final Queue<Runnable> queuedUpdates = new ConcurrentLinkedQueue<>();
+	// Guarded by updateLock
+	private boolean queueUpdates;
+
+	/**
+	 * Opens the index at the configured path, creating it if needed. When a
+	 * rebuild is requested, the existing index is discarded without being read,
+	 * so that a damaged index can be recovered.
+	 *
+	 * @param noteRepository     Repository the index is rebuilt from.
+	 * @param transactionManager Transaction manager of the rebuild queries.
+	 * @param path               Directory of the index on local disk.
+	 * @param rebuildOnStartup   Whether to rebuild an existing index at startup.
+	 * @param snippetMaxLength   Number of leading characters of a note searched
+	 *                           for highlighted snippets.
+	 * @throws IOException if the index cannot be opened.
+	 */
+	public NoteSearchIndex(NoteRepository noteRepository, PlatformTransactionManager transactionManager,
+			@Value("${com.sharenotex.search.index.path:search-index}") Path path,
+			@Value("${com.sharenotex.search.index.rebuild-on-startup:false}") boolean rebuildOnStartup,
+			@Value("${com.sharenotex.search.index.snippet-max-length:100000}") int snippetMaxLength)
+			throws IOException {
+		this.noteRepository = noteRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		// Re-indexing may run after a commit, while the finished transaction is still bound
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.directory = new MMapDirectory(path);
+		this.rebuildNeeded = rebuildOnStartup || !DirectoryReader.indexExists(directory);
+		if (rebuildOnStartup) {
+			// Even OpenMode.CREATE reads the last commit point, which may be damaged
+			for (String file : directory.listAll()) {
+				directory.deleteFile(file);
+			}
+		}
+		this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+				.setOpenMode(rebuildOnStartup ? OpenMode.CREATE : OpenMode.CREATE_OR_APPEND));
+		this.searcherManager = new SearcherManager(writer, null);
+		this.snippetMaxLength = snippetMaxLength;
+		for (int i = 0; i < noteLocks.length; i++) {
+			noteLocks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Rebuilds the index in the background once the application has started, if
+	 * it did not exist or a rebuild was requested. Searches see the notes indexed
+	 * so far while it runs.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildIfNeeded() {
+		if (rebuildNeeded) {
+			Thread.ofVirtual().name("search-index-rebuild").start(this::rebuild);
+		}
+	}
+
+	/**
+	 * Indexes the current version of a note after it was created, updated or
+	 * deleted: the note is read from the database and added to the index, or
+	 * replaced, or removed from it if it no longer exists. Runs once the current
+	 * transaction, if any, has committed.
+	 *
+	 * @param id The unique identifier of the note.
+	 */
+	public void indexNote(Integer id) {
+		TransactionCallbacks.afterCommit(() -> update(() -> {
+			ReentrantLock noteLock = noteLocks[Math.floorMod(id, noteLocks.length)];
+			noteLock.lock();
+			try {
+				NoteIndexDocument note = transactionTemplate
+						.execute(status -> noteRepository.findIndexDocumentById(id).orElse(null));
+				if (note != null) {
+					writer.updateDocument(idTerm(id), toDocument(id, note.userId(), note.title(), note.fullContent()));
+				} else {
+					writer.deleteDocuments(idTerm(id));
+				}
+			} catch (IOException | DataAccessException e) {
+				log.error("Failed to index note {}, rebuild the search index to recover: {}", id, e.getMessage());
+			} finally {
+				noteLock.unlock();
+			}
+		}));
+	}
+
+	/**
+	 * Re-indexes all notes of a user from the database, e.g. after notes were
+	 * imported in bulk. Runs once the current transaction, if any, has committed,
+	 * after a rebuild in progress. The user's notes stay searchable meanwhile.
+	 *
+	 * @param userId The owner of the notes.
+	 */
+	public void reindex(String userId) {
+		TransactionCallbacks.afterCommit(() -> {
+			rebuildLock.lock();
+			try {
+				long indexed = reindexAll(() -> noteRepository.streamIndexDocumentsByUserId(userId),
+						new TermQuery(new Term(USER_ID, userId)));
+				log.info("Re-indexed {} notes of user: {}", indexed, userId);
+			} catch (IOException | UncheckedIOException e) {
+				log.error("Failed to re-index the notes of user {}: {}", userId, e.getMessage());
+			} finally {
+				rebuildLock.unlock();
+			}
+		});
+	}
+
+	/**
+	 * Replaces the content of the index with all the notes in the database.
+	 *
+	 * @return The number of notes indexed.
+	 */
+	public long rebuild() {
+		rebuildLock.lock();
+		try {
+			log.info("Rebuilding the search index");
+			long indexed = reindexAll(noteRepository::streamIndexDocuments, new MatchAllDocsQuery());
+			writer.commit();
+			searcherManager.maybeRefresh();
+			log.info("Rebuilt the search index with {} notes", indexed);
+			return indexed;
+		} catch (IOException | UncheckedIOException e) {
+			log.error("Failed to rebuild the search index: {}", e.getMessage());
+			return 0;
+		} finally {
+			rebuildLock.unlock();
+		}
+	}
+
+	/**
+	 * Searches the notes of a user. The query supports quoted phrases,
+	 * {@code prefix*} terms, {@code +}/{@code |} operators and {@code -} to
+	 * exclude terms; all terms must match unless separated by {@code |}.
+	 *
+	 * @param userId    The owner of the notes.
+	 * @param queryText The search query.
+	 * @param limit     Maximum number of hits to return.
+	 * @param offset    Number of hits to skip.
+	 * @return The hits, best match first, with highlighted snippets.
+	 * @throws ArithmeticException if offset plus limit overflows.
+	 */
+	public List<Hit> search(String userId, String queryText, int limit, int offset) {
+		SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, TITLE_BOOST, CONTENT, 1f));
+		parser.setDefaultOperator(BooleanClause.Occur.MUST);
+		Query parsed = parser.parse(queryText);
+		if (parsed == null) {
+			return List.of();
+		}
+		Query query = new BooleanQuery.Builder().add(parsed, BooleanClause.Occur.MUST)
+				.add(new TermQuery(new Term(USER_ID, userId)), BooleanClause.Occur.FILTER).build();
+		IndexSearcher searcher = acquire();
+		try {
+			TopDocs topDocs = searcher.search(query, Math.addExact(offset, limit));
+			if (topDocs.scoreDocs.length <= offset) {
+				return List.of();
+			}
+			ScoreDoc[] page = Arrays.copyOfRange(topDocs.scoreDocs, offset, topDocs.scoreDocs.length);
+			Map<String, String[]> snippets = UnifiedHighlighter.builder(searcher, analyzer)
+					.withMaxLength(snippetMaxLength)
+					.withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "… ", true)).build()
+					.highlightFields(HIGHLIGHTED_FIELDS, query, new TopDocs(topDocs.totalHits, page), MAX_PASSAGES);
+			List<Hit> hits = new ArrayList<>(page.length);
+			for (int i = 0; i < page.length; i++) {
+				String id = searcher.storedFields().document(page[i].doc, Set.of(ID)).get(ID);
+				String snippet = snippets.get(CONTENT)[i] != null ? snippets.get(CONTENT)[i] : snippets.get(TITLE)[i];
+				hits.add(new Hit(Integer.valueOf(id), snippet));
+			}
+			return hits;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			release(searcher);
+		}
+	}
+
+	/**
+	 * Makes the latest index updates visible to searches.
+	 */
+	@Scheduled(fixedDelayString = "${com.sharenotex.search.index.refresh-interval:1000}")
+	public void refresh() {
+		try {
+			searcherManager.maybeRefresh();
+		} catch (IOException e) {
+			log.warn("Failed to refresh the search index: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Persists the index updates made since the last commit.
+	 */
+	@Scheduled(fixedDelayString = "${com.sharenotex.search.index.commit-interval:60000}")
+	public void commit() {
+		try {
+			if (writer.hasUncommittedChanges()) {
+				writer.commit();
+			}
+		} catch (IOException e) {
+			log.warn("Failed to commit the search index: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Commits and closes the index.
+	 */
+	@PreDestroy
+	public void close() throws IOException {
+		searcherManager.close();
+		writer.close();
+		directory.close();
+	}
+
+	/**
+	 * Applies an update of a single note, or queues it while a rebuild or
+	 * re-index is running.
+	 */
+	private void update(Runnable update) {
+		updateLock.readLock().lock();
+		try {
+			if (queueUpdates) {
+				queuedUpdates.add(update);
+			} else {
+				update.run();
+			}
+		} finally {
+			updateLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the documents matching {@code scope} with the notes returned by
+	 * {@code query}. Documents are replaced one by one and the ones no longer
+	 * returned deleted at the end, so searches keep finding the notes meanwhile.
+	 * Updates of single notes are queued until then.
+	 *
+	 * @return The number of notes indexed.
+	 */
+	private long reindexAll(Supplier<Stream<NoteIndexDocument>> query, Query scope) throws IOException {
+		updateLock.writeLock().lock();
+		try {
+			queueUpdates = true;
+		} finally {
+			updateLock.writeLock().unlock();
+		}
+		try {
+			BitSet indexed = indexAll(query);
+			deleteAllExcept(scope, indexed);
+			return indexed.cardinality();
+		} finally {
+			Runnable update;
+			while ((update = queuedUpdates.poll()) != null) {
+				update.run();
+			}
+			// Updates queued while the last ones were applied
+			updateLock.writeLock().lock();
+			try {
+				while ((update = queuedUpdates.poll()) != null) {
+					update.run();
+				}
+				queueUpdates = false;
+			} finally {
+				updateLock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Adds or replaces the notes returned by a query.
+	 *
+	 * @return The IDs of the notes indexed.
+	 */
+	private BitSet indexAll(Supplier<Stream<NoteIndexDocument>> query) {
+		return transactionTemplate.execute(status -> {
+			BitSet indexed = new BitSet();
+			try (Stream<NoteIndexDocument> notes = query.get()) {
+				for (NoteIndexDocument note : (Iterable<NoteIndexDocument>) notes::iterator) {
+					writer.updateDocument(idTerm(note.id()),
+							toDocument(note.id(), note.userId(), note.title(), note.fullContent()));
+					indexed.set(note.id());
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return indexed;
+		});
+	}
+
+	/**
+	 * Deletes the documents matching a query, except the notes with the given
+	 * IDs.
+	 */
+	private void deleteAllExcept(Query scope, BitSet ids) throws IOException {
+		List<Term> deleted = new ArrayList<>();
+		try (DirectoryReader reader = DirectoryReader.open(writer)) {
+			IndexSearcher searcher = new IndexSearcher(reader);
+			Weight weight = searcher.createWeight(searcher.rewrite(scope), ScoreMode.COMPLETE_NO_SCORES, 1f);
+			for (LeafReaderContext leaf : reader.leaves()) {
+				Scorer scorer = weight.scorer(leaf);
+				if (scorer == null) {
+					continue;
+				}
+				Bits liveDocs = leaf.reader().getLiveDocs();
+				StoredFields storedFields = leaf.reader().storedFields();
+				DocIdSetIterator docs = scorer.iterator();
+				for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+					if (liveDocs == null || liveDocs.get(doc)) {
+						Integer id = Integer.valueOf(storedFields.document(doc, Set.of(ID)).get(ID));
+						if (!ids.get(id)) {
+							deleted.add(idTerm(id));
+						}
+					}
+				}
+			}
+		}
+		writer.deleteDocuments(deleted.toArray(Term[]::new));
+	}
+
+	private IndexSearcher acquire() {
+		try {
+			return searcherManager.acquire();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void release(IndexSearcher searcher) {
+		try {
+			searcherManager.release(searcher);
+		} catch (IOException e) {
+			log.warn("Failed to release a search index reader: {}", e.getMessage());
+		}
+	}
+
+	private static Term idTerm(Integer id) {
+		return new Term(ID, id.toString());
+	}
+
+	private static Document toDocument(Integer id, String userId, String title, String content) {
+		Document document = new Document();
+		document.add(new StringField(ID, id.toString(), Field.Store.YES));
+		document.add(new StringField(USER_ID, userId, Field.Store.NO));
+		document.add(new Field(TITLE, title, TEXT_WITH_OFFSETS));
+		document.add(new Field(CONTENT, content, TEXT_WITH_OFFSETS));
+		return document;
+	}
+
+	private static FieldType textWithOffsets() {
+		FieldType type = new FieldType();
+		type.setTokenized(true);
+		type.setStored(true);
+		type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+		type.freeze();
+		return type;
+	}
+
+	/**
+	 * A note matching a search.
+	 *
+	 * @param id      The unique identifier of the note.
+	 * @param snippet Passages of the note with the matches highlighted, or null.
+	 */
+	public record Hit(Integer id, String snippet) {
+	}
+}
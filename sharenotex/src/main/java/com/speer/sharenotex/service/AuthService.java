@@ -3,6 +3,7 @@ package com.speer.sharenotex.service;
 import com.speer.sharenotex.requesdto.LoginRequestDto;
 import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
 import com.speer.sharenotex.responsedto.LoginResponseDto;
+import com.speer.sharenotex.responsedto.RegistrationStatusDto;
 
 /**
  * Service interface defining authentication-related operations.
@@ -17,6 +18,30 @@ public interface AuthService {
 	 */
 	Boolean addNewUser(UserRegistrationRequestDto userRegistrationRequestDto);
 
+	/**
+	 * Indicates whether signups go through the registration queue.
+	 *
+	 * @return True if signups are queued; false if they are processed inline.
+	 */
+	boolean isRegistrationQueued();
+
+	/**
+	 * Queues a new user for registration. Queued signups are processed with a
+	 * bounded number of concurrent Keycloak calls.
+	 *
+	 * @param userRegistrationRequestDto DTO containing user registration details.
+	 * @return RegistrationStatusDto with the ID to poll the registration status.
+	 */
+	RegistrationStatusDto queueNewUser(UserRegistrationRequestDto userRegistrationRequestDto);
+
+	/**
+	 * Retrieves the status of a queued registration.
+	 *
+	 * @param registrationId ID returned when the signup was queued.
+	 * @return RegistrationStatusDto containing the status of the registration.
+	 */
+	RegistrationStatusDto getRegistrationStatus(String registrationId);
+
 	/**
 	 * Retrieves an access token based on the provided login details.
 	 *
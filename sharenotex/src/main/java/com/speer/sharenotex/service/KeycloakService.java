@@ -1,5 +1,8 @@
 package com.speer.sharenotex.service;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.keycloak.representations.idm.UserRepresentation;
 import com.speer.sharenotex.requesdto.LoginRequestDto;
 import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
@@ -34,4 +37,13 @@ public interface KeycloakService {
 	 */
 	UserRepresentation getKeycloakUserDetailsById(String userName);
 
+	/**
+	 * Checks a set of user IDs against Keycloak in one pass and returns the ones
+	 * that do not exist.
+	 *
+	 * @param userIds The user IDs to check.
+	 * @return The user IDs unknown to Keycloak; empty if all users exist.
+	 */
+	Set<String> findUnknownUserIds(Collection<String> userIds);
+
 }
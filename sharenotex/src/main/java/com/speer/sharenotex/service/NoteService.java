@@ -1,10 +1,24 @@
 package com.speer.sharenotex.service;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.speer.sharenotex.model.NoteCollectionVersion;
+import com.speer.sharenotex.model.NoteMetadata;
+import com.speer.sharenotex.requesdto.BatchShareNoteRequestDto;
 import com.speer.sharenotex.requesdto.NoteRequestDto;
 import com.speer.sharenotex.requesdto.ShareNoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportResultDto;
+import com.speer.sharenotex.responsedto.NoteChangesResponseDto;
 import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.OffsetPageResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+import com.speer.sharenotex.util.ImportFormat;
+import com.speer.sharenotex.util.SearchMode;
 
 /**
  * Service interface defining operations related to notes in the application.
@@ -28,28 +42,67 @@ public interface NoteService {
 	NoteResponseDto findNote(Integer id);
 
 	/**
-	 * Retrieves details of all notes in the application.
+	 * Retrieves the version and update timestamp of a note without loading its
+	 * content, for answering conditional requests.
+	 *
+	 * @param id Unique identifier of the note.
+	 * @return NoteMetadata of the requested note.
+	 */
+	NoteMetadata findNoteMetadata(Integer id);
+
+	/**
+	 * Retrieves the version of the current user's note collection, which changes
+	 * whenever one of the user's notes is created, updated or deleted.
+	 *
+	 * @return NoteCollectionVersion of the current user.
+	 */
+	NoteCollectionVersion findNoteCollectionVersion();
+
+	/**
+	 * Retrieves one page of the current user's notes, most recently updated
+	 * first.
+	 *
+	 * @param cursor Opaque cursor returned with the previous page; null for the
+	 *               first page.
+	 * @param limit  Maximum number of notes to return (capped by configuration).
+	 * @return Page of NoteResponseDto with the cursor of the next page.
+	 */
+	PageResponseDto<NoteResponseDto> findAll(String cursor, int limit);
+
+	/**
+	 * Retrieves the changes to the current user's notes since a sync cursor: the
+	 * notes created or updated since, and the IDs of the notes deleted since.
+	 * Without a cursor, every note is returned as created.
 	 *
-	 * @return List of NoteResponseDto containing details of all notes.
+	 * @param since Opaque cursor returned by the previous sync; null for a full
+	 *              sync.
+	 * @param limit Maximum number of changes to return (capped by
+	 *              configuration).
+	 * @return NoteChangesResponseDto with the changes and the cursor to continue
+	 *         from.
 	 */
-	List<NoteResponseDto> findAll();
+	NoteChangesResponseDto findChanges(String since, int limit);
 
 	/**
 	 * Updates an existing note based on the provided details.
 	 *
-	 * @param id             Unique identifier of the note to be updated.
-	 * @param noteRequestDto DTO containing details for updating the note.
+	 * @param id              Unique identifier of the note to be updated.
+	 * @param noteRequestDto  DTO containing details for updating the note.
+	 * @param expectedVersion Version the note must still have, or null to update
+	 *                        unconditionally.
 	 * @return A message indicating the result of the update operation.
 	 */
-	String updateNote(Integer id, NoteRequestDto noteRequestDto);
+	String updateNote(Integer id, NoteRequestDto noteRequestDto, Long expectedVersion);
 
 	/**
 	 * Deletes a note based on its unique identifier.
 	 *
-	 * @param id Unique identifier of the note to be deleted.
+	 * @param id              Unique identifier of the note to be deleted.
+	 * @param expectedVersion Version the note must still have, or null to delete
+	 *                        unconditionally.
 	 * @return A message indicating the result of the delete operation.
 	 */
-	String deleteNoteById(Integer id);
+	String deleteNoteById(Integer id, Long expectedVersion);
 
 	/**
 	 * Shares a note with another user based on the provided details.
@@ -59,13 +112,68 @@ public interface NoteService {
 	 */
 	String shareNoteWithUser(ShareNoteRequestDto shareNoteRequestDto);
 
+	/**
+	 * Shares one or more notes with several users at once. All notes must belong
+	 * to the current user and all recipients must exist; otherwise nothing is
+	 * shared.
+	 *
+	 * @param batchShareNoteRequestDto DTO containing the notes and recipients.
+	 * @return A message indicating the result of the share operation.
+	 */
+	String shareNotesWithUsers(BatchShareNoteRequestDto batchShareNoteRequestDto);
+
+	/**
+	 * Retrieves one page of the notes shared with the current user, most recently
+	 * shared first.
+	 *
+	 * @param cursor Opaque cursor returned with the previous page; null for the
+	 *               first page.
+	 * @param limit  Maximum number of notes to return (capped by configuration).
+	 * @return Page of SharedNoteResponseDto with the cursor of the next page.
+	 */
+	PageResponseDto<SharedNoteResponseDto> findSharedWithMe(String cursor, int limit);
+
 	/**
 	 * Searches for notes based on a specified query.
 	 *
-	 * @param query Search query string.
-	 * @return List of NoteResponseDto containing details of notes matching the
-	 *         query.
+	 * @param query  Search query string.
+	 * @param mode   Search strategy to use; the configured default when null.
+	 * @param limit  Maximum number of notes to return (capped by configuration).
+	 * @param offset Number of matching notes to skip.
+	 * @return Page of NoteResponseDto matching the query, with the offset of the
+	 *         next page if more notes match.
+	 */
+	OffsetPageResponseDto<NoteResponseDto> searchNotes(String query, SearchMode mode, int limit, int offset);
+
+	/**
+	 * Opens a Server-Sent Events stream of the changes to the current user's
+	 * notes and of the notes shared with the user.
+	 *
+	 * @param lastEventId Value of the Last-Event-ID header sent by a reconnecting
+	 *                    client, or null for a new stream.
+	 * @return The emitter of the stream.
+	 */
+	SseEmitter streamEvents(String lastEventId);
+
+	/**
+	 * Writes every note of the current user to the given stream as
+	 * newline-delimited JSON, one note per line.
+	 *
+	 * @param outputStream Stream to write the notes to.
+	 * @throws IOException If writing to the stream fails.
+	 */
+	void exportNotes(OutputStream outputStream) throws IOException;
+
+	/**
+	 * Imports notes for the current user from a newline-delimited JSON or CSV
+	 * stream. Rows are streamed into the database as they are read; invalid rows
+	 * are skipped and reported.
+	 *
+	 * @param inputStream Stream containing the notes to import.
+	 * @param format      Format of the stream.
+	 * @return ImportResultDto with the number of imported and rejected rows.
+	 * @throws IOException If reading the stream fails.
 	 */
-	List<NoteResponseDto> searchNotes(String query);
+	ImportResultDto importNotes(InputStream inputStream, ImportFormat format) throws IOException;
 
 }
@@ -0,0 +1,41 @@
+package com.speer.sharenotex.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+import com.speer.sharenotex.requesdto.LoginRequestDto;
+import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
+import com.speer.sharenotex.responsedto.LoginResponseDto;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link KeycloakService} used by the reactive
+ * profile.
+ */
+public interface ReactiveKeycloakService {
+
+	/**
+	 * Adds a new user to Keycloak based on the provided registration details.
+	 *
+	 * @param userRegistrationRequestDto DTO containing user registration details.
+	 * @return True if the user is successfully added to Keycloak; false otherwise.
+	 */
+	Mono<Boolean> addKeycloakUser(UserRegistrationRequestDto userRegistrationRequestDto);
+
+	/**
+	 * Retrieves an access token from Keycloak based on the provided login details.
+	 *
+	 * @param loginRequestDto DTO containing user login details.
+	 * @return LoginResponseDto containing information about the access token.
+	 */
+	Mono<LoginResponseDto> getAccessToken(LoginRequestDto loginRequestDto);
+
+	/**
+	 * Determines which of the given user IDs do not exist in Keycloak.
+	 *
+	 * @param userIds Keycloak user IDs to check.
+	 * @return The IDs among {@code userIds} that are unknown to Keycloak.
+	 */
+	Mono<Set<String>> findUnknownUserIds(Collection<String> userIds);
+}
@@ -0,0 +1,156 @@
+package com.speer.sharenotex.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import com.speer.sharenotex.model.NoteCollectionVersion;
+import com.speer.sharenotex.model.NoteMetadata;
+import com.speer.sharenotex.requesdto.BatchShareNoteRequestDto;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.requesdto.ShareNoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportResultDto;
+import com.speer.sharenotex.responsedto.NoteChangesResponseDto;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.OffsetPageResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+import com.speer.sharenotex.util.ImportFormat;
+import com.speer.sharenotex.util.SearchMode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link NoteService} used by the reactive profile.
+ * Every operation acts on behalf of the user of the current security context.
+ */
+public interface ReactiveNoteService {
+
+	/**
+	 * Creates a new note based on the provided request details.
+	 *
+	 * @param newNoteRequestDto DTO containing details for creating a new note.
+	 * @return True once the note is created.
+	 */
+	Mono<Boolean> createNewNote(NoteRequestDto newNoteRequestDto);
+
+	/**
+	 * Retrieves details of a note based on its unique identifier.
+	 *
+	 * @param id Unique identifier of the note.
+	 * @return NoteResponseDto containing details of the requested note.
+	 */
+	Mono<NoteResponseDto> findNote(Integer id);
+
+	/**
+	 * Retrieves the version and update timestamp of a note without loading its
+	 * content, for answering conditional requests.
+	 *
+	 * @param id Unique identifier of the note.
+	 * @return NoteMetadata of the requested note.
+	 */
+	Mono<NoteMetadata> findNoteMetadata(Integer id);
+
+	/**
+	 * Retrieves the version of the current user's note collection.
+	 *
+	 * @return NoteCollectionVersion of the current user.
+	 */
+	Mono<NoteCollectionVersion> findNoteCollectionVersion();
+
+	/**
+	 * Retrieves one page of the current user's notes, most recently updated
+	 * first.
+	 *
+	 * @param cursor Cursor returned with the previous page, or null for the first
+	 *               page.
+	 * @param limit  Maximum number of notes to return.
+	 * @return Page of notes with the cursor of the next page.
+	 */
+	Mono<PageResponseDto<NoteResponseDto>> findAll(String cursor, int limit);
+
+	/**
+	 * Retrieves the changes to the current user's notes since a sync cursor.
+	 *
+	 * @param since Cursor returned by the previous sync, or null for a full sync.
+	 * @param limit Maximum number of changes to return.
+	 * @return Updated notes and deleted note IDs with the cursor to continue
+	 *         from.
+	 */
+	Mono<NoteChangesResponseDto> findChanges(String since, int limit);
+
+	/**
+	 * Updates the details of an existing note.
+	 *
+	 * @param id              Unique identifier of the note to be updated.
+	 * @param noteRequestDto  DTO containing updated details for the note.
+	 * @param expectedVersion Version the note must still have, or null to update
+	 *                        any version.
+	 * @return Success message.
+	 */
+	Mono<String> updateNote(Integer id, NoteRequestDto noteRequestDto, Long expectedVersion);
+
+	/**
+	 * Deletes a note and its shares.
+	 *
+	 * @param id              Unique identifier of the note to be deleted.
+	 * @param expectedVersion Version the note must still have, or null to delete
+	 *                        any version.
+	 * @return Success message.
+	 */
+	Mono<String> deleteNoteById(Integer id, Long expectedVersion);
+
+	/**
+	 * Shares a note with another user.
+	 *
+	 * @param shareNoteRequestDto DTO containing details for sharing a note.
+	 * @return Success message.
+	 */
+	Mono<String> shareNoteWithUser(ShareNoteRequestDto shareNoteRequestDto);
+
+	/**
+	 * Shares every given note with every given user.
+	 *
+	 * @param batchShareNoteRequestDto DTO containing the notes and recipients.
+	 * @return Success message.
+	 */
+	Mono<String> shareNotesWithUsers(BatchShareNoteRequestDto batchShareNoteRequestDto);
+
+	/**
+	 * Retrieves one page of the notes shared with the current user, most recently
+	 * shared first.
+	 *
+	 * @param cursor Cursor returned with the previous page, or null for the first
+	 *               page.
+	 * @param limit  Maximum number of shared notes to return.
+	 * @return Page of shared notes with the cursor of the next page.
+	 */
+	Mono<PageResponseDto<SharedNoteResponseDto>> findSharedWithMe(String cursor, int limit);
+
+	/**
+	 * Searches the current user's notes.
+	 *
+	 * @param query  Search query string.
+	 * @param mode   Search mode, or null for the configured default.
+	 * @param limit  Maximum number of notes to return.
+	 * @param offset Number of matching notes to skip.
+	 * @return Page of notes matching the query, with the offset of the next page.
+	 */
+	Mono<OffsetPageResponseDto<NoteResponseDto>> searchNotes(String query, SearchMode mode, int limit, int offset);
+
+	/**
+	 * Streams all notes of the current user, ordered by ID.
+	 *
+	 * @return Flux of the user's notes.
+	 */
+	Flux<NoteResponseDto> exportNotes();
+
+	/**
+	 * Imports notes from a newline-delimited JSON or CSV body in one transaction.
+	 * Rows that cannot be parsed are skipped and reported.
+	 *
+	 * @param body   Body containing the notes to import.
+	 * @param format Format of the body.
+	 * @return Number of imported notes and the rejected rows.
+	 */
+	Mono<ImportResultDto> importNotes(Flux<DataBuffer> body, ImportFormat format);
+}
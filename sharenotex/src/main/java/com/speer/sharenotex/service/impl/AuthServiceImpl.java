@@ -1,23 +1,80 @@
 package com.speer.sharenotex.service.impl;
 
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.speer.sharenotex.exception.GenericException;
+import com.speer.sharenotex.exception.NotFoundException;
+import com.speer.sharenotex.exception.RateLimitExceedException;
 import com.speer.sharenotex.requesdto.LoginRequestDto;
 import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
 import com.speer.sharenotex.responsedto.LoginResponseDto;
+import com.speer.sharenotex.responsedto.RegistrationStatusDto;
 import com.speer.sharenotex.service.AuthService;
 import com.speer.sharenotex.service.KeycloakService;
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.RegistrationStatus;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implementation of the {@link AuthService} interface providing authentication-related operations.
+ * <p>
+ * Queued signups wait in a bounded queue and are processed by a fixed number of
+ * virtual threads, which caps the concurrent registrations sent to Keycloak
+ * during signup bursts. A full queue rejects new signups with a retry hint.
+ * Registration statuses are kept in memory for the configured time-to-live.
  */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class AuthServiceImpl implements AuthService {
 
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
 	private final KeycloakService keycloakService;
+	private final boolean registrationQueued;
+	private final ThreadPoolExecutor registrationExecutor;
+	private final Cache<String, RegistrationStatusDto> registrationStatuses;
+
+	/**
+	 * Creates the service and its registration queue from the configured
+	 * settings.
+	 *
+	 * @param keycloakService    Service creating the users in Keycloak.
+	 * @param meterRegistry      Registry of the registration queue metrics.
+	 * @param registrationQueued Whether signups go through the queue.
+	 * @param concurrency        Maximum number of registrations processed at once.
+	 * @param capacity           Maximum number of signups waiting in the queue.
+	 * @param statusTtlMillis    Time (in milliseconds) a registration status is
+	 *                           kept after its last update.
+	 */
+	public AuthServiceImpl(KeycloakService keycloakService, MeterRegistry meterRegistry,
+			@Value("${com.sharenotex.registration.queue.enabled:false}") boolean registrationQueued,
+			@Value("${com.sharenotex.registration.queue.concurrency:4}") int concurrency,
+			@Value("${com.sharenotex.registration.queue.capacity:1000}") int capacity,
+			@Value("${com.sharenotex.registration.queue.status-ttl:600000}") long statusTtlMillis) {
+		this.keycloakService = keycloakService;
+		this.registrationQueued = registrationQueued;
+		this.registrationExecutor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacity), Thread.ofVirtual().name("registration-", 0).factory());
+		this.registrationStatuses = Caffeine.newBuilder().expireAfterWrite(Duration.ofMillis(statusTtlMillis))
+				.build();
+		new ExecutorServiceMetrics(registrationExecutor, Constants.REGISTRATION_EXECUTOR, Tags.empty())
+				.bindTo(meterRegistry);
+	}
 
 	@Override
 	public Boolean addNewUser(UserRegistrationRequestDto userRegistrationRequestDto) {
@@ -25,9 +82,64 @@ public class AuthServiceImpl implements AuthService {
 
 	}
 
+	@Override
+	public boolean isRegistrationQueued() {
+		return registrationQueued;
+	}
+
+	@Override
+	public RegistrationStatusDto queueNewUser(UserRegistrationRequestDto userRegistrationRequestDto) {
+		String registrationId = UUID.randomUUID().toString();
+		RegistrationStatusDto pending = new RegistrationStatusDto(registrationId, RegistrationStatus.PENDING, null);
+		registrationStatuses.put(registrationId, pending);
+		try {
+			registrationExecutor.execute(() -> register(registrationId, userRegistrationRequestDto));
+		} catch (RejectedExecutionException e) {
+			registrationStatuses.invalidate(registrationId);
+			throw new RateLimitExceedException(Constants.EXCEPTION_KEY_REGISTRATION,
+					Constants.REGISTRATION_QUEUE_FULL_MESSAGE, 0, 1);
+		}
+		return pending;
+	}
+
+	@Override
+	public RegistrationStatusDto getRegistrationStatus(String registrationId) {
+		RegistrationStatusDto status = registrationStatuses.getIfPresent(registrationId);
+		if (status == null) {
+			throw new NotFoundException(Constants.EXCEPTION_KEY_REGISTRATION, Constants.NOT_FOUND_MESSAGE);
+		}
+		return status;
+	}
+
 	@Override
 	public LoginResponseDto getAccessToken(LoginRequestDto loginRequestDto) {
 		return keycloakService.getAccessToken(loginRequestDto);
 	}
 
+	/**
+	 * Lets the queued registrations finish before the application stops.
+	 */
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		registrationExecutor.shutdown();
+		if (!registrationExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+			log.warn("{} queued registration(s) dropped at shutdown", registrationExecutor.shutdownNow().size());
+		}
+	}
+
+	private void register(String registrationId, UserRegistrationRequestDto userRegistrationRequestDto) {
+		RegistrationStatusDto status;
+		try {
+			status = Boolean.TRUE.equals(keycloakService.addKeycloakUser(userRegistrationRequestDto))
+					? new RegistrationStatusDto(registrationId, RegistrationStatus.COMPLETED,
+							Constants.USER_REGISTER_SUCCESS)
+					: new RegistrationStatusDto(registrationId, RegistrationStatus.FAILED, Constants.USER_REGISTER_FAIL);
+		} catch (GenericException e) {
+			status = new RegistrationStatusDto(registrationId, RegistrationStatus.FAILED, e.getMessage());
+		} catch (RuntimeException e) {
+			log.error("Queued registration {} failed: {}", registrationId, e.getMessage());
+			status = new RegistrationStatusDto(registrationId, RegistrationStatus.FAILED, Constants.USER_REGISTER_FAIL);
+		}
+		registrationStatuses.put(registrationId, status);
+	}
 }
@@ -1,6 +1,17 @@
 package com.speer.sharenotex.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.keycloak.admin.client.CreatedResponseUtil;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.UserResource;
@@ -12,7 +23,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import com.speer.sharenotex.config.KeycloakConfig;
+import com.speer.sharenotex.cache.KeycloakUserCache;
 import com.speer.sharenotex.config.WebClientConfig;
 import com.speer.sharenotex.exception.AlreadyExistException;
 import com.speer.sharenotex.exception.KeycloakUserCreationFailException;
@@ -22,6 +33,8 @@ import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
 import com.speer.sharenotex.responsedto.LoginResponseDto;
 import com.speer.sharenotex.service.KeycloakService;
 import com.speer.sharenotex.util.Constants;
+
+import io.micrometer.core.annotation.Timed;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
@@ -29,13 +42,20 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implementation of the {@link KeycloakService} interface that provides
- * operations for managing users in Keycloak.
+ * operations for managing users in Keycloak. A signup takes two admin calls:
+ * creating the enabled user with its credentials, and assigning the USER realm
+ * role, whose representation is cached.
  */
 @Service
+@Timed(Constants.METRIC_KEYCLOAK_SERVICE)
 @RequiredArgsConstructor
 @Slf4j
 public class KeycloakServiceImpl implements KeycloakService {
 
+	private static final int LOOKUP_CONCURRENCY = 8;
+
+	@Value("${com.keycloak.server.url}")
+	private String keycloakServerUrl;
 	@Value("${com.keycloak.user.realm}")
 	private String userRealm;
 	@Value("${com.keycloak.config.clientId}")
@@ -43,12 +63,14 @@ public class KeycloakServiceImpl implements KeycloakService {
 	@Value("${com.keycloak.config.secret}")
 	private String clientSecret;
 
-	private final KeycloakConfig keycloakConfig;
+	private final Keycloak keycloak;
 	private final WebClientConfig webClientConfig;
+	private final KeycloakUserCache keycloakUserCache;
+	// Representation of the USER realm role, fetched on the first signup
+	private final AtomicReference<RoleRepresentation> userRole = new AtomicReference<>();
 
 	@Override
 	public Boolean addKeycloakUser(UserRegistrationRequestDto userRegistrationRequestDto) {
-		Keycloak keycloak = keycloakConfig.keycloakAdminClient();
 		UsersResource usersResource = keycloak.realm(userRealm).users();
 		UserRepresentation createUserRepresentation = createUserRepresentation(userRegistrationRequestDto);
 		CredentialRepresentation credentials = setCredentials(userRegistrationRequestDto.password());
@@ -57,13 +79,9 @@ public class KeycloakServiceImpl implements KeycloakService {
 		boolean isUserCreated = false;
 		try (Response response = usersResource.create(createUserRepresentation)) {
 			if (response.getStatus() == 201) {
+				// The user is created enabled, so only the role remains to be assigned
 				String userId = CreatedResponseUtil.getCreatedId(response);
-				UserResource userResource = usersResource.get(userId);
-				UserRepresentation updatedUser = userResource.toRepresentation();
-				updatedUser.setEnabled(true);
-				userResource.update(updatedUser);
-				RoleRepresentation userRole = findUserRoleByName(keycloak, Constants.ROLE_USER);
-				userResource.roles().realmLevel().add(Collections.singletonList(userRole));
+				assignUserRole(usersResource.get(userId));
 				isUserCreated = true;
 				log.info("User '{}' created successfully.", userRegistrationRequestDto.email());
 			} else if (response.getStatus() == 409) {
@@ -80,21 +98,69 @@ public class KeycloakServiceImpl implements KeycloakService {
 
 	@Override
 	public UserRepresentation getKeycloakUserDetailsById(String userId) {
-		Keycloak keycloak = keycloakConfig.keycloakAdminClient();
+		return keycloakUserCache.get(userId, this::fetchKeycloakUser)
+				.orElseThrow(() -> new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE));
+	}
+
+	@Override
+	public Set<String> findUnknownUserIds(Collection<String> userIds) {
+		return keycloakUserCache.getAll(userIds, this::fetchKeycloakUsers).entrySet().stream()
+				.filter(entry -> entry.getValue().isEmpty()).map(Map.Entry::getKey).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Looks the users up in at most {@link #LOOKUP_CONCURRENCY} concurrent tasks,
+	 * each fetching its share of the IDs one after another.
+	 */
+	private CompletableFuture<Map<String, Optional<UserRepresentation>>> fetchKeycloakUsers(
+			Set<? extends String> userIds, Executor executor) {
+		List<String> ids = List.copyOf(userIds);
+		int tasks = Math.min(LOOKUP_CONCURRENCY, ids.size());
+		List<CompletableFuture<Map<String, Optional<UserRepresentation>>>> lookups = new ArrayList<>(tasks);
+		for (int task = 0; task < tasks; task++) {
+			List<String> share = ids.subList(ids.size() * task / tasks, ids.size() * (task + 1) / tasks);
+			lookups.add(CompletableFuture.supplyAsync(() -> {
+				Map<String, Optional<UserRepresentation>> users = new LinkedHashMap<>();
+				share.forEach(userId -> users.put(userId, fetchKeycloakUser(userId)));
+				return users;
+			}, executor));
+		}
+		return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).thenApply(done -> {
+			Map<String, Optional<UserRepresentation>> users = new LinkedHashMap<>();
+			lookups.forEach(lookup -> users.putAll(lookup.join()));
+			return users;
+		});
+	}
+
+	private Optional<UserRepresentation> fetchKeycloakUser(String userId) {
 		UsersResource usersResource = keycloak.realm(userRealm).users();
-		UserRepresentation userRepresentation = null;
 		try {
-			userRepresentation = usersResource.get(userId).toRepresentation();
+			UserRepresentation userRepresentation = usersResource.get(userId).toRepresentation();
 			log.info("User details retrieved for user ID: {}", userId);
-		} catch (NotFoundException e) {
-			throw new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE);
+			return Optional.of(userRepresentation);
+		} catch (jakarta.ws.rs.NotFoundException e) {
+			log.info("User ID {} not found in Keycloak.", userId);
+			return Optional.empty();
 		}
+	}
 
-		return userRepresentation;
+	private void assignUserRole(UserResource userResource) {
+		try {
+			userResource.roles().realmLevel().add(Collections.singletonList(findUserRole()));
+		} catch (jakarta.ws.rs.NotFoundException e) {
+			// The cached role may have been deleted and re-created under a new ID
+			userRole.set(null);
+			userResource.roles().realmLevel().add(Collections.singletonList(findUserRole()));
+		}
 	}
 
-	private RoleRepresentation findUserRoleByName(Keycloak keycloak, String roleName) {
-		return keycloak.realm(userRealm).roles().get(roleName).toRepresentation();
+	private RoleRepresentation findUserRole() {
+		RoleRepresentation role = userRole.get();
+		if (role == null) {
+			role = keycloak.realm(userRealm).roles().get(Constants.ROLE_USER).toRepresentation();
+			userRole.set(role);
+		}
+		return role;
 	}
 
 	private UserRepresentation createUserRepresentation(UserRegistrationRequestDto userRegistrationRequestDto) {
@@ -124,6 +190,7 @@ public class KeycloakServiceImpl implements KeycloakService {
 		formData.add(Constants.KEY_GRANT_TYPE, "password");
 		formData.add(Constants.KEY_USER_NAME, loginRequestDto.userName());
 		formData.add(Constants.KEY_PASSWORD, loginRequestDto.password());
-		return webClientConfig.post(Constants.KEYCLOAK_ACCESS_TOKEN_URL, formData, LoginResponseDto.class);
+		String tokenUrl = keycloakServerUrl + String.format(Constants.KEYCLOAK_ACCESS_TOKEN_PATH, userRealm);
+		return webClientConfig.post(tokenUrl, formData, LoginResponseDto.class);
 	}
 }
@@ -1,25 +1,77 @@
 package com.speer.sharenotex.service.impl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speer.sharenotex.cache.SearchResultCache;
+import com.speer.sharenotex.event.NoteEventBroker;
+import com.speer.sharenotex.event.NoteEventType;
+import com.speer.sharenotex.exception.BadRequestException;
+import com.speer.sharenotex.exception.GoneException;
 import com.speer.sharenotex.exception.NotFoundException;
+import com.speer.sharenotex.exception.PreconditionFailedException;
 import com.speer.sharenotex.model.Note;
+import com.speer.sharenotex.model.NoteChange;
+import com.speer.sharenotex.model.NoteCollectionVersion;
+import com.speer.sharenotex.model.NoteMetadata;
 import com.speer.sharenotex.model.SharedNote;
+import com.speer.sharenotex.repository.NoteCollectionVersionRepository;
+import com.speer.sharenotex.repository.NoteCopyRepository;
 import com.speer.sharenotex.repository.NoteRepository;
 import com.speer.sharenotex.repository.SharedNoteRepository;
+import com.speer.sharenotex.requesdto.BatchShareNoteRequestDto;
 import com.speer.sharenotex.requesdto.NoteRequestDto;
 import com.speer.sharenotex.requesdto.ShareNoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportResultDto;
+import com.speer.sharenotex.responsedto.NoteChangesResponseDto;
 import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.OffsetPageResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+import com.speer.sharenotex.search.NoteSearchIndex;
 import com.speer.sharenotex.service.KeycloakService;
 import com.speer.sharenotex.service.NoteService;
+import com.speer.sharenotex.util.ChangeCursor;
 import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.ImportFormat;
+import com.speer.sharenotex.util.KeysetCursor;
+import com.speer.sharenotex.util.NoteContentCodec;
+import com.speer.sharenotex.util.NoteContentCodec.StoredContent;
+import com.speer.sharenotex.util.NoteMapper;
+import com.speer.sharenotex.util.NoteImportReader;
+import com.speer.sharenotex.util.SearchMode;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,29 +80,89 @@ import lombok.extern.slf4j.Slf4j;
  * related to notes.
  */
 @Service
+@Profile("!reactive")
+@Timed(Constants.METRIC_NOTE_SERVICE)
 @RequiredArgsConstructor
 @Slf4j
 public class NoteServiceImpl implements NoteService {
 
+	private static final int EXPORT_FLUSH_INTERVAL = 500;
+	private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+	// Shorter queries have too few trigrams for the indexes to narrow the scan
+	private static final int FUZZY_MIN_QUERY_LENGTH = 3;
+
 	private final NoteRepository noteRepository;
-	private final ModelMapper mapper;
+	private final NoteCopyRepository noteCopyRepository;
+	private final NoteCollectionVersionRepository noteCollectionVersionRepository;
 	private final SharedNoteRepository sharedNoteRepository;
 	private final KeycloakService keycloakService;
+	private final ObjectMapper objectMapper;
+	private final NoteContentCodec noteContentCodec;
+	private final ObjectProvider<NoteSearchIndex> noteSearchIndex;
+	private final SearchResultCache searchResultCache;
+	private final NoteEventBroker noteEventBroker;
+
+	@Value("${com.sharenotex.search.default-mode:contains}")
+	private String defaultSearchMode;
+	@Value("${com.sharenotex.search.max-limit:100}")
+	private int maxSearchLimit;
+	@Value("${com.sharenotex.search.fuzzy.threshold:0.4}")
+	private double fuzzyThreshold;
+	@Value("${com.sharenotex.search.fuzzy.max-limit:50}")
+	private int maxFuzzyLimit;
+	@Value("${com.sharenotex.pagination.max-limit:100}")
+	private int maxPageLimit;
+	@Value("${com.sharenotex.share.max-batch-size:10000}")
+	private long maxBatchShares;
+	@Value("${com.sharenotex.import.max-record-size:1048576}")
+	private int maxImportRecordSize;
+	@Value("${com.sharenotex.sync.max-limit:500}")
+	private int maxSyncLimit;
+	@Value("${com.sharenotex.sync.tombstone-retention:2592000000}")
+	private long tombstoneRetentionMillis;
 
 	private String getUserId() {
 		return SecurityContextHolder.getContext().getAuthentication().getName();
 	}
 
+	private void touchNoteCollection(String userId) {
+		noteCollectionVersionRepository.increment(userId, Timestamp.from(Instant.now()));
+		searchResultCache.invalidate(userId);
+	}
+
+	/**
+	 * Rejects a blank title or content, and a title too long for its column.
+	 */
+	private static void validateNote(NoteRequestDto noteRequestDto) {
+		if (noteRequestDto.title() == null || noteRequestDto.title().isBlank()) {
+			throw new BadRequestException("title", Constants.TITLE_EMPTY_MESSAGE);
+		}
+		if (noteRequestDto.title().codePointCount(0, noteRequestDto.title().length()) > Constants.MAX_TITLE_LENGTH) {
+			throw new BadRequestException("title",
+					String.format(Constants.TITLE_TOO_LONG_MESSAGE, Constants.MAX_TITLE_LENGTH));
+		}
+		if (noteRequestDto.content() == null || noteRequestDto.content().isBlank()) {
+			throw new BadRequestException("content", Constants.CONTENT_EMPTY_MESSAGE);
+		}
+	}
+
 	@Override
+	@Transactional
 	public Boolean createNewNote(NoteRequestDto newNoteRequestDto) {
 		log.info("Creating a new note for user: {}", getUserId());
+		validateNote(newNoteRequestDto);
 		Note note = new Note();
 		note.setUserId(getUserId());
 		note.setTitle(newNoteRequestDto.title());
-		note.setContent(newNoteRequestDto.content());
+		StoredContent content = noteContentCodec.encode(newNoteRequestDto.content());
+		note.setContent(content.text());
+		note.setContentDeflated(content.deflated());
 		note.setCreatedAt(Timestamp.from(Instant.now()));
 		note.setUpdatedAt(Timestamp.from(Instant.now()));
 		noteRepository.save(note);
+		touchNoteCollection(note.getUserId());
+		noteSearchIndex.ifAvailable(index -> index.indexNote(note.getId()));
+		noteEventBroker.publish(note.getUserId(), NoteEventType.CREATED, note.getId());
 		log.info("New note created successfully.");
 		return true;
 	}
@@ -61,54 +173,161 @@ public class NoteServiceImpl implements NoteService {
 		Note note = noteRepository.findByIdAndUserId(id, getUserId())
 				.orElseThrow(() -> new NotFoundException(Constants.EXCEPTION_KEY_ID, "Not not found"));
 		log.info("Note found successfully.");
-		return mapper.map(note, NoteResponseDto.class);
+		return NoteMapper.toResponseDto(note);
 	}
 
 	@Override
-	public List<NoteResponseDto> findAll() {
-		log.info("Finding all notes for user: {}", getUserId());
-		List<Note> userNotes = noteRepository.findByUserId(getUserId());
+	public NoteMetadata findNoteMetadata(Integer id) {
+		return noteRepository.findMetadataByIdAndUserId(id, getUserId())
+				.orElseThrow(() -> new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE));
+	}
+
+	@Override
+	public NoteCollectionVersion findNoteCollectionVersion() {
+		return noteCollectionVersionRepository.findById(getUserId())
+				.orElseGet(() -> new NoteCollectionVersion(getUserId(), 0L, null));
+	}
+
+	@Override
+	public PageResponseDto<NoteResponseDto> findAll(String cursor, int limit) {
+		if (limit <= 0) {
+			throw new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE);
+		}
+		int pageSize = Math.min(limit, maxPageLimit);
+		log.info("Finding notes for user: {} (page size: {})", getUserId(), pageSize);
+		// Fetch one extra row to find out whether another page follows
+		List<NoteResponseDto> userNotes;
+		if (cursor == null || cursor.isBlank()) {
+			userNotes = noteRepository.findFirstPageByUserId(getUserId(), pageSize + 1);
+		} else {
+			KeysetCursor after = KeysetCursor.decode(cursor);
+			userNotes = noteRepository.findPageByUserIdAfter(getUserId(), after.timestamp(), after.id(), pageSize + 1);
+		}
+		String nextCursor = null;
+		if (userNotes.size() > pageSize) {
+			userNotes = userNotes.subList(0, pageSize);
+			NoteResponseDto last = userNotes.get(pageSize - 1);
+			nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+		}
 		log.info("Found {} notes for user.", userNotes.size());
-		return userNotes.stream().map(note -> mapper.map(note, NoteResponseDto.class)).toList();
+		return new PageResponseDto<>(userNotes, nextCursor);
 	}
 
 	@Override
-	public String updateNote(Integer id, NoteRequestDto noteRequestDto) {
-		log.info("Updating note with ID {} for user: {}", id, getUserId());
-		noteRepository.findByIdAndUserId(id, getUserId()).ifPresentOrElse((note) -> {
-			note.setTitle(noteRequestDto.title());
-			note.setContent(noteRequestDto.content());
-			note.setUpdatedAt(Timestamp.from(Instant.now()));
-			noteRepository.save(note);
-			log.info("Note updated successfully.");
-		}, () -> {
-			throw new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE);
-		});
+	@Transactional(readOnly = true)
+	public NoteChangesResponseDto findChanges(String since, int limit) {
+		if (limit <= 0) {
+			throw new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE);
+		}
+		int pageSize = Math.min(limit, maxSyncLimit);
+		long now = System.currentTimeMillis();
+		// A full sync starts before every change and needs no tombstones
+		boolean fullSync = since == null || since.isBlank();
+		ChangeCursor after = fullSync ? new ChangeCursor(0, 0, now) : ChangeCursor.decode(since);
+		if (after.issuedAt() < now - tombstoneRetentionMillis) {
+			throw new GoneException("since", Constants.SYNC_CURSOR_EXPIRED_MESSAGE);
+		}
+		log.info("Finding note changes for user: {} (page size: {})", getUserId(), pageSize);
+		long watermark = noteRepository.currentChangeWatermark();
+		// Fetch one extra row to find out whether more changes follow
+		List<NoteChange> changes = noteRepository.findChanges(getUserId(), after.changeSeq(), after.id(), !fullSync,
+				watermark, pageSize + 1);
+		boolean hasMore = changes.size() > pageSize;
+		ChangeCursor next;
+		if (hasMore) {
+			changes = changes.subList(0, pageSize);
+			NoteChange last = changes.get(pageSize - 1);
+			next = new ChangeCursor(last.changeSeq(), last.id(), after.issuedAt());
+		} else {
+			next = new ChangeCursor(watermark, 0, now);
+		}
+		List<NoteResponseDto> updated = new ArrayList<>();
+		List<Integer> deleted = new ArrayList<>();
+		for (NoteChange change : changes) {
+			if (change.deleted()) {
+				deleted.add(change.id());
+			} else {
+				updated.add(change.toResponseDto());
+			}
+		}
+		log.info("Found {} updated and {} deleted notes.", updated.size(), deleted.size());
+		return new NoteChangesResponseDto(updated, deleted, next.encode(), hasMore);
+	}
+
+	/**
+	 * Purges the tombstones older than the retention period. Cursors issued
+	 * before then are rejected, as they could miss these deletions.
+	 */
+	@Scheduled(fixedDelayString = "${com.sharenotex.sync.tombstone-purge-interval:3600000}")
+	@Transactional
+	public void purgeTombstones() {
+		int purged = noteRepository
+				.deleteTombstonesDeletedBefore(new Timestamp(System.currentTimeMillis() - tombstoneRetentionMillis));
+		if (purged > 0) {
+			log.info("Purged {} note tombstones.", purged);
+		}
+	}
 
+	@Override
+	@Transactional
+	public String updateNote(Integer id, NoteRequestDto noteRequestDto, Long expectedVersion) {
+		log.info("Updating note with ID {} for user: {}", id, getUserId());
+		validateNote(noteRequestDto);
+		Timestamp updatedAt = Timestamp.from(Instant.now());
+		StoredContent content = noteContentCodec.encode(noteRequestDto.content());
+		int updated = expectedVersion == null
+				? noteRepository.updateByIdAndUserId(id, getUserId(), noteRequestDto.title(), content.text(),
+						content.deflated(), updatedAt)
+				: noteRepository.updateByIdAndUserIdAndVersion(id, getUserId(), expectedVersion,
+						noteRequestDto.title(), content.text(), content.deflated(), updatedAt);
+		if (updated == 0) {
+			throw noteNotModified(id, expectedVersion);
+		}
+		touchNoteCollection(getUserId());
+		noteSearchIndex.ifAvailable(index -> index.indexNote(id));
+		noteEventBroker.publish(getUserId(), NoteEventType.UPDATED, id);
+		log.info("Note updated successfully.");
 		return Constants.UPDATE_SUCCESS;
 	}
 
 	@Override
-	public String deleteNoteById(Integer id) {
+	@Transactional
+	public String deleteNoteById(Integer id, Long expectedVersion) {
 		log.info("Deleting note with ID {} for user: {}", id, getUserId());
-		noteRepository.findByIdAndUserId(id, getUserId()).ifPresentOrElse(noteRepository::delete, () -> {
-			throw new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE);
-		});
+		// The note_track_change trigger leaves a tombstone for incremental syncs
+		int deleted = expectedVersion == null ? noteRepository.deleteByIdAndUserId(id, getUserId())
+				: noteRepository.deleteByIdAndUserIdAndVersion(id, getUserId(), expectedVersion);
+		if (deleted == 0) {
+			throw noteNotModified(id, expectedVersion);
+		}
+		// Its shares are deleted by the cascading foreign key
+		touchNoteCollection(getUserId());
+		noteSearchIndex.ifAvailable(index -> index.indexNote(id));
+		noteEventBroker.publish(getUserId(), NoteEventType.DELETED, id);
 		log.info("Note deleted successfully.");
 		return Constants.DELETE_SUCCESS;
 	}
 
+	/**
+	 * Explains why a conditional write touched no row: the note is missing (or
+	 * not owned by the user), or it exists with a different version.
+	 */
+	private RuntimeException noteNotModified(Integer id, Long expectedVersion) {
+		if (expectedVersion != null && noteRepository.existsByIdAndUserId(id, getUserId())) {
+			return new PreconditionFailedException("If-Match", Constants.VERSION_MISMATCH_MESSAGE);
+		}
+		return new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE);
+	}
+
 	@Override
 	public String shareNoteWithUser(ShareNoteRequestDto shareNoteRequestDto) {
 		log.info("Sharing note with ID {} to user: {}", shareNoteRequestDto.noteId(), shareNoteRequestDto.sharedTo());
 		noteRepository.findByIdAndUserId(shareNoteRequestDto.noteId(), getUserId()).ifPresentOrElse(note -> {
 			keycloakService.getKeycloakUserDetailsById(shareNoteRequestDto.sharedTo());
-			SharedNote sharedNote = new SharedNote();
-			sharedNote.setSharedBy(note.getUserId());
-			sharedNote.setSharedTo(shareNoteRequestDto.sharedTo());
-			sharedNote.setSharedAt(Timestamp.from(Instant.now()));
-			sharedNote.setNote(note);
-			sharedNoteRepository.save(sharedNote);
+			// Sharing a note again with the same user adds nothing
+			sharedNoteRepository.insertAll(new Integer[] { note.getId() }, note.getUserId(),
+					new String[] { shareNoteRequestDto.sharedTo() }, Timestamp.from(Instant.now()))
+					.forEach(this::publishShared);
 			log.info("Note shared successfully.");
 		}, () -> {
 			throw new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE);
@@ -118,10 +337,203 @@ public class NoteServiceImpl implements NoteService {
 	}
 
 	@Override
-	public List<NoteResponseDto> searchNotes(String query) {
-		log.info("Searching notes for user: {} with query: {}", getUserId(), query);
-		List<Note> notes = noteRepository.findByUserIdAndContentContainingIgnoreCase(getUserId(), query);
-		log.info("Found {} notes matching the query.", notes.size());
-		return notes.stream().map(note -> mapper.map(note, NoteResponseDto.class)).toList();
+	public String shareNotesWithUsers(BatchShareNoteRequestDto batchShareNoteRequestDto) {
+		Set<Integer> noteIds = distinct(batchShareNoteRequestDto.noteIds());
+		Set<String> recipients = distinct(batchShareNoteRequestDto.sharedTo());
+		if (noteIds.isEmpty() || recipients.isEmpty()) {
+			throw new BadRequestException("noteIds", Constants.EMPTY_BATCH_SHARE_MESSAGE);
+		}
+		if ((long) noteIds.size() * recipients.size() > maxBatchShares) {
+			throw new BadRequestException("sharedTo", String.format(Constants.BATCH_SHARE_TOO_LARGE_MESSAGE, maxBatchShares));
+		}
+		log.info("Sharing {} notes with {} users for user: {}", noteIds.size(), recipients.size(), getUserId());
+		List<Note> notes = noteRepository.findByIdInAndUserId(noteIds, getUserId());
+		if (notes.size() != noteIds.size()) {
+			throw new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE);
+		}
+		Set<String> unknownRecipients = keycloakService.findUnknownUserIds(recipients);
+		if (!unknownRecipients.isEmpty()) {
+			throw new NotFoundException("sharedTo",
+					String.format(Constants.UNKNOWN_USERS_MESSAGE, String.join(", ", unknownRecipients)));
+		}
+
+		// One statement creates every share, skipping the notes already shared with a recipient
+		sharedNoteRepository.insertAll(noteIds.toArray(Integer[]::new), getUserId(),
+				recipients.toArray(String[]::new), Timestamp.from(Instant.now())).forEach(this::publishShared);
+		log.info("Shared {} notes with {} users.", notes.size(), recipients.size());
+		return String.format(Constants.BATCH_SHARED_SUCCESS, notes.size(), recipients.size());
+	}
+
+	private void publishShared(SharedNote sharedNote) {
+		noteEventBroker.publish(sharedNote.getSharedTo(), NoteEventType.SHARED, sharedNote.getNoteId(),
+				sharedNote.getSharedBy());
+	}
+
+	@Override
+	public PageResponseDto<SharedNoteResponseDto> findSharedWithMe(String cursor, int limit) {
+		if (limit <= 0) {
+			throw new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE);
+		}
+		int pageSize = Math.min(limit, maxPageLimit);
+		log.info("Finding notes shared with user: {} (page size: {})", getUserId(), pageSize);
+		// Fetch one extra row to find out whether another page follows
+		PageRequest pageRequest = PageRequest.ofSize(pageSize + 1);
+		List<SharedNoteResponseDto> sharedNotes;
+		if (cursor == null || cursor.isBlank()) {
+			sharedNotes = sharedNoteRepository.findSharedWith(getUserId(), pageRequest);
+		} else {
+			KeysetCursor after = KeysetCursor.decode(cursor);
+			sharedNotes = sharedNoteRepository.findSharedWithAfter(getUserId(), after.timestamp(), after.id(),
+					pageRequest);
+		}
+		String nextCursor = null;
+		if (sharedNotes.size() > pageSize) {
+			sharedNotes = sharedNotes.subList(0, pageSize);
+			SharedNoteResponseDto last = sharedNotes.get(pageSize - 1);
+			nextCursor = new KeysetCursor(last.getSharedAt(), last.getId()).encode();
+		}
+		log.info("Found {} notes shared with user.", sharedNotes.size());
+		return new PageResponseDto<>(sharedNotes, nextCursor);
+	}
+
+	private <T> Set<T> distinct(List<T> values) {
+		Set<T> distinctValues = new LinkedHashSet<>();
+		if (values != null) {
+			values.stream().filter(Objects::nonNull).forEach(distinctValues::add);
+		}
+		return distinctValues;
+	}
+
+	@Override
+	public OffsetPageResponseDto<NoteResponseDto> searchNotes(String query, SearchMode mode, int limit, int offset) {
+		SearchMode searchMode = mode != null ? mode : SearchMode.from(defaultSearchMode);
+		if (limit <= 0) {
+			throw new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE);
+		}
+		if (offset < 0) {
+			throw new BadRequestException("offset", Constants.INVALID_OFFSET_MESSAGE);
+		}
+		if (searchMode == SearchMode.FUZZY && query.strip().length() < FUZZY_MIN_QUERY_LENGTH) {
+			throw new BadRequestException("query", String.format(Constants.FUZZY_QUERY_TOO_SHORT_MESSAGE,
+					FUZZY_MIN_QUERY_LENGTH));
+		}
+		int pageSize = Math.min(limit, searchMode == SearchMode.FUZZY ? maxFuzzyLimit : maxSearchLimit);
+		// The offset of the extra note fetched below must not overflow
+		if (offset > Integer.MAX_VALUE - (pageSize + 1)) {
+			throw new BadRequestException("offset", Constants.OFFSET_TOO_LARGE_MESSAGE);
+		}
+		log.info("Searching notes for user: {} with query: {} (mode: {})", getUserId(), query, searchMode);
+		// Index results become visible asynchronously, so they are never cached
+		SearchResultCache.Key cacheKey = searchMode != SearchMode.INDEX
+				? searchResultCache.key(getUserId(), searchMode, query, pageSize, offset)
+				: null;
+		List<NoteResponseDto> notes = cacheKey != null ? searchResultCache.get(cacheKey) : null;
+		if (notes != null) {
+			log.info("Found {} notes matching the query (cached).", Math.min(notes.size(), pageSize));
+		} else {
+			// Fetch one extra note to find out whether another page follows
+			notes = switch (searchMode) {
+			case FULLTEXT -> noteRepository.searchByFullText(getUserId(), query, pageSize + 1, offset);
+			case CONTAINS -> noteRepository.searchByContent(getUserId(), escapeLikePattern(query), pageSize + 1,
+					offset);
+			case FUZZY -> noteRepository.searchByTrigram(getUserId(), query.strip(), fuzzyThreshold, pageSize + 1,
+					offset);
+			case INDEX -> searchIndex(query, pageSize + 1, offset);
+			};
+			if (cacheKey != null) {
+				searchResultCache.put(cacheKey, notes);
+			}
+			log.info("Found {} notes matching the query.", Math.min(notes.size(), pageSize));
+		}
+		boolean hasMore = notes.size() > pageSize;
+		if (hasMore) {
+			notes = notes.subList(0, pageSize);
+		}
+		return new OffsetPageResponseDto<>(notes, hasMore, hasMore ? offset + pageSize : null);
+	}
+
+	/**
+	 * Searches the note index, then loads the matching notes by ID. Notes deleted
+	 * since the index was last refreshed are left out.
+	 */
+	private List<NoteResponseDto> searchIndex(String query, int limit, int offset) {
+		NoteSearchIndex index = noteSearchIndex.getIfAvailable();
+		if (index == null) {
+			throw new BadRequestException("mode", Constants.SEARCH_INDEX_DISABLED_MESSAGE);
+		}
+		List<NoteSearchIndex.Hit> hits = index.search(getUserId(), query, limit, offset);
+		if (hits.isEmpty()) {
+			return List.of();
+		}
+		Map<Integer, Note> notes = noteRepository
+				.findByIdInAndUserId(hits.stream().map(NoteSearchIndex.Hit::id).toList(), getUserId()).stream()
+				.collect(Collectors.toMap(Note::getId, Function.identity()));
+		return hits.stream().filter(hit -> notes.containsKey(hit.id()))
+				.<NoteResponseDto>map(hit -> NoteMapper.toSearchHitDto(notes.get(hit.id()), hit.snippet())).toList();
+	}
+
+	@Override
+	public SseEmitter streamEvents(String lastEventId) {
+		log.info("Opening note event stream for user: {}", getUserId());
+		Long resumeAfter = null;
+		if (lastEventId != null && !lastEventId.isBlank()) {
+			try {
+				resumeAfter = Long.valueOf(lastEventId.strip());
+			} catch (NumberFormatException e) {
+				// Unknown position: the stream starts with a resync
+				resumeAfter = -1L;
+			}
+		}
+		return noteEventBroker.subscribe(getUserId(), resumeAfter);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportNotes(OutputStream outputStream) throws IOException {
+		log.info("Exporting notes for user: {}", getUserId());
+		long exported = 0;
+		try (Stream<NoteResponseDto> notes = noteRepository.streamByUserId(getUserId())) {
+			for (NoteResponseDto note : (Iterable<NoteResponseDto>) notes::iterator) {
+				outputStream.write(objectMapper.writeValueAsBytes(note));
+				outputStream.write('\n');
+				if (++exported % EXPORT_FLUSH_INTERVAL == 0) {
+					outputStream.flush();
+				}
+			}
+		}
+		outputStream.flush();
+		log.info("Exported {} notes.", exported);
+	}
+
+	@Override
+	public ImportResultDto importNotes(InputStream inputStream, ImportFormat format) throws IOException {
+		String userId = getUserId();
+		log.info("Importing {} notes for user: {}", format, userId);
+		NoteImportReader rows = new NoteImportReader(
+				new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), format,
+				objectMapper.readerFor(NoteRequestDto.class)
+						.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+				MAX_REPORTED_IMPORT_ERRORS, maxImportRecordSize);
+		Timestamp importedAt = Timestamp.from(Instant.now());
+		long imported = noteCopyRepository.copyNotes(StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+				.map(row -> {
+					StoredContent content = noteContentCodec.encode(row.content());
+					return new Note(null, row.title(), content.text(), content.deflated(), importedAt, importedAt,
+							userId, null);
+				}).iterator());
+		if (imported > 0) {
+			touchNoteCollection(userId);
+			// Copied rows carry no generated IDs, so re-index the user's notes instead
+			noteSearchIndex.ifAvailable(index -> index.reindex(userId));
+			// One resync rather than an event per imported note
+			noteEventBroker.publish(userId, NoteEventType.RESYNC, null);
+		}
+		log.info("Imported {} notes, rejected {} rows.", imported, rows.getFailed());
+		return new ImportResultDto(imported, rows.getFailed(), rows.getErrors());
+	}
+
+	private String escapeLikePattern(String query) {
+		return query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
 	}
 }
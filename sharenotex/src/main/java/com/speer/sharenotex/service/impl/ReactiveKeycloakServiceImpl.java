@@ -0,0 +1,149 @@
+package com.speer.sharenotex.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.speer.sharenotex.cache.KeycloakUserCache;
+import com.speer.sharenotex.exception.NotFoundException;
+import com.speer.sharenotex.requesdto.LoginRequestDto;
+import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
+import com.speer.sharenotex.responsedto.LoginResponseDto;
+import com.speer.sharenotex.service.KeycloakService;
+import com.speer.sharenotex.service.ReactiveKeycloakService;
+import com.speer.sharenotex.util.Constants;
+
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Implementation of the {@link ReactiveKeycloakService} interface. Logins and
+ * user lookups call the Keycloak REST API through a non-blocking WebClient; the
+ * admin token used for the lookups is shared until shortly before it expires.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveKeycloakServiceImpl implements ReactiveKeycloakService {
+
+	private static final int LOOKUP_CONCURRENCY = 8;
+	private static final Duration TOKEN_EXPIRY_MARGIN = Duration.ofSeconds(30);
+
+	@Value("${com.keycloak.server.url}")
+	private String keycloakServerUrl;
+	@Value("${com.keycloak.master.realm}")
+	private String masterRealm;
+	@Value("${com.keycloak.master.clientId}")
+	private String masterClientId;
+	@Value("${com.keycloak.admin.username}")
+	private String adminUsername;
+	@Value("${com.keycloak.admin.password}")
+	private String adminPassword;
+	@Value("${com.keycloak.user.realm}")
+	private String userRealm;
+	@Value("${com.keycloak.config.clientId}")
+	private String clientId;
+	@Value("${com.keycloak.config.secret}")
+	private String clientSecret;
+
+	private final KeycloakService keycloakService;
+	private final KeycloakUserCache keycloakUserCache;
+	private final WebClient webClient;
+	private final Mono<String> adminToken;
+
+	public ReactiveKeycloakServiceImpl(KeycloakService keycloakService, KeycloakUserCache keycloakUserCache,
+			ReactorClientHttpConnector keycloakHttpConnector, ObservationRegistry observationRegistry) {
+		this.keycloakService = keycloakService;
+		this.keycloakUserCache = keycloakUserCache;
+		this.webClient = WebClient.builder().clientConnector(keycloakHttpConnector)
+				.observationRegistry(observationRegistry).build();
+		this.adminToken = Mono.defer(this::requestAdminToken)
+				.cache(token -> Duration.ofSeconds(token.getExpiresIn()).minus(TOKEN_EXPIRY_MARGIN),
+						error -> Duration.ZERO, () -> Duration.ZERO)
+				.map(LoginResponseDto::getAccessToken);
+	}
+
+	@Override
+	public Mono<Boolean> addKeycloakUser(UserRegistrationRequestDto userRegistrationRequestDto) {
+		// The admin client used for the several registration calls is blocking
+		return Mono.fromCallable(() -> keycloakService.addKeycloakUser(userRegistrationRequestDto))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@Override
+	public Mono<LoginResponseDto> getAccessToken(LoginRequestDto loginRequestDto) {
+		MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+		formData.add(Constants.KEY_CLIENT_ID, clientId);
+		formData.add(Constants.KEY_CLIENT_SECRET, clientSecret);
+		formData.add(Constants.KEY_GRANT_TYPE, "password");
+		formData.add(Constants.KEY_USER_NAME, loginRequestDto.userName());
+		formData.add(Constants.KEY_PASSWORD, loginRequestDto.password());
+		// Same error mapping as WebClientConfig#post
+		return requestToken(userRealm, formData).onErrorMap(WebClientResponseException.class,
+				e -> switch (e.getStatusCode().value()) {
+				case 401 -> new NotFoundException("resource", "Inavlid credentials");
+				case 404 -> new NotFoundException("resource", "Not Found");
+				case 500 -> new NotFoundException("id", "Id dont exist");
+				default -> e;
+				});
+	}
+
+	@Override
+	public Mono<Set<String>> findUnknownUserIds(Collection<String> userIds) {
+		return Mono.fromFuture(() -> keycloakUserCache.getAllAsync(userIds, this::fetchKeycloakUsers))
+				.map(users -> users.entrySet().stream().filter(entry -> entry.getValue().isEmpty())
+						.map(Map.Entry::getKey).collect(Collectors.toSet()));
+	}
+
+	private CompletableFuture<Map<String, Optional<UserRepresentation>>> fetchKeycloakUsers(
+			Set<? extends String> userIds) {
+		return Flux.fromIterable(userIds)
+				.flatMap(userId -> fetchKeycloakUser(userId).map(user -> Map.entry((String) userId, user)),
+						LOOKUP_CONCURRENCY)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue).toFuture();
+	}
+
+	private Mono<Optional<UserRepresentation>> fetchKeycloakUser(String userId) {
+		// Expanded by the client so that metrics are tagged with the template
+		return adminToken.flatMap(token -> webClient.get()
+				.uri(keycloakServerUrl + Constants.KEYCLOAK_ADMIN_USER_PATH, userRealm, userId)
+				.headers(headers -> headers.setBearerAuth(token)).retrieve().bodyToMono(UserRepresentation.class)
+				.map(Optional::of)
+				.onErrorResume(WebClientResponseException.NotFound.class, e -> {
+					log.info("User ID {} not found in Keycloak.", userId);
+					return Mono.just(Optional.empty());
+				}));
+	}
+
+	private Mono<LoginResponseDto> requestAdminToken() {
+		MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+		formData.add(Constants.KEY_CLIENT_ID, masterClientId);
+		formData.add(Constants.KEY_GRANT_TYPE, "password");
+		formData.add(Constants.KEY_USER_NAME, adminUsername);
+		formData.add(Constants.KEY_PASSWORD, adminPassword);
+		return requestToken(masterRealm, formData);
+	}
+
+	private Mono<LoginResponseDto> requestToken(String realm, MultiValueMap<String, String> formData) {
+		return webClient.post().uri(keycloakServerUrl + String.format(Constants.KEYCLOAK_ACCESS_TOKEN_PATH, realm))
+				.body(BodyInserters.fromFormData(formData)).retrieve().bodyToMono(LoginResponseDto.class);
+	}
+}
@@ -0,0 +1,406 @@
+package com.speer.sharenotex.service.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speer.sharenotex.exception.BadRequestException;
+import com.speer.sharenotex.exception.GoneException;
+import com.speer.sharenotex.exception.NotFoundException;
+import com.speer.sharenotex.exception.PreconditionFailedException;
+import com.speer.sharenotex.model.NoteChange;
+import com.speer.sharenotex.model.NoteCollectionVersion;
+import com.speer.sharenotex.model.NoteMetadata;
+import com.speer.sharenotex.repository.ReactiveNoteRepository;
+import com.speer.sharenotex.repository.ReactiveSharedNoteRepository;
+import com.speer.sharenotex.requesdto.BatchShareNoteRequestDto;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.requesdto.ShareNoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportResultDto;
+import com.speer.sharenotex.responsedto.NoteChangesResponseDto;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.OffsetPageResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+import com.speer.sharenotex.service.ReactiveKeycloakService;
+import com.speer.sharenotex.service.ReactiveNoteService;
+import com.speer.sharenotex.util.ChangeCursor;
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.ImportFormat;
+import com.speer.sharenotex.util.KeysetCursor;
+import com.speer.sharenotex.util.NoteImportReader;
+import com.speer.sharenotex.util.SearchMode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Implementation of the {@link ReactiveNoteService} interface. Applies the same
+ * rules as {@link NoteServiceImpl} on top of the R2DBC repositories.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveNoteServiceImpl implements ReactiveNoteService {
+
+	private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+	private static final int IMPORT_BATCH_SIZE = 500;
+	private static final int IMPORT_BUFFER_DEMAND = 16;
+	private static final int IMPORT_PIPE_SIZE = 64 * 1024;
+	// Shorter queries have too few trigrams for the indexes to narrow the scan
+	private static final int FUZZY_MIN_QUERY_LENGTH = 3;
+
+	private final ReactiveNoteRepository noteRepository;
+	private final ReactiveSharedNoteRepository sharedNoteRepository;
+	private final ReactiveKeycloakService keycloakService;
+	private final ObjectMapper objectMapper;
+
+	@Value("${com.sharenotex.search.default-mode:contains}")
+	private String defaultSearchMode;
+	@Value("${com.sharenotex.search.max-limit:100}")
+	private int maxSearchLimit;
+	@Value("${com.sharenotex.search.fuzzy.threshold:0.4}")
+	private double fuzzyThreshold;
+	@Value("${com.sharenotex.search.fuzzy.max-limit:50}")
+	private int maxFuzzyLimit;
+	@Value("${com.sharenotex.pagination.max-limit:100}")
+	private int maxPageLimit;
+	@Value("${com.sharenotex.share.max-batch-size:10000}")
+	private long maxBatchShares;
+	@Value("${com.sharenotex.import.max-record-size:1048576}")
+	private int maxImportRecordSize;
+	@Value("${com.sharenotex.sync.max-limit:500}")
+	private int maxSyncLimit;
+	@Value("${com.sharenotex.sync.tombstone-retention:2592000000}")
+	private long tombstoneRetentionMillis;
+
+	private Mono<String> getUserId() {
+		return ReactiveSecurityContextHolder.getContext().map(context -> context.getAuthentication().getName());
+	}
+
+	private Mono<Long> touchNoteCollection(String userId) {
+		return noteRepository.incrementCollectionVersion(userId, Timestamp.from(Instant.now()));
+	}
+
+	/**
+	 * Rejects a blank title or content, and a title too long for its column. R2DBC
+	 * does not apply the bean validation constraints of the {@code Note} entity.
+	 */
+	private static Mono<Void> validateNote(NoteRequestDto noteRequestDto) {
+		if (noteRequestDto.title() == null || noteRequestDto.title().isBlank()) {
+			return Mono.error(new BadRequestException("title", Constants.TITLE_EMPTY_MESSAGE));
+		}
+		if (noteRequestDto.title().codePointCount(0, noteRequestDto.title().length()) > Constants.MAX_TITLE_LENGTH) {
+			return Mono.error(new BadRequestException("title",
+					String.format(Constants.TITLE_TOO_LONG_MESSAGE, Constants.MAX_TITLE_LENGTH)));
+		}
+		if (noteRequestDto.content() == null || noteRequestDto.content().isBlank()) {
+			return Mono.error(new BadRequestException("content", Constants.CONTENT_EMPTY_MESSAGE));
+		}
+		return Mono.empty();
+	}
+
+	@Override
+	@Transactional
+	public Mono<Boolean> createNewNote(NoteRequestDto newNoteRequestDto) {
+		Timestamp createdAt = Timestamp.from(Instant.now());
+		return validateNote(newNoteRequestDto).then(getUserId()).flatMap(userId -> noteRepository
+				.insert(userId, newNoteRequestDto.title(), newNoteRequestDto.content(), createdAt)
+				.then(touchNoteCollection(userId))).doOnSuccess(ignored -> log.info("New note created successfully."))
+				.thenReturn(true);
+	}
+
+	@Override
+	public Mono<NoteResponseDto> findNote(Integer id) {
+		return getUserId().flatMap(userId -> noteRepository.findByIdAndUserId(id, userId))
+				.switchIfEmpty(Mono.error(() -> new NotFoundException(Constants.EXCEPTION_KEY_ID, "Not not found")));
+	}
+
+	@Override
+	public Mono<NoteMetadata> findNoteMetadata(Integer id) {
+		return getUserId().flatMap(userId -> noteRepository.findMetadataByIdAndUserId(id, userId)).switchIfEmpty(
+				Mono.error(() -> new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE)));
+	}
+
+	@Override
+	public Mono<NoteCollectionVersion> findNoteCollectionVersion() {
+		return getUserId().flatMap(userId -> noteRepository.findCollectionVersion(userId)
+				.defaultIfEmpty(new NoteCollectionVersion(userId, 0L, null)));
+	}
+
+	@Override
+	public Mono<PageResponseDto<NoteResponseDto>> findAll(String cursor, int limit) {
+		if (limit <= 0) {
+			return Mono.error(new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE));
+		}
+		int pageSize = Math.min(limit, maxPageLimit);
+		KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+		// Fetch one extra row to find out whether another page follows
+		return getUserId().flatMap(userId -> noteRepository.findPageByUserId(userId, after, pageSize + 1)
+				.collectList().map(notes -> toPage(notes, pageSize,
+						last -> new KeysetCursor(last.getUpdatedAt(), last.getId()))));
+	}
+
+	@Override
+	public Mono<NoteChangesResponseDto> findChanges(String since, int limit) {
+		if (limit <= 0) {
+			return Mono.error(new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE));
+		}
+		int pageSize = Math.min(limit, maxSyncLimit);
+		long now = System.currentTimeMillis();
+		// A full sync starts before every change and needs no tombstones
+		boolean fullSync = since == null || since.isBlank();
+		ChangeCursor after = fullSync ? new ChangeCursor(0, 0, now) : ChangeCursor.decode(since);
+		if (after.issuedAt() < now - tombstoneRetentionMillis) {
+			return Mono.error(new GoneException("since", Constants.SYNC_CURSOR_EXPIRED_MESSAGE));
+		}
+		// Fetch one extra row to find out whether more changes follow
+		return Mono.zip(getUserId(), noteRepository.currentChangeWatermark())
+				.flatMap(tuple -> noteRepository.findChanges(tuple.getT1(), after.changeSeq(), after.id(), !fullSync,
+						tuple.getT2(), pageSize + 1).collectList()
+						.map(changes -> toChanges(changes, pageSize, after, tuple.getT2(), now)));
+	}
+
+	private NoteChangesResponseDto toChanges(List<NoteChange> rows, int pageSize, ChangeCursor after, long watermark,
+			long now) {
+		boolean hasMore = rows.size() > pageSize;
+		List<NoteChange> changes = hasMore ? rows.subList(0, pageSize) : rows;
+		ChangeCursor next = hasMore
+				? new ChangeCursor(changes.get(pageSize - 1).changeSeq(), changes.get(pageSize - 1).id(),
+						after.issuedAt())
+				: new ChangeCursor(watermark, 0, now);
+		List<NoteResponseDto> updated = new ArrayList<>();
+		List<Integer> deleted = new ArrayList<>();
+		for (NoteChange change : changes) {
+			if (change.deleted()) {
+				deleted.add(change.id());
+			} else {
+				updated.add(change.toResponseDto());
+			}
+		}
+		return new NoteChangesResponseDto(updated, deleted, next.encode(), hasMore);
+	}
+
+	/**
+	 * Purges the tombstones older than the retention period. Cursors issued
+	 * before then are rejected, as they could miss these deletions.
+	 */
+	@Scheduled(fixedDelayString = "${com.sharenotex.sync.tombstone-purge-interval:3600000}")
+	public void purgeTombstones() {
+		noteRepository.deleteTombstonesDeletedBefore(new Timestamp(System.currentTimeMillis() - tombstoneRetentionMillis))
+				.filter(purged -> purged > 0).subscribe(purged -> log.info("Purged {} note tombstones.", purged),
+						e -> log.warn("Purging note tombstones failed", e));
+	}
+
+	@Override
+	@Transactional
+	public Mono<String> updateNote(Integer id, NoteRequestDto noteRequestDto, Long expectedVersion) {
+		Timestamp updatedAt = Timestamp.from(Instant.now());
+		return validateNote(noteRequestDto).then(getUserId()).flatMap(userId -> noteRepository
+				.update(id, userId, expectedVersion, noteRequestDto.title(), noteRequestDto.content(), updatedAt)
+				.flatMap(updated -> updated == 0 ? noteNotModified(id, userId, expectedVersion)
+						: touchNoteCollection(userId)))
+				.doOnSuccess(ignored -> log.info("Note updated successfully.")).thenReturn(Constants.UPDATE_SUCCESS);
+	}
+
+	@Override
+	@Transactional
+	public Mono<String> deleteNoteById(Integer id, Long expectedVersion) {
+		return getUserId().flatMap(userId -> noteRepository.delete(id, userId, expectedVersion)
+				.flatMap(deleted -> deleted == 0 ? noteNotModified(id, userId, expectedVersion)
+						: touchNoteCollection(userId)))
+				.doOnSuccess(ignored -> log.info("Note deleted successfully.")).thenReturn(Constants.DELETE_SUCCESS);
+	}
+
+	/**
+	 * Explains why a conditional write touched no row: the note is missing (or
+	 * not owned by the user), or it exists with a different version.
+	 */
+	private <T> Mono<T> noteNotModified(Integer id, String userId, Long expectedVersion) {
+		Mono<Boolean> exists = expectedVersion != null ? noteRepository.existsByIdAndUserId(id, userId)
+				: Mono.just(false);
+		return exists.flatMap(found -> Mono.error(found
+				? new PreconditionFailedException("If-Match", Constants.VERSION_MISMATCH_MESSAGE)
+				: new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE)));
+	}
+
+	@Override
+	public Mono<String> shareNoteWithUser(ShareNoteRequestDto shareNoteRequestDto) {
+		Integer noteId = shareNoteRequestDto.noteId();
+		String recipient = shareNoteRequestDto.sharedTo();
+		if (noteId == null || recipient == null) {
+			return Mono.error(new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE));
+		}
+		return getUserId().flatMap(userId -> noteRepository.existsByIdAndUserId(noteId, userId)
+				.filter(Boolean::booleanValue)
+				.flatMap(found -> keycloakService.findUnknownUserIds(Set.of(recipient)))
+				.filter(Set::isEmpty)
+				.switchIfEmpty(Mono.error(
+						() -> new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE)))
+				.flatMap(known -> sharedNoteRepository.insertAll(List.of(noteId), userId, List.of(recipient),
+						Timestamp.from(Instant.now()))))
+				.doOnSuccess(ignored -> log.info("Note shared successfully.")).thenReturn(Constants.SHARED_SUCCESS);
+	}
+
+	@Override
+	public Mono<String> shareNotesWithUsers(BatchShareNoteRequestDto batchShareNoteRequestDto) {
+		Set<Integer> noteIds = distinct(batchShareNoteRequestDto.noteIds());
+		Set<String> recipients = distinct(batchShareNoteRequestDto.sharedTo());
+		if (noteIds.isEmpty() || recipients.isEmpty()) {
+			return Mono.error(new BadRequestException("noteIds", Constants.EMPTY_BATCH_SHARE_MESSAGE));
+		}
+		if ((long) noteIds.size() * recipients.size() > maxBatchShares) {
+			return Mono.error(new BadRequestException("sharedTo",
+					String.format(Constants.BATCH_SHARE_TOO_LARGE_MESSAGE, maxBatchShares)));
+		}
+		return getUserId().flatMap(userId -> noteRepository.findIdsByIdInAndUserId(noteIds, userId).count()
+				.flatMap(found -> found != noteIds.size()
+						? Mono.error(new NotFoundException(Constants.EXCEPTION_KEY_ID, Constants.NOT_FOUND_MESSAGE))
+						: keycloakService.findUnknownUserIds(recipients))
+				.flatMap(unknownRecipients -> unknownRecipients.isEmpty()
+						? sharedNoteRepository.insertAll(noteIds, userId, recipients, Timestamp.from(Instant.now()))
+						: Mono.error(new NotFoundException("sharedTo", String.format(Constants.UNKNOWN_USERS_MESSAGE,
+								String.join(", ", unknownRecipients))))))
+				.doOnSuccess(shared -> log.info("Shared {} notes with {} users.", noteIds.size(), recipients.size()))
+				.thenReturn(String.format(Constants.BATCH_SHARED_SUCCESS, noteIds.size(), recipients.size()));
+	}
+
+	@Override
+	public Mono<PageResponseDto<SharedNoteResponseDto>> findSharedWithMe(String cursor, int limit) {
+		if (limit <= 0) {
+			return Mono.error(new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE));
+		}
+		int pageSize = Math.min(limit, maxPageLimit);
+		KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+		// Fetch one extra row to find out whether another page follows
+		return getUserId().flatMap(userId -> sharedNoteRepository.findSharedWith(userId, after, pageSize + 1)
+				.collectList().map(sharedNotes -> toPage(sharedNotes, pageSize,
+						last -> new KeysetCursor(last.getSharedAt(), last.getId()))));
+	}
+
+	private <T> PageResponseDto<T> toPage(List<T> rows, int pageSize,
+			Function<T, KeysetCursor> cursorOf) {
+		if (rows.size() <= pageSize) {
+			return new PageResponseDto<>(rows, null);
+		}
+		List<T> page = rows.subList(0, pageSize);
+		return new PageResponseDto<>(page, cursorOf.apply(page.get(pageSize - 1)).encode());
+	}
+
+	private <T> Set<T> distinct(List<T> values) {
+		Set<T> distinctValues = new LinkedHashSet<>();
+		if (values != null) {
+			values.stream().filter(Objects::nonNull).forEach(distinctValues::add);
+		}
+		return distinctValues;
+	}
+
+	@Override
+	public Mono<OffsetPageResponseDto<NoteResponseDto>> searchNotes(String query, SearchMode mode, int limit, int offset) {
+		SearchMode searchMode = mode != null ? mode : SearchMode.from(defaultSearchMode);
+		if (limit <= 0) {
+			return Mono.error(new BadRequestException("limit", Constants.INVALID_LIMIT_MESSAGE));
+		}
+		if (offset < 0) {
+			return Mono.error(new BadRequestException("offset", Constants.INVALID_OFFSET_MESSAGE));
+		}
+		if (searchMode == SearchMode.FUZZY && query.strip().length() < FUZZY_MIN_QUERY_LENGTH) {
+			return Mono.error(new BadRequestException("query",
+					String.format(Constants.FUZZY_QUERY_TOO_SHORT_MESSAGE, FUZZY_MIN_QUERY_LENGTH)));
+		}
+		int pageSize = Math.min(limit, searchMode == SearchMode.FUZZY ? maxFuzzyLimit : maxSearchLimit);
+		// The offset of the extra note fetched below must not overflow
+		if (offset > Integer.MAX_VALUE - (pageSize + 1)) {
+			return Mono.error(new BadRequestException("offset", Constants.OFFSET_TOO_LARGE_MESSAGE));
+		}
+		// Fetch one extra note to find out whether another page follows
+		return getUserId().flatMapMany(userId -> switch (searchMode) {
+		case FULLTEXT -> noteRepository.searchByFullText(userId, query, pageSize + 1, offset);
+		case CONTAINS -> noteRepository.searchByContent(userId, escapeLikePattern(query), pageSize + 1, offset);
+		case FUZZY -> noteRepository.searchByTrigram(userId, query.strip(), fuzzyThreshold, pageSize + 1, offset);
+		// The search index is only maintained by the servlet stack
+		case INDEX -> Flux.<NoteResponseDto>error(
+				new BadRequestException("mode", Constants.SEARCH_INDEX_DISABLED_MESSAGE));
+		}).collectList().map(notes -> notes.size() > pageSize
+				? new OffsetPageResponseDto<>(notes.subList(0, pageSize), true, offset + pageSize)
+				: new OffsetPageResponseDto<>(notes, false, null));
+	}
+
+	@Override
+	public Flux<NoteResponseDto> exportNotes() {
+		return getUserId().flatMapMany(noteRepository::streamByUserId);
+	}
+
+	@Override
+	@Transactional
+	public Mono<ImportResultDto> importNotes(Flux<DataBuffer> body, ImportFormat format) {
+		Timestamp importedAt = Timestamp.from(Instant.now());
+		return getUserId().flatMap(userId -> {
+			PipedInputStream in = new PipedInputStream(IMPORT_PIPE_SIZE);
+			PipedOutputStream out;
+			try {
+				out = new PipedOutputStream(in);
+			} catch (IOException e) {
+				return Mono.error(new UncheckedIOException(e));
+			}
+			// The body is copied into a pipe and parsed through a blocking stream on
+			// separate workers, so neither blocks the event loop; the parsed rows are
+			// inserted in batches
+			Mono<Void> copy = DataBufferUtils
+					.write(body.publishOn(Schedulers.boundedElastic(), IMPORT_BUFFER_DEMAND), out)
+					.map(DataBufferUtils::release).doFinally(signal -> closeQuietly(out)).then();
+			NoteImportReader rows = new NoteImportReader(
+					new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), format,
+					objectMapper.readerFor(NoteRequestDto.class)
+							.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+					MAX_REPORTED_IMPORT_ERRORS, maxImportRecordSize);
+			Mono<Long> insert = Flux.fromIterable(() -> rows).subscribeOn(Schedulers.boundedElastic())
+					.buffer(IMPORT_BATCH_SIZE).concatMap(batch -> noteRepository.insertAll(userId, batch, importedAt))
+					.reduce(0L, Long::sum).doFinally(signal -> closeQuietly(in));
+			return Mono.zip(insert, copy.thenReturn(true), (imported, copied) -> imported)
+					.flatMap(imported -> (imported > 0 ? touchNoteCollection(userId) : Mono.just(0L))
+							.thenReturn(new ImportResultDto(imported, rows.getFailed(), rows.getErrors())));
+		}).doOnSuccess(result -> log.info("Imported {} notes, rejected {} rows.", result.getImported(),
+				result.getFailed()));
+	}
+
+	private void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			log.debug("Failed to close import stream.", e);
+		}
+	}
+
+	private String escapeLikePattern(String query) {
+		return query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
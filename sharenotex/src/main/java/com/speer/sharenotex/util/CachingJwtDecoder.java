@@ -0,0 +1,71 @@
+package com.speer.sharenotex.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.speer.sharenotex.cache.VerifiedJwtCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * JwtDecoder that verifies each distinct token only once while it is valid.
+ * Tokens found in the {@link VerifiedJwtCache} are returned without checking
+ * their signature again; all others are verified by the delegate, which is
+ * timed per outcome.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+	private final JwtDecoder delegate;
+	private final VerifiedJwtCache verifiedJwtCache;
+	private final Timer successTimer;
+	private final Timer failureTimer;
+
+	/**
+	 * Creates a decoder caching the tokens verified by a delegate.
+	 *
+	 * @param delegate         Decoder verifying uncached tokens.
+	 * @param verifiedJwtCache Cache of verified tokens.
+	 * @param meterRegistry    Registry of the verification timers.
+	 */
+	public CachingJwtDecoder(JwtDecoder delegate, VerifiedJwtCache verifiedJwtCache, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.verifiedJwtCache = verifiedJwtCache;
+		this.successTimer = verificationTimer(meterRegistry, "success");
+		this.failureTimer = verificationTimer(meterRegistry, "failure");
+	}
+
+	@Override
+	public Jwt decode(String token) throws JwtException {
+		Jwt cached = verifiedJwtCache.get(token);
+		if (cached != null) {
+			return cached;
+		}
+		long start = System.nanoTime();
+		try {
+			Jwt jwt = delegate.decode(token);
+			successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			verifiedJwtCache.put(token, jwt);
+			return jwt;
+		} catch (RuntimeException e) {
+			failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates the timer of token verifications with the given outcome.
+	 *
+	 * @param meterRegistry Registry of the timer.
+	 * @param outcome       Outcome of the verification.
+	 * @return The registered timer.
+	 */
+	static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+		return Timer.builder(Constants.METRIC_JWT_VERIFICATION)
+				.description("Verifications of access tokens not found in the verified-token cache")
+				.tag("outcome", outcome).register(meterRegistry);
+	}
+}
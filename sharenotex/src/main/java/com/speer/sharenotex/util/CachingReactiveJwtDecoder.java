@@ -0,0 +1,56 @@
+package com.speer.sharenotex.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.speer.sharenotex.cache.VerifiedJwtCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link CachingJwtDecoder}: tokens found in the
+ * {@link VerifiedJwtCache} are returned without checking their signature again,
+ * all others are verified by the delegate.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+	private final ReactiveJwtDecoder delegate;
+	private final VerifiedJwtCache verifiedJwtCache;
+	private final Timer successTimer;
+	private final Timer failureTimer;
+
+	/**
+	 * Creates a decoder caching the tokens verified by a delegate.
+	 *
+	 * @param delegate         Decoder verifying uncached tokens.
+	 * @param verifiedJwtCache Cache of verified tokens.
+	 * @param meterRegistry    Registry of the verification timers.
+	 */
+	public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, VerifiedJwtCache verifiedJwtCache,
+			MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.verifiedJwtCache = verifiedJwtCache;
+		this.successTimer = CachingJwtDecoder.verificationTimer(meterRegistry, "success");
+		this.failureTimer = CachingJwtDecoder.verificationTimer(meterRegistry, "failure");
+	}
+
+	@Override
+	public Mono<Jwt> decode(String token) throws JwtException {
+		return Mono.defer(() -> {
+			Jwt cached = verifiedJwtCache.get(token);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			long start = System.nanoTime();
+			return delegate.decode(token).doOnNext(jwt -> {
+				successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				verifiedJwtCache.put(token, jwt);
+			}).doOnError(e -> failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+		});
+	}
+}
@@ -0,0 +1,48 @@
+package com.speer.sharenotex.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.speer.sharenotex.exception.BadRequestException;
+
+/**
+ * Position in the change feed of a user's notes, ordered by
+ * {@code (changeSeq, id)} ascending. Cursors are handed to clients as opaque
+ * URL-safe tokens.
+ *
+ * @param changeSeq Change sequence number of the last change read.
+ * @param id        Identifier of the note of the last change read.
+ * @param issuedAt  Time (epoch milliseconds) the sync this cursor continues
+ *                  started; tombstones older than that may have been purged.
+ */
+public record ChangeCursor(long changeSeq, int id, long issuedAt) {
+
+	/**
+	 * Encodes this cursor into an opaque token.
+	 *
+	 * @return URL-safe token representing this cursor.
+	 */
+	public String encode() {
+		String raw = changeSeq + ":" + id + ":" + issuedAt;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token previously produced by {@link #encode()}.
+	 *
+	 * @param token Opaque cursor token.
+	 * @return The decoded cursor.
+	 * @throws BadRequestException if the token is malformed.
+	 */
+	public static ChangeCursor decode(String token) {
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Unexpected cursor format");
+			}
+			return new ChangeCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("since", Constants.INVALID_CURSOR_MESSAGE);
+		}
+	}
+}
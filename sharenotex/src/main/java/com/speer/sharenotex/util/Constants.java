@@ -15,15 +15,55 @@ public class Constants {
 	public static final String REFRESH_TOKEN = "refresh_token";
 	public static final String USER_REGISTER_SUCCESS = "User registered successfully!";
 	public static final String USER_REGISTER_FAIL = "User registeration failed!";
+	public static final String REGISTRATION_QUEUE_FULL_MESSAGE = "Too many pending registrations, try again later";
+	public static final String EXCEPTION_KEY_REGISTRATION = "registration";
 	public static final String NOTE_ADDED_SUCCESS = "Note added successfully";
 	public static final String ROLE_USER = "USER";
 	public static final String REALM_NOT_FOUND_MESSAGE = "Realm not found";
 	public static final String EMAIL_ALREADY_EXIST_MESSAGE = "User already exists with this email";
 	public static final String NOT_FOUND_MESSAGE = "Not found";
-	public static final String KEYCLOAK_ACCESS_TOKEN_URL = "http://localhost:8080/realms/Security/protocol/openid-connect/token";
+	public static final String KEYCLOAK_ACCESS_TOKEN_PATH = "/realms/%s/protocol/openid-connect/token";
+	public static final String KEYCLOAK_JWK_SET_PATH = "/realms/%s/protocol/openid-connect/certs";
+	public static final String KEYCLOAK_ADMIN_USER_PATH = "/admin/realms/{realm}/users/{id}";
 	public static final String UPDATE_SUCCESS = "Note updated successfully";
 	public static final String DELETE_SUCCESS = "Note deleted successfully";
 	public static final String SHARED_SUCCESS = "Note shared successfully";
+	public static final String BATCH_SHARED_SUCCESS = "Shared %d note(s) with %d user(s) successfully";
+	public static final String EMPTY_BATCH_SHARE_MESSAGE = "At least one note and one user are required";
+	public static final String BATCH_SHARE_TOO_LARGE_MESSAGE = "A batch can create at most %d shares";
+	public static final String UNKNOWN_USERS_MESSAGE = "Users not found: %s";
 	public static final String EXCEPTION_KEY_ID = "id";
+	public static final String INVALID_SEARCH_MODE_MESSAGE = "Unsupported search mode '%s'";
+	public static final String SEARCH_INDEX_DISABLED_MESSAGE = "Search mode 'index' is not enabled";
+	public static final String FUZZY_QUERY_TOO_SHORT_MESSAGE = "Fuzzy search needs a query of at least %d characters";
+	public static final String INVALID_OFFSET_MESSAGE = "Offset cannot be negative";
+	public static final String OFFSET_TOO_LARGE_MESSAGE = "Offset is too large";
+	public static final String INVALID_LIMIT_MESSAGE = "Limit must be greater than zero";
+	public static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
+	public static final String SYNC_CURSOR_EXPIRED_MESSAGE = "Cursor has expired, sync again without one";
+	public static final String VERSION_MISMATCH_MESSAGE = "Note has been modified since it was read";
+	public static final String TITLE_EMPTY_MESSAGE = "Title cannot be empty";
+	public static final String TITLE_TOO_LONG_MESSAGE = "Title cannot be longer than %d characters";
+	// Length of the note.title column, varchar(255)
+	public static final int MAX_TITLE_LENGTH = 255;
+	public static final String CONTENT_EMPTY_MESSAGE = "Content cannot be empty";
+	public static final String HEADER_RATE_LIMIT_LIMIT = "X-RateLimit-Limit";
+	public static final String HEADER_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+	public static final String METRIC_NOTE_SERVICE = "sharenotex.note.service";
+	public static final String METRIC_KEYCLOAK_SERVICE = "sharenotex.keycloak.service";
+	public static final String METRIC_KEYCLOAK_ADMIN_REQUESTS = "sharenotex.keycloak.admin.requests";
+	public static final String METRIC_RATE_LIMIT_REJECTIONS = "sharenotex.rate.limit.rejections";
+	public static final String METRIC_KEYCLOAK_USER_CACHE = "keycloakUsers";
+	public static final String METRIC_JWT_VERIFICATION = "sharenotex.jwt.verification";
+	public static final String METRIC_VERIFIED_JWT_CACHE = "verifiedTokens";
+	public static final String KEYCLOAK_HTTP_POOL = "keycloak";
+	public static final String KEYCLOAK_ADMIN_HTTP_POOL = "keycloak-admin";
+	public static final String REGISTRATION_EXECUTOR = "registration";
+	public static final String METRIC_NOTE_CONTENT_BYTES = "sharenotex.note.content";
+	public static final String METRIC_SEARCH_RESULT_CACHE = "searchResults";
+	public static final String METRIC_SEARCH_RESULT_CACHE_HIT_RATIO = "sharenotex.search.cache.hit.ratio";
+	public static final String METRIC_SEARCH_RESULT_CACHE_MEMORY = "sharenotex.search.cache.memory";
+	public static final String METRIC_STREAM_CONNECTIONS = "sharenotex.stream.connections";
+	public static final String METRIC_STREAM_OVERFLOWS = "sharenotex.stream.overflows";
 
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.speer.sharenotex.util;
+
+import com.speer.sharenotex.exception.PreconditionFailedException;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Helpers for the strong entity tags of notes. A note's tag is built from its
+ * ID and version, e.g. {@code "42-3"}, and changes with every update. The tag
+ * of a user's note list is built from the version of the user's note
+ * collection.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ETags {
+
+	private static final String ANY = "*";
+
+	/**
+	 * Builds the entity tag of a note.
+	 *
+	 * @param id      Unique identifier of the note.
+	 * @param version Version of the note.
+	 * @return Quoted strong entity tag.
+	 */
+	public static String forNote(Integer id, Long version) {
+		return "\"" + id + "-" + version + "\"";
+	}
+
+	/**
+	 * Builds the entity tag of a user's note collection.
+	 *
+	 * @param userId  User identifier owning the notes.
+	 * @param version Version of the note collection.
+	 * @return Quoted strong entity tag.
+	 */
+	public static String forNoteCollection(String userId, Long version) {
+		return "\"c" + version + "-" + Integer.toHexString(userId.hashCode()) + "\"";
+	}
+
+	/**
+	 * Extracts the expected note version from an {@code If-Match} header.
+	 *
+	 * @param ifMatch Value of the If-Match header, may be null.
+	 * @param id      Unique identifier of the note being modified.
+	 * @return The expected version, or null if any version is acceptable.
+	 * @throws PreconditionFailedException if the header cannot match the note.
+	 */
+	public static Long expectedVersion(String ifMatch, Integer id) {
+		if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		String prefix = "\"" + id + "-";
+		if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+			try {
+				return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// Fall through: not a tag this server produced
+			}
+		}
+		throw new PreconditionFailedException("If-Match", Constants.VERSION_MISMATCH_MESSAGE);
+	}
+}
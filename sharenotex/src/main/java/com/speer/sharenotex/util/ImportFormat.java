@@ -0,0 +1,19 @@
+package com.speer.sharenotex.util;
+
+/**
+ * Formats accepted by the bulk note import.
+ */
+public enum ImportFormat {
+
+	/**
+	 * Newline-delimited JSON, one {@code {"title": ..., "content": ...}} object
+	 * per line.
+	 */
+	NDJSON,
+
+	/**
+	 * RFC 4180 CSV with a {@code title,content} record per note and an optional
+	 * header record.
+	 */
+	CSV
+}
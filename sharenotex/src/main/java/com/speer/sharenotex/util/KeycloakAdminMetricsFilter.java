@@ -0,0 +1,50 @@
+package com.speer.sharenotex.util;
+
+import java.util.regex.Pattern;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.core.Response;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Client filter timing the requests of the Keycloak admin client. Timers are
+ * tagged with the method, the request path with user IDs and role names
+ * replaced by placeholders, the status and the outcome, so that error rates can
+ * be derived per call.
+ */
+@RequiredArgsConstructor
+public class KeycloakAdminMetricsFilter implements ClientRequestFilter, ClientResponseFilter {
+
+	private static final String SAMPLE_PROPERTY = KeycloakAdminMetricsFilter.class.getName() + ".sample";
+	private static final Pattern USER_ID_SEGMENT = Pattern.compile("/users/[^/]+");
+	private static final Pattern ROLE_NAME_SEGMENT = Pattern.compile("/roles/[^/]+");
+
+	private final MeterRegistry meterRegistry;
+
+	@Override
+	public void filter(ClientRequestContext requestContext) {
+		requestContext.setProperty(SAMPLE_PROPERTY, Timer.start(meterRegistry));
+	}
+
+	@Override
+	public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+		if (requestContext.getProperty(SAMPLE_PROPERTY) instanceof Timer.Sample sample) {
+			sample.stop(Timer.builder(Constants.METRIC_KEYCLOAK_ADMIN_REQUESTS)
+					.description("Requests of the Keycloak admin client")
+					.tag("method", requestContext.getMethod()).tag("uri", uriTemplate(requestContext.getUri().getPath()))
+					.tag("status", String.valueOf(responseContext.getStatus()))
+					.tag("outcome", Response.Status.Family.familyOf(responseContext.getStatus()).name())
+					.register(meterRegistry));
+		}
+	}
+
+	private static String uriTemplate(String path) {
+		String template = USER_ID_SEGMENT.matcher(path).replaceFirst("/users/{id}");
+		return ROLE_NAME_SEGMENT.matcher(template).replaceFirst("/roles/{name}");
+	}
+}
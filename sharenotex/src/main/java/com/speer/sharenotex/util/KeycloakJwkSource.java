@@ -0,0 +1,128 @@
+package com.speer.sharenotex.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Source of the keys that sign Keycloak access tokens. The JWK set of the user
+ * realm is fetched at startup and refreshed in the background, so requests
+ * never wait for it unless the key set is rotated: when a token names a key
+ * that is not in the cached set, the set is fetched again, at most once per
+ * minimum refresh interval.
+ */
+@Component
+@Slf4j
+public class KeycloakJwkSource implements JWKSource<SecurityContext> {
+
+	private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+	private static final int READ_TIMEOUT_MILLIS = 2000;
+	private static final int SIZE_LIMIT_BYTES = 64 * 1024;
+
+	private final URL jwkSetUrl;
+	private final long minRefreshIntervalMillis;
+	// Not synchronized, so that virtual threads waiting for a fetch do not pin
+	// their carrier
+	private final ReentrantLock fetchLock = new ReentrantLock();
+	private volatile JWKSet jwkSet;
+	private volatile long lastFetchMillis;
+
+	/**
+	 * Creates the source for the JWK set of the configured user realm.
+	 *
+	 * @param keycloakServerUrl        Base URL of the Keycloak server.
+	 * @param userRealm                Realm issuing the access tokens.
+	 * @param minRefreshIntervalMillis Minimum time (in milliseconds) between two
+	 *                                 fetches triggered by unknown keys.
+	 */
+	public KeycloakJwkSource(@Value("${com.keycloak.server.url}") String keycloakServerUrl,
+			@Value("${com.keycloak.user.realm}") String userRealm,
+			@Value("${com.sharenotex.jwt.jwks.min-refresh-interval:30000}") long minRefreshIntervalMillis) {
+		this.jwkSetUrl = toUrl(keycloakServerUrl + String.format(Constants.KEYCLOAK_JWK_SET_PATH, userRealm));
+		this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+	}
+
+	/**
+	 * Fetches the JWK set at startup and then periodically. A failed fetch is
+	 * logged and the previously fetched keys stay in use.
+	 */
+	@Scheduled(initialDelay = 0, fixedDelayString = "${com.sharenotex.jwt.jwks.refresh-interval:300000}")
+	public void refresh() {
+		try {
+			fetch();
+		} catch (KeySourceException e) {
+			log.warn("Failed to refresh the JWK set from {}: {}", jwkSetUrl, e.getMessage());
+		}
+	}
+
+	@Override
+	public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+		List<JWK> keys = getCached(jwkSelector);
+		if (!keys.isEmpty() || !isStale()) {
+			return keys;
+		}
+		// No keys yet, or the token was signed with a key that has been rotated in
+		fetchLock.lock();
+		try {
+			// Another thread may have fetched the set while this one was waiting
+			return isStale() ? jwkSelector.select(fetch()) : getCached(jwkSelector);
+		} finally {
+			fetchLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the keys matching a selector from the cached JWK set only.
+	 *
+	 * @param jwkSelector Selector of the keys.
+	 * @return The matching keys, empty if none are cached.
+	 */
+	public List<JWK> getCached(JWKSelector jwkSelector) {
+		JWKSet current = jwkSet;
+		return current != null ? jwkSelector.select(current) : List.of();
+	}
+
+	private boolean isStale() {
+		return System.currentTimeMillis() - lastFetchMillis >= minRefreshIntervalMillis;
+	}
+
+	private JWKSet fetch() throws KeySourceException {
+		fetchLock.lock();
+		try {
+			JWKSet fetched = JWKSet.load(jwkSetUrl, CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS, SIZE_LIMIT_BYTES);
+			lastFetchMillis = System.currentTimeMillis();
+			jwkSet = fetched;
+			log.debug("Fetched {} key(s) from {}", fetched.getKeys().size(), jwkSetUrl);
+			return fetched;
+		} catch (IOException | ParseException e) {
+			lastFetchMillis = System.currentTimeMillis();
+			throw new KeySourceException("Failed to fetch the JWK set from " + jwkSetUrl, e);
+		} finally {
+			fetchLock.unlock();
+		}
+	}
+
+	private static URL toUrl(String url) {
+		try {
+			return URI.create(url).toURL();
+		} catch (IOException | IllegalArgumentException e) {
+			throw new IllegalStateException("Invalid JWK set URL " + url, e);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.speer.sharenotex.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.speer.sharenotex.exception.BadRequestException;
+
+/**
+ * Position in a keyset-paginated result ordered by {@code (timestamp, id)}
+ * descending. Cursors are handed to clients as opaque URL-safe tokens.
+ *
+ * @param timestamp Timestamp of the last row of the previous page.
+ * @param id        Identifier of the last row of the previous page.
+ */
+public record KeysetCursor(Timestamp timestamp, Integer id) {
+
+	/**
+	 * Encodes this cursor into an opaque token.
+	 *
+	 * @return URL-safe token representing this cursor.
+	 */
+	public String encode() {
+		Instant instant = timestamp.toInstant();
+		String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token previously produced by {@link #encode()}.
+	 *
+	 * @param token Opaque cursor token.
+	 * @return The decoded cursor.
+	 * @throws BadRequestException if the token is malformed.
+	 */
+	public static KeysetCursor decode(String token) {
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Unexpected cursor format");
+			}
+			Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			return new KeysetCursor(Timestamp.from(instant), Integer.valueOf(parts[2]));
+		} catch (IllegalArgumentException | DateTimeException e) {
+			throw new BadRequestException("cursor", Constants.INVALID_CURSOR_MESSAGE);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.speer.sharenotex.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Encodes note content for storage. Content up to the compression threshold is
+ * stored as is. Longer content is stored Deflate-compressed in
+ * {@code content_deflated}, and only its first threshold characters stay in
+ * {@code content}, where full-text and substring search still find them.
+ * <p>
+ * The prefix is therefore stored twice: as text and inside the compressed
+ * content. This trades at most threshold characters per large note, which
+ * PostgreSQL compresses again when it moves them out of line, for search that
+ * keeps working on the columns the database indexes, and for a compressed
+ * value that decodes without the prefix. Compressing only the remainder would
+ * save the copy, but every reader would then have to join both columns.
+ * <p>
+ * The original and stored sizes (in bytes) of compressed content are counted
+ * in {@code sharenotex.note.content}, so the storage saved can be derived.
+ */
+@Component
+public class NoteContentCodec {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final int compressionThreshold;
+	private final Counter originalBytes;
+	private final Counter storedBytes;
+
+	/**
+	 * Creates the codec from the configured compression threshold.
+	 *
+	 * @param compressionThreshold Length (in characters) above which content is
+	 *                             compressed.
+	 * @param meterRegistry        Registry of the content size counters.
+	 */
+	public NoteContentCodec(@Value("${com.sharenotex.content.compression-threshold:262144}") int compressionThreshold,
+			MeterRegistry meterRegistry) {
+		this.compressionThreshold = compressionThreshold;
+		this.originalBytes = sizeCounter(meterRegistry, "original");
+		this.storedBytes = sizeCounter(meterRegistry, "stored");
+	}
+
+	/**
+	 * Encodes content for storage. Content above the threshold is compressed as a
+	 * whole and its searchable prefix kept as text.
+	 *
+	 * @param content Content of a note.
+	 * @return The searchable text and, for content above the threshold, the
+	 *         compressed content.
+	 */
+	public StoredContent encode(String content) {
+		if (content == null || content.length() <= compressionThreshold) {
+			return new StoredContent(content, null);
+		}
+		byte[] original = content.getBytes(StandardCharsets.UTF_8);
+		byte[] deflated = deflate(original);
+		// Do not split a surrogate pair at the end of the searchable prefix
+		int prefixLength = Character.isHighSurrogate(content.charAt(compressionThreshold - 1))
+				? compressionThreshold - 1
+				: compressionThreshold;
+		String text = content.substring(0, prefixLength);
+		originalBytes.increment(original.length);
+		storedBytes.increment(deflated.length + text.getBytes(StandardCharsets.UTF_8).length);
+		return new StoredContent(text, deflated);
+	}
+
+	/**
+	 * Decodes stored content.
+	 *
+	 * @param text     Stored text of the note.
+	 * @param deflated Compressed content, or null if the content is not
+	 *                 compressed.
+	 * @return The full content of the note.
+	 */
+	public static String decode(String text, byte[] deflated) {
+		return deflated != null ? inflate(deflated) : text;
+	}
+
+	private static byte[] deflate(byte[] original) {
+		ByteArrayOutputStream deflated = new ByteArrayOutputStream(original.length / 4);
+		// Fastest level: large notes are mostly logs, which compress well anyway
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DeflaterOutputStream out = new DeflaterOutputStream(deflated, deflater, BUFFER_SIZE)) {
+			out.write(original);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			deflater.end();
+		}
+		return deflated.toByteArray();
+	}
+
+	private static String inflate(byte[] deflated) {
+		try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(deflated))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Corrupt compressed note content", e);
+		}
+	}
+
+	private static Counter sizeCounter(MeterRegistry meterRegistry, String form) {
+		return Counter.builder(Constants.METRIC_NOTE_CONTENT_BYTES)
+				.description("Sizes of compressed note content before and after compression").baseUnit("bytes")
+				.tag("form", form).register(meterRegistry);
+	}
+
+	/**
+	 * Note content in its stored form.
+	 *
+	 * @param text     Content, or its searchable prefix if it is compressed.
+	 * @param deflated Compressed content, or null if the content is stored as is.
+	 */
+	public record StoredContent(String text, byte[] deflated) {
+	}
+}
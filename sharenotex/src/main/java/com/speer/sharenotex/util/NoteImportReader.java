@@ -0,0 +1,270 @@
+package com.speer.sharenotex.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportErrorDto;
+
+/**
+ * Iterator over the notes of a bulk import body. Rows are parsed one at a time
+ * from the underlying reader, so the body is never held in memory as a whole.
+ * Invalid rows are skipped and recorded; only the first {@code maxErrors}
+ * rejections are kept in detail. Rows longer than {@code maxRecordSize}
+ * characters are read past without being buffered and rejected, as are titles
+ * longer than the title column.
+ */
+public class NoteImportReader implements Iterator<NoteRequestDto> {
+
+	private static final List<String> CSV_HEADER = List.of("title", "content");
+
+	private final BufferedReader reader;
+	private final ImportFormat format;
+	private final ObjectReader jsonReader;
+	private final int maxErrors;
+	private final int maxRecordSize;
+	private final List<ImportErrorDto> errors = new ArrayList<>();
+	private long row;
+	private long failed;
+	private boolean unterminatedQuote;
+	private int recordSize;
+	private NoteRequestDto next;
+
+	/**
+	 * Creates a reader for the given import body.
+	 *
+	 * @param reader     Reader over the import body.
+	 * @param format     Format of the import body.
+	 * @param jsonReader Jackson reader bound to {@link NoteRequestDto}, used for
+	 *                   NDJSON bodies.
+	 * @param maxErrors     Maximum number of rejected rows reported in detail.
+	 * @param maxRecordSize Maximum number of characters of a row.
+	 */
+	public NoteImportReader(BufferedReader reader, ImportFormat format, ObjectReader jsonReader, int maxErrors,
+			int maxRecordSize) {
+		this.reader = reader;
+		this.format = format;
+		this.jsonReader = jsonReader;
+		this.maxErrors = maxErrors;
+		this.maxRecordSize = maxRecordSize;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			try {
+				next = readNext();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public NoteRequestDto next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		NoteRequestDto current = next;
+		next = null;
+		return current;
+	}
+
+	/**
+	 * Returns the number of rejected rows.
+	 *
+	 * @return Number of rows skipped because they were invalid.
+	 */
+	public long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Returns the details of the first rejected rows.
+	 *
+	 * @return Rejected rows, at most {@code maxErrors} of them.
+	 */
+	public List<ImportErrorDto> getErrors() {
+		return errors;
+	}
+
+	private NoteRequestDto readNext() throws IOException {
+		while (true) {
+			NoteRequestDto candidate;
+			if (format == ImportFormat.NDJSON) {
+				String line = readLine();
+				if (line == null) {
+					return null;
+				}
+				row++;
+				if (recordSize > maxRecordSize) {
+					reject(tooLarge());
+					continue;
+				}
+				if (line.isBlank()) {
+					continue;
+				}
+				try {
+					candidate = jsonReader.readValue(line);
+				} catch (JsonProcessingException e) {
+					reject("Malformed JSON: " + e.getOriginalMessage());
+					continue;
+				}
+			} else {
+				List<String> fields = readCsvRecord();
+				if (fields == null) {
+					return null;
+				}
+				row++;
+				if (fields.size() == 1 && fields.get(0).isEmpty()
+						|| row == 1 && CSV_HEADER.equals(fields.stream().map(String::trim).toList())) {
+					continue;
+				}
+				if (unterminatedQuote) {
+					reject("Unterminated quoted field");
+					continue;
+				}
+				if (recordSize > maxRecordSize) {
+					reject(tooLarge());
+					continue;
+				}
+				if (fields.size() != 2) {
+					reject("Expected 2 fields (title, content) but found " + fields.size());
+					continue;
+				}
+				candidate = new NoteRequestDto(fields.get(0), fields.get(1));
+			}
+
+			String violation = validate(candidate);
+			if (violation == null) {
+				return candidate;
+			}
+			reject(violation);
+		}
+	}
+
+	private String validate(NoteRequestDto note) {
+		if (note == null || note.title() == null || note.title().isBlank()) {
+			return "Title cannot be empty";
+		}
+		if (note.content() == null || note.content().isBlank()) {
+			return "Content cannot be empty";
+		}
+		// A title too long for its column would fail the whole COPY of the import
+		if (note.title().codePointCount(0, note.title().length()) > Constants.MAX_TITLE_LENGTH) {
+			return String.format(Constants.TITLE_TOO_LONG_MESSAGE, Constants.MAX_TITLE_LENGTH);
+		}
+		if (note.title().indexOf('\0') >= 0 || note.content().indexOf('\0') >= 0) {
+			return "Text cannot contain NUL characters";
+		}
+		return null;
+	}
+
+	private String tooLarge() {
+		return "Row exceeds " + maxRecordSize + " characters";
+	}
+
+	private void reject(String message) {
+		failed++;
+		if (errors.size() < maxErrors) {
+			errors.add(new ImportErrorDto(row, message));
+		}
+	}
+
+	/**
+	 * Appends a character of the current row, unless the row already exceeds the
+	 * maximum size.
+	 */
+	private void append(StringBuilder text, int c) {
+		if (++recordSize <= maxRecordSize) {
+			text.append((char) c);
+		}
+	}
+
+	/**
+	 * Reads one line terminated by a line feed, a carriage return or both.
+	 */
+	private String readLine() throws IOException {
+		StringBuilder line = new StringBuilder();
+		recordSize = 0;
+		boolean empty = true;
+		int c;
+		while ((c = reader.read()) != -1) {
+			empty = false;
+			if (c == '\n') {
+				break;
+			} else if (c == '\r') {
+				skipLineFeed();
+				break;
+			}
+			append(line, c);
+		}
+		return empty ? null : line.toString();
+	}
+
+	private void skipLineFeed() throws IOException {
+		reader.mark(1);
+		int following = reader.read();
+		if (following != '\n' && following != -1) {
+			reader.reset();
+		}
+	}
+
+	/**
+	 * Reads one RFC 4180 record; quoted fields may contain separators, doubled
+	 * quotes and line breaks.
+	 */
+	private List<String> readCsvRecord() throws IOException {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		recordSize = 0;
+		boolean quoted = false;
+		boolean empty = true;
+		int c;
+		while ((c = reader.read()) != -1) {
+			empty = false;
+			if (quoted) {
+				if (c == '"') {
+					reader.mark(1);
+					int following = reader.read();
+					if (following == '"') {
+						append(field, '"');
+					} else {
+						quoted = false;
+						if (following != -1) {
+							reader.reset();
+						}
+					}
+				} else {
+					append(field, c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\n') {
+				break;
+			} else if (c == '\r') {
+				skipLineFeed();
+				break;
+			} else {
+				append(field, c);
+			}
+		}
+		if (empty) {
+			return null;
+		}
+		unterminatedQuote = quoted;
+		fields.add(field.toString());
+		return fields;
+	}
+}
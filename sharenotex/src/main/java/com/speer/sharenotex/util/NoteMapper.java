@@ -0,0 +1,40 @@
+package com.speer.sharenotex.util;
+
+import com.speer.sharenotex.model.Note;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.NoteSearchHitDto;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maps Note entities to response DTOs for the paths that still load the
+ * entity. List, search and export queries select directly into
+ * {@link NoteResponseDto} instead.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class NoteMapper {
+
+	/**
+	 * Maps a note to its response DTO.
+	 *
+	 * @param note The note to map.
+	 * @return Response DTO carrying the note's fields.
+	 */
+	public static NoteResponseDto toResponseDto(Note note) {
+		return new NoteResponseDto(note.getId(), note.getTitle(), note.getContent(), note.getContentDeflated(),
+				note.getCreatedAt(), note.getUpdatedAt(), note.getVersion());
+	}
+
+	/**
+	 * Maps a note found by the search index to its search hit DTO.
+	 *
+	 * @param note    The note to map.
+	 * @param snippet The highlighted passages of the note.
+	 * @return Search hit DTO carrying the note's fields and snippet.
+	 */
+	public static NoteSearchHitDto toSearchHitDto(Note note, String snippet) {
+		return new NoteSearchHitDto(note.getId(), note.getTitle(), note.getContent(), note.getContentDeflated(),
+				note.getCreatedAt(), note.getUpdatedAt(), note.getVersion(), snippet);
+	}
+}
@@ -1,18 +1,50 @@
 package com.speer.sharenotex.util;
 
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import org.springframework.web.server.ServerWebExchange;
+
 import com.speer.sharenotex.exception.RateLimitExceedException;
+import com.speer.sharenotex.util.TokenBucketRegistry.EndpointLimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 /**
  * Aspect class for enforcing rate limits on methods annotated with RateLimited.
+ * Every caller gets its own budget per endpoint: authenticated requests are
+ * keyed by user, anonymous requests by client IP. Methods returning a Mono or
+ * Flux are checked on subscription, with the caller taken from the reactive
+ * context instead of the current thread. Rejected calls are counted per
+ * endpoint.
  */
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class RateLimitAspect {
 
+	private final TokenBucketRegistry tokenBucketRegistry;
+	private final MeterRegistry meterRegistry;
+
 	/**
 	 * Intercepts method calls annotated with RateLimited and enforces rate limits.
 	 *
@@ -20,16 +52,94 @@ public class RateLimitAspect {
 	 * @param rateLimited RateLimited annotation specifying the rate limit
 	 *                    constraints.
 	 * @return The result of the intercepted method if rate limit is not exceeded.
-	 * @throws Throwable NotFoundException with a message indicating rate limit
-	 *                   exceeded if limit is exceeded.
+	 * @throws Throwable RateLimitExceedException with a message indicating rate
+	 *                   limit exceeded if limit is exceeded.
 	 */
 	@Around("@annotation(rateLimited)")
 	public Object enforceRateLimit(ProceedingJoinPoint joinPoint, RateLimited rateLimited) throws Throwable {
-		RateLimiter rateLimiter = new RateLimiter(rateLimited.value(), rateLimited.duration());
-		if (rateLimiter.tryAcquire()) {
-			return joinPoint.proceed();
-		} else {
-			throw new RateLimitExceedException("rate", "Rate limit exceeded");
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		EndpointLimit endpointLimit = tokenBucketRegistry.resolveLimit(method, rateLimited);
+		if (Mono.class.isAssignableFrom(method.getReturnType())) {
+			return Mono.deferContextual(context -> acquire(endpointLimit, context)).then(Mono.defer(() -> {
+				try {
+					return (Mono<?>) joinPoint.proceed();
+				} catch (Throwable e) {
+					return Mono.error(e);
+				}
+			}));
+		}
+		if (Flux.class.isAssignableFrom(method.getReturnType())) {
+			return Mono.deferContextual(context -> acquire(endpointLimit, context)).thenMany(Flux.defer(() -> {
+				try {
+					return (Flux<?>) joinPoint.proceed();
+				} catch (Throwable e) {
+					return Flux.error(e);
+				}
+			}));
+		}
+		ServletRequestAttributes attributes = currentRequestAttributes();
+		HttpServletResponse response = attributes != null ? attributes.getResponse() : null;
+		acquire(endpointLimit, resolveClient(SecurityContextHolder.getContext().getAuthentication(),
+				attributes != null ? attributes.getRequest().getRemoteAddr() : null),
+				response != null ? response::setHeader : (name, value) -> {
+				});
+		return joinPoint.proceed();
+	}
+
+	/**
+	 * Takes a token for the caller found in the reactive context.
+	 *
+	 * @param endpointLimit Limit of the intercepted endpoint.
+	 * @param context       Reactive context of the subscriber.
+	 * @return Empty Mono, or an error if the rate limit is exceeded.
+	 */
+	private Mono<Void> acquire(EndpointLimit endpointLimit, ContextView context) {
+		ServerWebExchange exchange = ServerWebExchangeContextFilter.getExchange(context).orElse(null);
+		String remoteAddress = exchange != null && exchange.getRequest().getRemoteAddress() != null
+				? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
+				: null;
+		return ReactiveSecurityContextHolder.getContext().map(SecurityContext::getAuthentication)
+				.map(authentication -> resolveClient(authentication, remoteAddress))
+				.defaultIfEmpty(resolveClient(null, remoteAddress))
+				.doOnNext(client -> acquire(endpointLimit, client,
+						exchange != null ? exchange.getResponse().getHeaders()::set : (name, value) -> {
+						}))
+				.then();
+	}
+
+	/**
+	 * Takes a token from the caller's bucket and reports the remaining budget
+	 * through the given header setter.
+	 *
+	 * @param endpointLimit Limit of the intercepted endpoint.
+	 * @param client        Key of the caller.
+	 * @param headers       Setter for the response headers.
+	 * @throws RateLimitExceedException if the bucket is empty.
+	 */
+	private void acquire(EndpointLimit endpointLimit, String client, BiConsumer<String, String> headers) {
+		RateLimiter rateLimiter = tokenBucketRegistry.getLimiter(endpointLimit, client);
+		if (!rateLimiter.tryAcquire()) {
+			Counter.builder(Constants.METRIC_RATE_LIMIT_REJECTIONS).description("Calls rejected by the rate limiter")
+					.tag("endpoint", endpointLimit.name()).register(meterRegistry).increment();
+			long retryAfterSeconds = Math.max(1, (rateLimiter.getMillisUntilNextToken() + 999) / 1000);
+			throw new RateLimitExceedException("rate", "Rate limit exceeded", endpointLimit.limit(),
+					retryAfterSeconds);
+		}
+		headers.accept(Constants.HEADER_RATE_LIMIT_LIMIT, String.valueOf(endpointLimit.limit()));
+		headers.accept(Constants.HEADER_RATE_LIMIT_REMAINING, String.valueOf(rateLimiter.getAvailableTokens()));
+	}
+
+	private ServletRequestAttributes currentRequestAttributes() {
+		return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+				? attributes
+				: null;
+	}
+
+	private String resolveClient(Authentication authentication, String remoteAddress) {
+		if (authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
 		}
+		return "ip:" + (remoteAddress != null ? remoteAddress : "unknown");
 	}
 }
@@ -6,12 +6,23 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Annotation used to specify rate limit constraints on methods.
+ * Annotation used to specify rate limit constraints on methods. Limits apply
+ * separately to every caller (authenticated user, or client IP for anonymous
+ * requests) and every annotated endpoint.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface RateLimited {
 
+	/**
+	 * Name of the rate-limited endpoint, used to override its limits through
+	 * {@code com.sharenotex.rate-limit.endpoints.<name>.limit} and
+	 * {@code .duration}. Defaults to {@code <SimpleClassName>.<methodName>}.
+	 *
+	 * @return Endpoint name.
+	 */
+	String name() default "";
+
 	/**
 	 * Maximum number of method invocations allowed within the specified duration.
 	 *
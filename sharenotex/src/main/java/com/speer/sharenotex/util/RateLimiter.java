@@ -1,22 +1,34 @@
 package com.speer.sharenotex.util;
 
-import java.util.concurrent.atomic.AtomicLong;
-import lombok.Data;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Getter;
 
 /**
- * Simple rate limiter implementation to control the frequency of method
- * invocations.
+ * Lock-free token bucket used to control the frequency of method invocations.
+ * The bucket holds up to {@code limit} tokens and is refilled continuously at
+ * {@code limit} tokens per {@code durationInMillis}. Refill is computed lazily
+ * on access and published with a compare-and-set, so concurrent callers never
+ * block each other.
  */
-@Data
 public class RateLimiter {
 
+	/**
+	 * Immutable snapshot of the bucket, swapped atomically on every consumption.
+	 */
+	private record State(double tokens, long refilledAtNanos) {
+	}
+
+	@Getter
 	private final int limit;
+	@Getter
 	private final long durationInMillis;
-	private static final AtomicLong lastRequestTime = new AtomicLong(0);
-	private static final AtomicLong requestCount = new AtomicLong(0);
+	private final double tokensPerNano;
+	private final AtomicReference<State> state;
+	private volatile long lastAccessNanos;
 
 	/**
-	 * Constructs a RateLimiter with the specified limit and duration.
+	 * Constructs a full RateLimiter with the specified limit and duration.
 	 *
 	 * @param limit            Maximum number of method invocations allowed within
 	 *                         the specified duration.
@@ -26,6 +38,10 @@ public class RateLimiter {
 	public RateLimiter(int limit, long durationInMillis) {
 		this.limit = limit;
 		this.durationInMillis = durationInMillis;
+		this.tokensPerNano = (double) limit / TimeUnit.MILLISECONDS.toNanos(durationInMillis);
+		long now = System.nanoTime();
+		this.state = new AtomicReference<>(new State(limit, now));
+		this.lastAccessNanos = now;
 	}
 
 	/**
@@ -34,16 +50,53 @@ public class RateLimiter {
 	 *
 	 * @return true if permission is granted, false otherwise.
 	 */
-	public synchronized boolean tryAcquire() {
-		long currentTime = System.currentTimeMillis();
-		long lastRequest = lastRequestTime.getAndSet(currentTime);
-
-		if (currentTime - lastRequest >= durationInMillis) {
-			requestCount.set(1);
-			return true;
-		} else {
-			return requestCount.getAndIncrement() < limit;
+	public boolean tryAcquire() {
+		long now = System.nanoTime();
+		lastAccessNanos = now;
+		while (true) {
+			State current = state.get();
+			double tokens = refill(current, now);
+			if (tokens < 1) {
+				return false;
+			}
+			if (state.compareAndSet(current, new State(tokens - 1, now))) {
+				return true;
+			}
 		}
 	}
 
+	/**
+	 * Returns the number of whole tokens currently available.
+	 *
+	 * @return Number of invocations that would currently be granted.
+	 */
+	public long getAvailableTokens() {
+		return (long) refill(state.get(), System.nanoTime());
+	}
+
+	/**
+	 * Returns how long a caller has to wait until the next token is available.
+	 *
+	 * @return Wait time in milliseconds, zero if a token is available now.
+	 */
+	public long getMillisUntilNextToken() {
+		double missing = 1 - refill(state.get(), System.nanoTime());
+		return missing <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis((long) Math.ceil(missing / tokensPerNano)) + 1;
+	}
+
+	/**
+	 * Checks whether the bucket has not been used for the given time.
+	 *
+	 * @param idleNanos Idle time in nanoseconds.
+	 * @param now       Current {@link System#nanoTime()} value.
+	 * @return true if the last access is older than the idle time.
+	 */
+	public boolean isIdle(long idleNanos, long now) {
+		return now - lastAccessNanos > idleNanos;
+	}
+
+	private double refill(State current, long now) {
+		return Math.min(limit, current.tokens() + Math.max(0, now - current.refilledAtNanos()) * tokensPerNano);
+	}
+
 }
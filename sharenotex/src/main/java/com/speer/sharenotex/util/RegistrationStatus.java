@@ -0,0 +1,22 @@
+package com.speer.sharenotex.util;
+
+/**
+ * States of a signup accepted by the registration queue.
+ */
+public enum RegistrationStatus {
+
+	/**
+	 * The signup is waiting in the queue or being processed.
+	 */
+	PENDING,
+
+	/**
+	 * The user has been created in Keycloak.
+	 */
+	COMPLETED,
+
+	/**
+	 * The user could not be created; the status message gives the reason.
+	 */
+	FAILED
+}
@@ -0,0 +1,47 @@
+package com.speer.sharenotex.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.speer.sharenotex.exception.BadRequestException;
+
+/**
+ * Strategies available for searching notes.
+ */
+public enum SearchMode {
+
+	/**
+	 * Case-insensitive substring match on the note content.
+	 */
+	CONTAINS,
+
+	/**
+	 * Ranked PostgreSQL full-text search over the note title and content.
+	 */
+	FULLTEXT,
+
+	/**
+	 * Typo-tolerant match on words of the note title and content, ranked by
+	 * trigram similarity.
+	 */
+	FUZZY,
+
+	/**
+	 * Ranked search of the embedded Lucene index, with phrase and prefix queries
+	 * and highlighted snippets. Only available when the index is enabled.
+	 */
+	INDEX;
+
+	/**
+	 * Resolves a search mode from its (case-insensitive) name.
+	 *
+	 * @param value Name of the search mode.
+	 * @return The matching SearchMode.
+	 * @throws BadRequestException if no search mode matches the given name.
+	 */
+	public static SearchMode from(String value) {
+		return Arrays.stream(values()).filter(mode -> mode.name().equalsIgnoreCase(value.trim())).findFirst()
+				.orElseThrow(() -> new BadRequestException("mode", String.format(Constants.INVALID_SEARCH_MODE_MESSAGE,
+						value.toLowerCase(Locale.ROOT))));
+	}
+}
@@ -0,0 +1,112 @@
+package com.speer.sharenotex.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the token buckets used by {@link RateLimitAspect}, keyed by
+ * endpoint and client. The number of buckets is bounded: buckets that have been
+ * idle for longer than the configured timeout are evicted periodically, and
+ * while the registry is full new clients share one overflow bucket per
+ * endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenBucketRegistry {
+
+	private static final String PROPERTY_PREFIX = "com.sharenotex.rate-limit.endpoints.";
+
+	/**
+	 * Limit that applies to one rate-limited endpoint.
+	 *
+	 * @param name             Endpoint name.
+	 * @param limit            Maximum number of invocations within the duration.
+	 * @param durationInMillis Duration (in milliseconds) of the limit window.
+	 */
+	public record EndpointLimit(String name, int limit, long durationInMillis) {
+	}
+
+	private record BucketKey(String endpoint, String client) {
+	}
+
+	private final Environment environment;
+	private final ConcurrentMap<BucketKey, RateLimiter> buckets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, RateLimiter> overflowBuckets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Method, EndpointLimit> endpointLimits = new ConcurrentHashMap<>();
+
+	@Value("${com.sharenotex.rate-limit.max-buckets:10000}")
+	private int maxBuckets;
+	@Value("${com.sharenotex.rate-limit.idle-timeout:600000}")
+	private long idleTimeoutMillis;
+
+	/**
+	 * Resolves the limit of an annotated method. Values configured under
+	 * {@code com.sharenotex.rate-limit.endpoints.<name>} take precedence over the
+	 * annotation attributes.
+	 *
+	 * @param method      The rate-limited method.
+	 * @param rateLimited The annotation present on the method.
+	 * @return The limit that applies to the method.
+	 */
+	public EndpointLimit resolveLimit(Method method, RateLimited rateLimited) {
+		return endpointLimits.computeIfAbsent(method, m -> {
+			String name = rateLimited.name().isEmpty()
+					? m.getDeclaringClass().getSimpleName() + "." + m.getName()
+					: rateLimited.name();
+			int limit = environment.getProperty(PROPERTY_PREFIX + name + ".limit", Integer.class,
+					rateLimited.value());
+			long duration = environment.getProperty(PROPERTY_PREFIX + name + ".duration", Long.class,
+					rateLimited.duration());
+			log.info("Rate limit for endpoint '{}': {} requests per {} ms", name, limit, duration);
+			return new EndpointLimit(name, limit, duration);
+		});
+	}
+
+	/**
+	 * Returns the token bucket of a client for an endpoint, creating it when the
+	 * client has no bucket yet.
+	 *
+	 * @param endpointLimit Limit of the endpoint being invoked.
+	 * @param client        Identifier of the caller.
+	 * @return The token bucket to consume from.
+	 */
+	public RateLimiter getLimiter(EndpointLimit endpointLimit, String client) {
+		BucketKey key = new BucketKey(endpointLimit.name(), client);
+		RateLimiter limiter = buckets.get(key);
+		if (limiter != null) {
+			return limiter;
+		}
+		if (buckets.size() >= maxBuckets) {
+			return overflowBuckets.computeIfAbsent(endpointLimit.name(), name -> newLimiter(endpointLimit));
+		}
+		return buckets.computeIfAbsent(key, k -> newLimiter(endpointLimit));
+	}
+
+	/**
+	 * Removes the buckets that have not been used within the idle timeout.
+	 */
+	@Scheduled(fixedDelayString = "${com.sharenotex.rate-limit.sweep-interval:60000}")
+	public void evictIdleBuckets() {
+		long now = System.nanoTime();
+		long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+		int before = buckets.size();
+		buckets.values().removeIf(limiter -> limiter.isIdle(idleNanos, now));
+		overflowBuckets.values().removeIf(limiter -> limiter.isIdle(idleNanos, now));
+		log.debug("Evicted {} idle rate limit buckets.", before - buckets.size());
+	}
+
+	private RateLimiter newLimiter(EndpointLimit endpointLimit) {
+		return new RateLimiter(endpointLimit.limit(), endpointLimit.durationInMillis());
+	}
+}
@@ -0,0 +1,35 @@
+package com.speer.sharenotex.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Defers work on in-process state derived from the database until the changes
+ * it reflects are committed.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransactionCallbacks {
+
+	/**
+	 * Runs an action once the current transaction has committed, or right away
+	 * if no transaction is active. The action is dropped if the transaction rolls
+	 * back.
+	 *
+	 * @param action Action to run.
+	 */
+	public static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
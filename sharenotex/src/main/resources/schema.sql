@@ -0,0 +1,106 @@
+-- Content used to be varchar(255). Widen it to text, which needs search_vector dropped first; it is added back below.
+-- The block is a quoted string rather than $$-quoted because the script is split on semicolons outside quotes.
+DO 'BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = ''note'' AND column_name = ''content'') <> ''text'' THEN
+        ALTER TABLE note DROP COLUMN IF EXISTS search_vector, ALTER COLUMN content TYPE text;
+    END IF;
+END';
+
+-- Maintained full-text document over title and content, ranked with ts_rank by NoteRepository#searchByFullText.
+-- Content is capped before vectorising because a tsvector cannot exceed 1MB. Content above the compression threshold
+-- is stored in content_deflated, and content keeps its first com.sharenotex.content.compression-threshold characters,
+-- so with the default threshold the vector covers the same text.
+ALTER TABLE note ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', left(coalesce(content, ''), 262144)), 'B')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_note_search_vector ON note USING gin (search_vector);
+
+-- Trigram indexes behind the fuzzy search mode, see NoteRepository#searchByTrigram. They serve the word similarity
+-- operator <%, whose threshold each fuzzy query sets from com.sharenotex.search.fuzzy.threshold.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_note_title_trgm ON note USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_note_content_trgm ON note USING gin (content gin_trgm_ops);
+
+-- Keyset pagination of a user's notes on (updated_at, id), see NoteRepository#findPageByUserIdAfter.
+CREATE INDEX IF NOT EXISTS idx_note_user_updated_at_id ON note (user_id, updated_at DESC, id DESC);
+
+-- Incremental sync, see NoteSearchRepository#findChanges. change_seq is the ID of the transaction that last wrote the
+-- note, or deleted it for a tombstone. Transaction IDs grow over time but commit out of order, so a sync only returns
+-- changes below the oldest transaction still running (pg_snapshot_xmin); later commits are returned by the next sync.
+-- The column is only added, with existing notes at 0, when it does not exist yet, so that startup neither scans nor
+-- locks the note table once it has been migrated. The constant default fills existing rows without rewriting them.
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = ''note'' AND column_name = ''change_seq'') THEN
+        ALTER TABLE note ADD COLUMN change_seq bigint DEFAULT 0;
+        ALTER TABLE note ALTER COLUMN change_seq SET DEFAULT pg_current_xact_id()::text::bigint;
+    END IF;
+END';
+CREATE TABLE IF NOT EXISTS note_tombstone (
+    note_id integer PRIMARY KEY,
+    user_id varchar(255) NOT NULL,
+    change_seq bigint NOT NULL,
+    deleted_at timestamp(6) NOT NULL
+);
+-- Quoted rather than $$-quoted for the same reason as the DO block above.
+CREATE OR REPLACE FUNCTION note_track_change() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        INSERT INTO note_tombstone (note_id, user_id, change_seq, deleted_at)
+        VALUES (OLD.id, OLD.user_id, pg_current_xact_id()::text::bigint, now());
+        RETURN OLD;
+    END IF;
+    NEW.change_seq := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END';
+CREATE OR REPLACE TRIGGER note_track_change BEFORE UPDATE OR DELETE ON note
+    FOR EACH ROW EXECUTE FUNCTION note_track_change();
+CREATE INDEX IF NOT EXISTS idx_note_user_change_seq_id ON note (user_id, change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_note_tombstone_user_change_seq_note_id ON note_tombstone (user_id, change_seq, note_id);
+CREATE INDEX IF NOT EXISTS idx_note_tombstone_deleted_at ON note_tombstone (deleted_at);
+
+-- Shared notes take their IDs from shared_note_seq, one nextval per share in SharedNoteRepository#insertAll. Sequences
+-- created with the former allocation size of 50 are reset to step by one. Keep the sequence ahead of IDs handed out by
+-- the former identity column.
+ALTER SEQUENCE shared_note_seq INCREMENT BY 1;
+SELECT setval('shared_note_seq', GREATEST((SELECT last_value FROM shared_note_seq),
+    (SELECT COALESCE(MAX(id), 0) FROM shared_note)));
+
+-- Shares reference their note instead of embedding a jsonb copy of it. Move shares created before that change
+-- over to the reference and drop the copies. Only runs while the column exists, so that a migrated database is not
+-- locked, and its attribute numbers not used up, by dropping the column again on every startup.
+DO 'BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = ''shared_note'' AND column_name = ''note'') THEN
+        UPDATE shared_note SET note_id = (note ->> ''id'')::integer WHERE note_id IS NULL AND note IS NOT NULL;
+        ALTER TABLE shared_note DROP COLUMN note;
+    END IF;
+END';
+
+-- Shares are deleted along with their note. Shares left behind by notes deleted before this key existed, and those
+-- whose former jsonb copy had no note ID, are deleted once: their note, or the copy of it, is gone, and the feed's
+-- join already hid them.
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+        WHERE conrelid = ''shared_note''::regclass AND conname = ''fk_shared_note_note_id'') THEN
+        DELETE FROM shared_note s WHERE NOT EXISTS (SELECT 1 FROM note n WHERE n.id = s.note_id);
+        ALTER TABLE shared_note ADD CONSTRAINT fk_shared_note_note_id
+            FOREIGN KEY (note_id) REFERENCES note (id) ON DELETE CASCADE;
+    END IF;
+END';
+
+-- A note is shared with a user at most once, so sharing it again adds nothing, see SharedNoteRepository#insertAll.
+-- Repeated shares made before are merged into the first one. The index also serves the cascading deletes.
+DO 'BEGIN
+    IF to_regclass(''idx_shared_note_note_id_shared_to'') IS NULL THEN
+        DELETE FROM shared_note s USING shared_note d
+        WHERE d.note_id = s.note_id AND d.shared_to = s.shared_to AND d.id < s.id;
+        CREATE UNIQUE INDEX idx_shared_note_note_id_shared_to ON shared_note (note_id, shared_to);
+    END IF;
+END';
+DROP INDEX IF EXISTS idx_shared_note_note_id;
+
+-- "Shared with me" feed paginated on (shared_at, id), see SharedNoteRepository#findSharedWithAfter.
+CREATE INDEX IF NOT EXISTS idx_shared_note_shared_to_shared_at_id ON shared_note (shared_to, shared_at DESC, id DESC);
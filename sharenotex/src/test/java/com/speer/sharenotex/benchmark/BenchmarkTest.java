@@ -0,0 +1,30 @@
+package com.speer.sharenotex.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the JMH benchmarks of this package and writes the results as JSON, by
+ * default to {@code target/jmh-result.json}. Benchmarks are tagged
+ * {@code benchmark} and only run with {@code -Pbenchmark}; a subset can be
+ * selected with {@code -Djmh.include=<regex>}.
+ */
+@Tag("benchmark")
+class BenchmarkTest {
+
+	@Test
+	void runBenchmarks() throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(System.getProperty("jmh.include", getClass().getPackageName() + "\\..*Benchmark"))
+				.forks(1).warmupIterations(3).warmupTime(TimeValue.seconds(1)).measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1)).resultFormat(ResultFormatType.JSON)
+				.result(System.getProperty("jmh.result", "target/jmh-result.json")).build();
+		new Runner(options).run();
+	}
+}
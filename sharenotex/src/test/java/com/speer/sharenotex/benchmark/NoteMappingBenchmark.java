@@ -0,0 +1,46 @@
+package com.speer.sharenotex.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.speer.sharenotex.model.Note;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.util.NoteMapper;
+
+/**
+ * Measures mapping Note entities to response DTOs with {@link NoteMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteMappingBenchmark {
+
+	@Param({ "1", "100", "1000" })
+	private int size;
+
+	private List<Note> notes;
+
+	@Setup
+	public void setUp() {
+		Timestamp now = Timestamp.from(Instant.now());
+		notes = IntStream.range(0, size)
+				.mapToObj(i -> new Note(i, "Note " + i, "Content of note " + i, null, now, now, "user", 0L)).toList();
+	}
+
+	@Benchmark
+	public List<NoteResponseDto> map() {
+		return notes.stream().map(NoteMapper::toResponseDto).toList();
+	}
+}
@@ -0,0 +1,62 @@
+package com.speer.sharenotex.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.responsedto.PageResponseDto;
+import com.speer.sharenotex.responsedto.SharedNoteResponseDto;
+
+/**
+ * Measures the Jackson serialization of note pages and shared-note pages of
+ * varying size, with the object mapper defaults Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteSerializationBenchmark {
+
+	@Param({ "1", "100", "1000" })
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private PageResponseDto<NoteResponseDto> notes;
+	private PageResponseDto<SharedNoteResponseDto> sharedNotes;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		Timestamp now = Timestamp.from(Instant.now());
+		notes = new PageResponseDto<>(IntStream.range(0, size)
+				.mapToObj(i -> new NoteResponseDto(i, "Note " + i, "Content of note " + i, now, now, 0L)).toList(),
+				"cursor");
+		sharedNotes = new PageResponseDto<>(IntStream.range(0, size).mapToObj(
+				i -> new SharedNoteResponseDto(i, i, "Note " + i, "Content of note " + i, now, now, "owner", now))
+				.toList(), "cursor");
+	}
+
+	@Benchmark
+	public byte[] notePage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(notes);
+	}
+
+	@Benchmark
+	public byte[] sharedNotePage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(sharedNotes);
+	}
+}
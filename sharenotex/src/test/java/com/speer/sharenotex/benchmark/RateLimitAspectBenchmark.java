@@ -0,0 +1,70 @@
+package com.speer.sharenotex.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.speer.sharenotex.util.RateLimitAspect;
+import com.speer.sharenotex.util.RateLimited;
+import com.speer.sharenotex.util.TokenBucketRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures the overhead {@link RateLimitAspect} adds to a call, compared with
+ * calling the target directly and through a proxy without advice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitAspectBenchmark {
+
+	public static class Endpoint {
+
+		@RateLimited(value = Integer.MAX_VALUE, duration = 1000)
+		public int limited() {
+			return 42;
+		}
+
+		public int unlimited() {
+			return 42;
+		}
+	}
+
+	private Endpoint target;
+	private Endpoint proxy;
+
+	@Setup
+	public void setUp() {
+		TokenBucketRegistry registry = new TokenBucketRegistry(new MockEnvironment());
+		ReflectionTestUtils.setField(registry, "maxBuckets", 10000);
+		target = new Endpoint();
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(new RateLimitAspect(registry, new SimpleMeterRegistry()));
+		proxy = factory.getProxy();
+	}
+
+	@Benchmark
+	public int direct() {
+		return target.limited();
+	}
+
+	@Benchmark
+	public int proxiedWithoutAdvice() {
+		return proxy.unlimited();
+	}
+
+	@Benchmark
+	public int proxiedWithRateLimit() {
+		return proxy.limited();
+	}
+}
@@ -0,0 +1,52 @@
+package com.speer.sharenotex.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.speer.sharenotex.util.RateLimiter;
+
+/**
+ * Measures {@link RateLimiter#tryAcquire()} on a single bucket, alone and with
+ * several threads competing for it, and when the bucket is empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateLimiterBenchmark {
+
+	private RateLimiter bucket;
+	private RateLimiter emptyBucket;
+
+	@Setup
+	public void setUp() {
+		bucket = new RateLimiter(Integer.MAX_VALUE, TimeUnit.SECONDS.toMillis(1));
+		emptyBucket = new RateLimiter(1, TimeUnit.HOURS.toMillis(1));
+		emptyBucket.tryAcquire();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean uncontended() {
+		return bucket.tryAcquire();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public boolean contended() {
+		return bucket.tryAcquire();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public boolean rejected() {
+		return emptyBucket.tryAcquire();
+	}
+}
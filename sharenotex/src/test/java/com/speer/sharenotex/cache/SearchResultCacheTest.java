@@ -0,0 +1,111 @@
+package com.speer.sharenotex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.speer.sharenotex.cache.SearchResultCache.Key;
+import com.speer.sharenotex.responsedto.NoteResponseDto;
+import com.speer.sharenotex.util.SearchMode;
+
+class SearchResultCacheTest {
+
+	private static final List<NoteResponseDto> RESULTS = List.of(new NoteResponseDto(1, "title", "content",
+			Timestamp.from(Instant.now()), Timestamp.from(Instant.now()), 0L));
+
+	private final SearchResultCache cache = new SearchResultCache(true, 1 << 20, 100, 60_000);
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private Key cacheResults(String userId) {
+		Key key = cache.key(userId, SearchMode.FULLTEXT, "query", 20, 0);
+		cache.put(key, RESULTS);
+		return key;
+	}
+
+	@Test
+	void returnsCachedResultsForEquivalentQuery() {
+		cacheResults("user");
+
+		assertEquals(RESULTS, cache.get(cache.key("user", SearchMode.FULLTEXT, "  QUERY ", 20, 0)));
+		assertNull(cache.get(cache.key("user", SearchMode.FULLTEXT, "query", 20, 20)));
+		assertNull(cache.get(cache.key("user", SearchMode.CONTAINS, "query", 20, 0)));
+		assertNull(cache.get(cache.key("other", SearchMode.FULLTEXT, "query", 20, 0)));
+	}
+
+	@Test
+	void invalidatesRightAwayWithoutTransaction() {
+		Key key = cacheResults("user");
+
+		cache.invalidate("user");
+
+		Key newKey = cache.key("user", SearchMode.FULLTEXT, "query", 20, 0);
+		assertNotEquals(key.generation(), newKey.generation());
+		assertNull(cache.get(newKey));
+	}
+
+	@Test
+	void invalidatesOnlyOtherUsersResults() {
+		cacheResults("user");
+		cacheResults("other");
+
+		cache.invalidate("other");
+
+		assertEquals(RESULTS, cache.get(cache.key("user", SearchMode.FULLTEXT, "query", 20, 0)));
+		assertNull(cache.get(cache.key("other", SearchMode.FULLTEXT, "query", 20, 0)));
+	}
+
+	@Test
+	void invalidatesAfterCommit() {
+		Key key = cacheResults("user");
+		TransactionSynchronizationManager.initSynchronization();
+
+		cache.invalidate("user");
+
+		// Searches running before the commit still read the old notes
+		assertEquals(key, cache.key("user", SearchMode.FULLTEXT, "query", 20, 0));
+		assertEquals(RESULTS, cache.get(key));
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertNull(cache.get(cache.key("user", SearchMode.FULLTEXT, "query", 20, 0)));
+	}
+
+	@Test
+	void keepsResultsWhenTransactionRollsBack() {
+		Key key = cacheResults("user");
+		TransactionSynchronizationManager.initSynchronization();
+
+		cache.invalidate("user");
+		TransactionSynchronizationManager.clearSynchronization();
+
+		assertEquals(key, cache.key("user", SearchMode.FULLTEXT, "query", 20, 0));
+		assertEquals(RESULTS, cache.get(key));
+	}
+
+	@Test
+	void cachesNothingWhenDisabled() {
+		SearchResultCache disabled = new SearchResultCache(false, 1 << 20, 100, 60_000);
+		Key key = disabled.key("user", SearchMode.FULLTEXT, "query", 20, 0);
+
+		disabled.put(key, RESULTS);
+
+		assertNull(disabled.get(key));
+	}
+}
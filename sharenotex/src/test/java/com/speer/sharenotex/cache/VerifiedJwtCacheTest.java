@@ -0,0 +1,63 @@
+package com.speer.sharenotex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.speer.sharenotex.cache.VerifiedJwtCache.TokenExpiry;
+
+class VerifiedJwtCacheTest {
+
+	private static final Duration TTL = Duration.ofMinutes(5);
+
+	private final TokenExpiry expiry = new TokenExpiry(TTL);
+	private final VerifiedJwtCache cache = new VerifiedJwtCache(100, TTL.toMillis());
+
+	private static Jwt jwt(Instant expiresAt) {
+		Jwt.Builder jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user");
+		return expiresAt != null ? jwt.issuedAt(expiresAt.minus(Duration.ofHours(2))).expiresAt(expiresAt).build()
+				: jwt.build();
+	}
+
+	@Test
+	void expiresAtTokenExpiryBeforeTtl() {
+		long nanos = expiry.expireAfterCreate("key", jwt(Instant.now().plus(Duration.ofMinutes(1))), 0);
+
+		assertTrue(nanos > Duration.ofSeconds(55).toNanos() && nanos <= Duration.ofMinutes(1).toNanos(),
+				"expiry was " + nanos);
+	}
+
+	@Test
+	void expiresAfterTtlBeforeTokenExpiry() {
+		assertEquals(TTL.toNanos(), expiry.expireAfterCreate("key", jwt(Instant.now().plus(Duration.ofHours(1))), 0));
+		assertEquals(TTL.toNanos(), expiry.expireAfterCreate("key", jwt(null), 0));
+	}
+
+	@Test
+	void expiresExpiredTokenAtOnce() {
+		assertEquals(0, expiry.expireAfterCreate("key", jwt(Instant.now().minusSeconds(1)), 0));
+	}
+
+	@Test
+	void cachesValidToken() {
+		Jwt jwt = jwt(Instant.now().plus(Duration.ofMinutes(1)));
+
+		cache.put("token", jwt);
+
+		assertEquals(jwt, cache.get("token"));
+		assertNull(cache.get("other"));
+	}
+
+	@Test
+	void skipsExpiredToken() {
+		cache.put("token", jwt(Instant.now().minusSeconds(1)));
+
+		assertNull(cache.get("token"));
+	}
+}
@@ -0,0 +1,49 @@
+package com.speer.sharenotex.config;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.speer.sharenotex.service.KeycloakService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class SecurityConfigTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private KeycloakService keycloakService;
+
+	@Test
+	void allowsHealthCheckWithoutToken() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+	}
+
+	@Test
+	void requiresTokenForPrometheusScrape() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/prometheus").with(jwt())).andExpect(status().isOk());
+	}
+
+	@Test
+	void requiresTokenForOtherActuatorEndpoints() throws Exception {
+		mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/info")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void requiresTokenForNotes() throws Exception {
+		mockMvc.perform(get("/api/notes")).andExpect(status().isUnauthorized());
+	}
+}
@@ -0,0 +1,496 @@
+package com.speer.sharenotex.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+import com.speer.sharenotex.service.KeycloakService;
+import com.speer.sharenotex.util.ChangeCursor;
+import com.speer.sharenotex.util.Constants;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NoteControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private KeycloakService keycloakService;
+
+	private JwtRequestPostProcessor user;
+
+	@BeforeEach
+	void setUp() {
+		// A user of its own per test, so that notes and rate limits do not leak between tests
+		String userId = UUID.randomUUID().toString();
+		user = jwt().jwt(jwt -> jwt.subject(userId));
+	}
+
+	private void createNote(String title, String content) throws Exception {
+		mockMvc.perform(post("/api/notes").with(user).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"" + title + "\",\"content\":\"" + content + "\"}"))
+				.andExpect(status().isOk());
+	}
+
+	private int createNoteAndGetId(String title, String content) throws Exception {
+		createNote(title, content);
+		String body = mockMvc.perform(get("/api/notes").with(user).param("limit", "1"))
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.items[0].id");
+	}
+
+	private String fetchETag(int id) throws Exception {
+		return mockMvc.perform(get("/api/notes/" + id).with(user))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private static String noteJson(String title, String content) {
+		return "{\"title\":\"" + title + "\",\"content\":\"" + content + "\"}";
+	}
+
+	@Test
+	void rejectsNoteWithBlankOrTooLongTitle() throws Exception {
+		mockMvc.perform(post("/api/notes").with(user).contentType(MediaType.APPLICATION_JSON)
+				.content(noteJson(" ", "content")))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value(Constants.TITLE_EMPTY_MESSAGE));
+		mockMvc.perform(post("/api/notes").with(user).contentType(MediaType.APPLICATION_JSON)
+				.content(noteJson("t".repeat(256), "content")))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Title cannot be longer than 255 characters"));
+		mockMvc.perform(post("/api/notes").with(user).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"title\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value(Constants.CONTENT_EMPTY_MESSAGE));
+	}
+
+	@Test
+	void pagesThroughNotesWithCursor() throws Exception {
+		createNote("first", "a");
+		createNote("second", "b");
+		createNote("third", "c");
+
+		String body = mockMvc.perform(get("/api/notes").with(user).param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(2))
+				.andExpect(jsonPath("$.items[0].title").value("third"))
+				.andExpect(jsonPath("$.items[1].title").value("second"))
+				.andReturn().getResponse().getContentAsString();
+		String cursor = JsonPath.read(body, "$.nextCursor");
+
+		mockMvc.perform(get("/api/notes").with(user).param("limit", "2").param("cursor", cursor))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].title").value("first"))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist());
+	}
+
+	@Test
+	void rejectsTamperedCursor() throws Exception {
+		mockMvc.perform(get("/api/notes").with(user).param("cursor", "bm90LWEtY3Vyc29y"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.fieldName").value("cursor"))
+				.andExpect(jsonPath("$.message").value(Constants.INVALID_CURSOR_MESSAGE));
+	}
+
+	@Test
+	void searchMatchesSubstringsByDefault() throws Exception {
+		createNote("groceries", "Buy strawberries and milk");
+		createNote("chores", "Water the plants");
+
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "STRAWBERR"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].title").value("groceries"));
+	}
+
+	@Test
+	void pagesThroughSearchResultsWithOffset() throws Exception {
+		createNote("first", "milk");
+		createNote("second", "milk");
+		createNote("third", "milk");
+
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "milk").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(2))
+				.andExpect(jsonPath("$.hasMore").value(true))
+				.andExpect(jsonPath("$.nextOffset").value(2));
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "milk").param("limit", "2")
+				.param("offset", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.hasMore").value(false))
+				.andExpect(jsonPath("$.nextOffset").doesNotExist());
+	}
+
+	@Test
+	void rejectsSearchOffsetThatWouldOverflow() throws Exception {
+		for (String mode : new String[] { "contains", "fulltext", "index" }) {
+			mockMvc.perform(get("/api/notes/search").with(user).param("query", "milk").param("mode", mode)
+					.param("offset", String.valueOf(Integer.MAX_VALUE)))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.fieldName").value("offset"))
+					.andExpect(jsonPath("$.message").value(Constants.OFFSET_TOO_LARGE_MESSAGE));
+		}
+	}
+
+	@Test
+	void searchMatchesWholeWordsInFulltextMode() throws Exception {
+		createNote("groceries", "Buy strawberries and milk");
+
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "strawberr").param("mode", "fulltext"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(0));
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "strawberry").param("mode", "fulltext"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1));
+	}
+
+	@Test
+	void searchFindsMisspelledWordsInFuzzyMode() throws Exception {
+		createNote("groceries", "Buy strawberries and milk");
+		createNote("chores", "Water the plants");
+
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "strawbery").param("mode", "fuzzy")
+				.param("limit", "100"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].title").value("groceries"));
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", " mi ").param("mode", "fuzzy"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.fieldName").value("query"))
+				.andExpect(jsonPath("$.message").value("Fuzzy search needs a query of at least 3 characters"));
+	}
+
+	@Test
+	void searchTreatsWildcardsLiterally() throws Exception {
+		createNote("discount", "Save 100% today");
+		createNote("plain", "Save 100 today");
+
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "100%"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].title").value("discount"));
+	}
+
+	@Test
+	void rejectsCallsOverRateLimitWithRetryAfter() throws Exception {
+		for (int remaining = 4; remaining >= 0; remaining--) {
+			mockMvc.perform(get("/api/notes/shared").with(user))
+					.andExpect(status().isOk())
+					.andExpect(header().string(Constants.HEADER_RATE_LIMIT_LIMIT, "5"))
+					.andExpect(header().string(Constants.HEADER_RATE_LIMIT_REMAINING, String.valueOf(remaining)));
+		}
+
+		mockMvc.perform(get("/api/notes/shared").with(user))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+				.andExpect(header().string(Constants.HEADER_RATE_LIMIT_REMAINING, "0"));
+	}
+
+	@Test
+	void sharesNoteWithUserOnceAndRemovesSharesWithNote() throws Exception {
+		int id = createNoteAndGetId("title", "content");
+		String recipientId = UUID.randomUUID().toString();
+		JwtRequestPostProcessor recipient = jwt().jwt(jwt -> jwt.subject(recipientId));
+		String share = "{\"noteId\":" + id + ",\"sharedTo\":\"" + recipientId + "\"}";
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/notes/share").with(user).contentType(MediaType.APPLICATION_JSON).content(share))
+					.andExpect(status().isOk());
+		}
+		mockMvc.perform(post("/api/notes/share/batch").with(user).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"noteIds\":[" + id + "],\"sharedTo\":[\"" + recipientId + "\"]}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/notes/shared").with(recipient))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].noteId").value(id));
+
+		mockMvc.perform(delete("/api/notes/" + id).with(user)).andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/notes/shared").with(recipient))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(0));
+	}
+
+	@Test
+	void exportsOwnNotesAsNdjsonWithInflatedContent() throws Exception {
+		// Above the default compression threshold, so the content is stored deflated
+		String largeContent = "strawberries ".repeat(25_000);
+		int first = createNoteAndGetId("first", "content");
+		int large = createNoteAndGetId("large", largeContent);
+		mockMvc.perform(post("/api/notes").with(jwt().jwt(jwt -> jwt.subject(UUID.randomUUID().toString())))
+				.contentType(MediaType.APPLICATION_JSON).content(noteJson("other user's", "content")))
+				.andExpect(status().isOk());
+
+		MvcResult result = mockMvc.perform(get("/api/notes/export").with(user))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\""))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertEquals(2, lines.length);
+		assertEquals(first, (int) JsonPath.read(lines[0], "$.id"));
+		assertEquals("content", JsonPath.read(lines[0], "$.content"));
+		assertEquals(large, (int) JsonPath.read(lines[1], "$.id"));
+		assertEquals("large", JsonPath.read(lines[1], "$.title"));
+		assertEquals(largeContent, JsonPath.read(lines[1], "$.content"));
+	}
+
+	@Test
+	void importsValidRowsAndReportsRejectedOnes() throws Exception {
+		String body = "{\"title\":\"a\",\"content\":\"first\"}\n"
+				+ "{\"title\":\"b\",\"content\":\"" + "x".repeat(1_048_577) + "\"}\n"
+				+ "{\"title\":\"c\",\"content\":\"third\"}\n";
+
+		mockMvc.perform(post("/api/notes/import").with(user).contentType(MediaType.APPLICATION_NDJSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(2))
+				.andExpect(jsonPath("$.failed").value(1))
+				.andExpect(jsonPath("$.errors[0].row").value(2))
+				.andExpect(jsonPath("$.errors[0].message").value("Row exceeds 1048576 characters"));
+	}
+
+	@Test
+	void importsRemainingRowsWhenTitleIsTooLong() throws Exception {
+		String body = "title,content\n"
+				+ "a,first\n"
+				+ "t".repeat(256) + ",too long\n"
+				+ "t".repeat(255) + ",third\n";
+
+		mockMvc.perform(post("/api/notes/import").with(user).contentType("text/csv").content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(2))
+				.andExpect(jsonPath("$.failed").value(1))
+				.andExpect(jsonPath("$.errors[0].row").value(3))
+				.andExpect(jsonPath("$.errors[0].message").value("Title cannot be longer than 255 characters"));
+	}
+
+	@Test
+	void updatesNoteWhenIfMatchHasCurrentETag() throws Exception {
+		int id = createNoteAndGetId("title", "content");
+		String eTag = fetchETag(id);
+
+		mockMvc.perform(put("/api/notes/" + id).with(user).header(HttpHeaders.IF_MATCH, eTag)
+				.contentType(MediaType.APPLICATION_JSON).content(noteJson("title", "edited")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Constants.UPDATE_SUCCESS));
+
+		mockMvc.perform(get("/api/notes/" + id).with(user))
+				.andExpect(jsonPath("$.content").value("edited"))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-1\""));
+	}
+
+	@Test
+	void rejectsUpdateAndDeleteWithStaleETag() throws Exception {
+		int id = createNoteAndGetId("title", "content");
+		String staleETag = fetchETag(id);
+		mockMvc.perform(put("/api/notes/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+				.content(noteJson("title", "concurrent edit")))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(put("/api/notes/" + id).with(user).header(HttpHeaders.IF_MATCH, staleETag)
+				.contentType(MediaType.APPLICATION_JSON).content(noteJson("title", "lost update")))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(jsonPath("$.fieldName").value("If-Match"))
+				.andExpect(jsonPath("$.message").value(Constants.VERSION_MISMATCH_MESSAGE));
+		mockMvc.perform(delete("/api/notes/" + id).with(user).header(HttpHeaders.IF_MATCH, staleETag))
+				.andExpect(status().isPreconditionFailed());
+
+		mockMvc.perform(get("/api/notes/" + id).with(user))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content").value("concurrent edit"));
+	}
+
+	@Test
+	void rejectsIfMatchOfAnotherNote() throws Exception {
+		int id = createNoteAndGetId("title", "content");
+
+		mockMvc.perform(put("/api/notes/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"" + (id + 1) + "-0\"")
+				.contentType(MediaType.APPLICATION_JSON).content(noteJson("title", "edited")))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void deletesNoteWhenIfMatchHasCurrentETagOrIsWildcard() throws Exception {
+		int first = createNoteAndGetId("first", "content");
+		int second = createNoteAndGetId("second", "content");
+
+		mockMvc.perform(delete("/api/notes/" + first).with(user).header(HttpHeaders.IF_MATCH, fetchETag(first)))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Constants.DELETE_SUCCESS));
+		mockMvc.perform(delete("/api/notes/" + second).with(user).header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/notes/" + first).with(user)).andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/notes/" + second).with(user)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void answersNoteRequestWithMatchingETagWithNotModified() throws Exception {
+		int id = createNoteAndGetId("title", "content");
+		String eTag = fetchETag(id);
+
+		mockMvc.perform(get("/api/notes/" + id).with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(content().string(""));
+
+		mockMvc.perform(put("/api/notes/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+				.content(noteJson("title", "edited")))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/notes/" + id).with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content").value("edited"));
+	}
+
+	@Test
+	void answersNoteListRequestWithMatchingETagWithNotModified() throws Exception {
+		createNote("first", "content");
+		String eTag = mockMvc.perform(get("/api/notes").with(user))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/notes").with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+
+		createNote("second", "content");
+		mockMvc.perform(get("/api/notes").with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(2));
+	}
+
+	@Test
+	void doesNotShareETagsBetweenUsers() throws Exception {
+		createNote("first", "content");
+		String eTag = mockMvc.perform(get("/api/notes").with(user))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/notes").with(jwt().jwt(jwt -> jwt.subject(UUID.randomUUID().toString())))
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(0));
+	}
+
+	@Test
+	void searchSeesChangesOnceCommitted() throws Exception {
+		int id = createNoteAndGetId("groceries", "Buy strawberries");
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "milk"))
+				.andExpect(jsonPath("$.items.length()").value(0));
+
+		mockMvc.perform(put("/api/notes/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+				.content(noteJson("groceries", "Buy milk")))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "milk"))
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].content").value("Buy milk"));
+		mockMvc.perform(delete("/api/notes/" + id).with(user)).andExpect(status().isOk());
+		mockMvc.perform(get("/api/notes/search").with(user).param("query", "milk"))
+				.andExpect(jsonPath("$.items.length()").value(0));
+	}
+
+	@Test
+	void pagesThroughFullSync() throws Exception {
+		createNote("first", "a");
+		createNote("second", "b");
+		createNote("third", "c");
+
+		String body = mockMvc.perform(get("/api/notes/changes").with(user).param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated.length()").value(2))
+				.andExpect(jsonPath("$.deleted.length()").value(0))
+				.andExpect(jsonPath("$.hasMore").value(true))
+				.andReturn().getResponse().getContentAsString();
+
+		mockMvc.perform(get("/api/notes/changes").with(user).param("limit", "2")
+				.param("since", JsonPath.<String>read(body, "$.nextCursor")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated.length()").value(1))
+				.andExpect(jsonPath("$.hasMore").value(false));
+	}
+
+	@Test
+	void returnsUpdatesAndTombstonesSinceCursor() throws Exception {
+		int kept = createNoteAndGetId("kept", "content");
+		int deleted = createNoteAndGetId("deleted", "content");
+		createNoteAndGetId("unchanged", "content");
+		String body = mockMvc.perform(get("/api/notes/changes").with(user))
+				.andExpect(jsonPath("$.updated.length()").value(3))
+				.andReturn().getResponse().getContentAsString();
+		String cursor = JsonPath.read(body, "$.nextCursor");
+
+		mockMvc.perform(put("/api/notes/" + kept).with(user).contentType(MediaType.APPLICATION_JSON)
+				.content(noteJson("kept", "edited")))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/notes/" + deleted).with(user)).andExpect(status().isOk());
+		createNote("created", "content");
+
+		body = mockMvc.perform(get("/api/notes/changes").with(user).param("since", cursor))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated.length()").value(2))
+				.andExpect(jsonPath("$.updated[0].id").value(kept))
+				.andExpect(jsonPath("$.updated[0].content").value("edited"))
+				.andExpect(jsonPath("$.updated[1].title").value("created"))
+				.andExpect(jsonPath("$.deleted.length()").value(1))
+				.andExpect(jsonPath("$.deleted[0]").value(deleted))
+				.andExpect(jsonPath("$.hasMore").value(false))
+				.andReturn().getResponse().getContentAsString();
+
+		mockMvc.perform(get("/api/notes/changes").with(user).param("since", JsonPath.<String>read(body, "$.nextCursor")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated.length()").value(0))
+				.andExpect(jsonPath("$.deleted.length()").value(0));
+	}
+
+	@Test
+	void rejectsCursorOlderThanTombstoneRetention() throws Exception {
+		long issuedAt = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31);
+
+		mockMvc.perform(get("/api/notes/changes").with(user).param("since", new ChangeCursor(0, 0, issuedAt).encode()))
+				.andExpect(status().isGone())
+				.andExpect(jsonPath("$.fieldName").value("since"))
+				.andExpect(jsonPath("$.message").value(Constants.SYNC_CURSOR_EXPIRED_MESSAGE));
+	}
+
+	@Test
+	void rejectsTamperedSyncCursor() throws Exception {
+		mockMvc.perform(get("/api/notes/changes").with(user).param("since", "bm90LWEtY3Vyc29y"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.fieldName").value("since"));
+	}
+}
@@ -0,0 +1,229 @@
+package com.speer.sharenotex.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.speer.sharenotex.util.Constants;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NoteEventBrokerTest {
+
+	private static final String HEARTBEAT = "heartbeat";
+
+	private NoteEventBroker broker = broker(256, 100);
+
+	@AfterEach
+	void tearDown() {
+		broker.close();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static NoteEventBroker broker(int bufferSize, int replaySize) {
+		return new NoteEventBroker(bufferSize, replaySize, 300_000, 100_000, 1_800_000) {
+			@Override
+			SseEmitter createEmitter(long timeout) {
+				return new RecordingEmitter(timeout);
+			}
+		};
+	}
+
+	private void restartBroker(int bufferSize, int replaySize) {
+		broker.close();
+		broker = broker(bufferSize, replaySize);
+	}
+
+	private RecordingEmitter subscribe(Long lastEventId) {
+		return (RecordingEmitter) broker.subscribe("user", lastEventId);
+	}
+
+	/**
+	 * Emitter recording the events and heartbeats sent on it, optionally blocking
+	 * on the first send until released.
+	 */
+	private static class RecordingEmitter extends SseEmitter {
+
+		private final BlockingQueue<Object> sent = new LinkedBlockingQueue<>();
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private CountDownLatch release = new CountDownLatch(0);
+
+		private RecordingEmitter(long timeout) {
+			super(timeout);
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			sending.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			Object data = builder.build().stream().map(DataWithMediaType::getData)
+					.filter(NoteEvent.class::isInstance).findFirst().orElse(HEARTBEAT);
+			sent.add(data);
+		}
+
+		private Object next() throws InterruptedException {
+			Object next = sent.poll(5, TimeUnit.SECONDS);
+			assertNotNull(next, "nothing was sent");
+			return next;
+		}
+
+		private NoteEvent nextEvent() throws InterruptedException {
+			return (NoteEvent) next();
+		}
+
+		private void assertNothingMoreSent() throws InterruptedException {
+			assertNull(sent.poll(100, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	@Test
+	void sendsPublishedEventsInOrder() throws InterruptedException {
+		RecordingEmitter emitter = subscribe(null);
+
+		broker.publish("user", NoteEventType.CREATED, 1);
+		broker.publish("other", NoteEventType.CREATED, 2);
+		broker.publish("user", NoteEventType.SHARED, 3, "friend");
+
+		NoteEvent created = emitter.nextEvent();
+		NoteEvent shared = emitter.nextEvent();
+		assertEquals(NoteEventType.CREATED, created.type());
+		assertEquals(1, created.noteId());
+		assertEquals(new NoteEvent(shared.id(), NoteEventType.SHARED, 3, "friend"), shared);
+		assertTrue(shared.id() > created.id());
+		emitter.assertNothingMoreSent();
+	}
+
+	@Test
+	void replacesQueuedEventsWithResyncWhenBufferOverflows() throws InterruptedException {
+		restartBroker(2, 100);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		broker.bindTo(registry);
+		RecordingEmitter emitter = subscribe(null);
+		emitter.release = new CountDownLatch(1);
+
+		broker.publish("user", NoteEventType.CREATED, 1);
+		// The first event is being sent, the next two fill the buffer and the last overflows it
+		assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+		broker.publish("user", NoteEventType.UPDATED, 1);
+		broker.publish("user", NoteEventType.UPDATED, 1);
+		broker.publish("user", NoteEventType.DELETED, 1);
+		emitter.release.countDown();
+
+		NoteEvent first = emitter.nextEvent();
+		NoteEvent resync = emitter.nextEvent();
+		assertEquals(NoteEventType.CREATED, first.type());
+		assertEquals(new NoteEvent(first.id() + 3, NoteEventType.RESYNC, null, null), resync);
+		emitter.assertNothingMoreSent();
+		assertEquals(1, registry.get(Constants.METRIC_STREAM_OVERFLOWS).functionCounter().count());
+	}
+
+	@Test
+	void replaysEventsMissedSinceLastEventId() throws InterruptedException {
+		RecordingEmitter first = subscribe(null);
+		broker.publish("user", NoteEventType.CREATED, 1);
+		broker.publish("user", NoteEventType.UPDATED, 1);
+		broker.publish("user", NoteEventType.DELETED, 1);
+		NoteEvent received = first.nextEvent();
+
+		RecordingEmitter reconnected = subscribe(received.id());
+
+		assertEquals(NoteEventType.UPDATED, reconnected.nextEvent().type());
+		assertEquals(NoteEventType.DELETED, reconnected.nextEvent().type());
+		reconnected.assertNothingMoreSent();
+	}
+
+	@Test
+	void resyncsWhenLastEventIdIsOlderThanReplayedEvents() throws InterruptedException {
+		restartBroker(256, 2);
+		RecordingEmitter first = subscribe(null);
+		for (int i = 0; i < 4; i++) {
+			broker.publish("user", NoteEventType.UPDATED, 1);
+		}
+		NoteEvent oldest = first.nextEvent();
+
+		RecordingEmitter reconnected = subscribe(oldest.id());
+
+		NoteEvent resync = reconnected.nextEvent();
+		assertEquals(NoteEventType.RESYNC, resync.type());
+		assertEquals(oldest.id() + 3, resync.id());
+		reconnected.assertNothingMoreSent();
+	}
+
+	@Test
+	void resyncsWhenLastEventIdIsFromBeforeRestart() throws InterruptedException {
+		RecordingEmitter first = subscribe(null);
+		broker.publish("user", NoteEventType.CREATED, 1);
+		long lastEventId = first.nextEvent().id();
+
+		restartBroker(256, 100);
+		RecordingEmitter reconnected = subscribe(lastEventId);
+
+		assertEquals(NoteEventType.RESYNC, reconnected.nextEvent().type());
+		reconnected.assertNothingMoreSent();
+	}
+
+	@Test
+	void resyncsWhenLastEventIdIsUnknown() throws InterruptedException {
+		RecordingEmitter first = subscribe(null);
+		broker.publish("user", NoteEventType.CREATED, 1);
+		long lastEventId = first.nextEvent().id();
+
+		RecordingEmitter reconnected = subscribe(lastEventId + 1000);
+
+		assertEquals(new NoteEvent(lastEventId, NoteEventType.RESYNC, null, null), reconnected.nextEvent());
+	}
+
+	@Test
+	void sendsHeartbeatOnIdleConnections() throws InterruptedException {
+		RecordingEmitter emitter = subscribe(null);
+
+		broker.heartbeat();
+
+		assertEquals(HEARTBEAT, emitter.next());
+	}
+
+	@Test
+	void publishesOnlyAfterCommit() throws InterruptedException {
+		RecordingEmitter emitter = subscribe(null);
+		TransactionSynchronizationManager.initSynchronization();
+
+		broker.publish("user", NoteEventType.CREATED, 1);
+		emitter.assertNothingMoreSent();
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertEquals(NoteEventType.CREATED, emitter.nextEvent().type());
+	}
+
+	@Test
+	void dropsEventsOfRolledBackTransaction() throws InterruptedException {
+		RecordingEmitter emitter = subscribe(null);
+		TransactionSynchronizationManager.initSynchronization();
+
+		broker.publish("user", NoteEventType.CREATED, 1);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		emitter.assertNothingMoreSent();
+	}
+}
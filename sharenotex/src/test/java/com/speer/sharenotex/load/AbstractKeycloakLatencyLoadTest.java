@@ -0,0 +1,108 @@
+package com.speer.sharenotex.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load test of the login endpoint against a Keycloak stub that answers token
+ * requests after a fixed delay. While the logins are in flight, cheap probe
+ * requests sent at a fixed interval measure whether the server still has
+ * capacity for other endpoints.
+ * Subclasses run the same scenario with platform threads, with virtual threads
+ * and on the reactive stack, each against the {@link LoadTestDatabase}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"server.tomcat.threads.max=20", "spring.jpa.show-sql=false",
+		"com.sharenotex.rate-limit.endpoints.AuthController.login.limit=1000000" })
+@Slf4j
+abstract class AbstractKeycloakLatencyLoadTest {
+
+	static final Duration KEYCLOAK_LATENCY = Duration.ofMillis(500);
+	static final int CONCURRENT_LOGINS = 100;
+	static final int PROBES = 20;
+	static final Duration PROBE_INTERVAL = Duration.ofMillis(50);
+
+	private static final KeycloakStub KEYCLOAK = KeycloakStub.start(KEYCLOAK_LATENCY);
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void keycloakProperties(DynamicPropertyRegistry registry) {
+		registry.add("com.keycloak.server.url", KEYCLOAK::url);
+		LoadTestDatabase.register(registry);
+	}
+
+	/**
+	 * Checks the latency of the probe requests sent while the logins were in
+	 * flight.
+	 *
+	 * @param medianProbe Median latency of the probe requests.
+	 */
+	abstract void verifyProbeLatency(Duration medianProbe);
+
+	@Test
+	void loginsUnderKeycloakLatency() throws Exception {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+		HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"userName\":\"load\",\"password\":\"load\"}")).build();
+		HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/notes")).GET()
+				.build();
+
+		// Warm up both paths so that the measurement excludes class loading and
+		// connection setup.
+		assertEquals(200, client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode());
+		assertEquals(401, client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+		long start = System.nanoTime();
+		List<CompletableFuture<HttpResponse<String>>> logins = new ArrayList<>();
+		for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+			logins.add(client.sendAsync(login, HttpResponse.BodyHandlers.ofString()));
+		}
+
+		List<CompletableFuture<Duration>> probes = new ArrayList<>();
+		for (int i = 0; i < PROBES; i++) {
+			Thread.sleep(PROBE_INTERVAL);
+			long probeStart = System.nanoTime();
+			probes.add(client.sendAsync(probe, HttpResponse.BodyHandlers.discarding()).thenApply(response -> {
+				assertEquals(401, response.statusCode());
+				return Duration.ofNanos(System.nanoTime() - probeStart);
+			}));
+		}
+
+		for (CompletableFuture<HttpResponse<String>> response : logins) {
+			assertEquals(200, response.join().statusCode());
+		}
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+		List<Duration> probeLatencies = new ArrayList<>(probes.stream().map(CompletableFuture::join).toList());
+		Collections.sort(probeLatencies);
+		Duration medianProbe = probeLatencies.get(PROBES / 2);
+		log.info("{}: {} logins with {} ms Keycloak latency in {} ms ({} logins/s), probe median {} ms, max {} ms",
+				getClass().getSimpleName(), CONCURRENT_LOGINS, KEYCLOAK_LATENCY.toMillis(), elapsed.toMillis(),
+				String.format("%.1f", CONCURRENT_LOGINS * 1000.0 / elapsed.toMillis()), medianProbe.toMillis(),
+				probeLatencies.get(PROBES - 1).toMillis());
+		verifyProbeLatency(medianProbe);
+	}
+}
@@ -0,0 +1,160 @@
+package com.speer.sharenotex.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.speer.sharenotex.load.LatencyRecorder.EndpointStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end load test of the API on a self-contained stack: an embedded
+ * PostgreSQL server (see {@link LoadTestDatabase}) and a {@link KeycloakStub}
+ * that mints real JWTs. Every simulated user runs a closed loop of create,
+ * list, search and share requests, with a login every tenth iteration, and the
+ * test reports throughput and p50/p99 latency per endpoint.
+ * <p>
+ * The load is tuned with {@code loadtest.users}, {@code loadtest.duration}
+ * (seconds) and {@code loadtest.keycloak-latency} (milliseconds); the report is
+ * written to {@code loadtest.report}, by default
+ * {@code target/load-report.json}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.show-sql=false", "logging.level.com.speer.sharenotex=WARN",
+		"logging.level.com.speer.sharenotex.load=INFO",
+		"com.sharenotex.rate-limit.endpoints.AuthController.login.limit=1000000",
+		"com.sharenotex.rate-limit.endpoints.NoteController.newNote.limit=1000000",
+		"com.sharenotex.rate-limit.endpoints.NoteController.fetchAllNote.limit=1000000",
+		"com.sharenotex.rate-limit.endpoints.NoteController.searchNotes.limit=1000000",
+		"com.sharenotex.rate-limit.endpoints.NoteController.shareNote.limit=1000000" })
+@Slf4j
+class ApiLoadTest {
+
+	private static final int USERS = Integer.getInteger("loadtest.users", 20);
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration", 20));
+	private static final int LOGIN_EVERY = 10;
+	private static final Pattern FIRST_ID = Pattern.compile("\"id\":(\\d+)");
+
+	private static final KeycloakStub KEYCLOAK = KeycloakStub
+			.start(Duration.ofMillis(Long.getLong("loadtest.keycloak-latency", 20)));
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+	private final LatencyRecorder recorder = new LatencyRecorder();
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("com.keycloak.server.url", KEYCLOAK::url);
+		LoadTestDatabase.register(registry);
+	}
+
+	@Test
+	void mixedWorkload() throws Exception {
+		List<String> userNames = new ArrayList<>();
+		List<String> userIds = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			String userName = "load-" + i + "-" + System.nanoTime();
+			userNames.add(userName);
+			userIds.add(KEYCLOAK.registerUser(userName));
+		}
+
+		// Warm up every endpoint before measuring
+		for (int i = 0; i < USERS; i++) {
+			runIteration(new LatencyRecorder(), userNames.get(i), userIds.get((i + 1) % USERS), 0);
+		}
+
+		long start = System.nanoTime();
+		long deadline = start + DURATION.toNanos();
+		List<Future<Integer>> workers = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < USERS; i++) {
+				String userName = userNames.get(i);
+				String recipient = userIds.get((i + 1) % USERS);
+				workers.add(executor.submit(() -> {
+					int iterations = 0;
+					while (System.nanoTime() < deadline) {
+						runIteration(recorder, userName, recipient, ++iterations);
+					}
+					return iterations;
+				}));
+			}
+		}
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+		int iterations = 0;
+		for (Future<Integer> worker : workers) {
+			iterations += worker.get();
+		}
+
+		List<EndpointStats> stats = recorder.summarize(elapsed);
+		log.info("{} users, {} iterations in {} ms", USERS, iterations, elapsed.toMillis());
+		LatencyRecorder.report(stats, new File(System.getProperty("loadtest.report", "target/load-report.json")));
+		assertTrue(iterations > 0, "No iteration completed");
+		for (EndpointStats endpoint : stats) {
+			assertEquals(0, endpoint.errors(), endpoint.endpoint() + " answered with unexpected statuses");
+		}
+	}
+
+	private void runIteration(LatencyRecorder recorder, String userName, String recipient, int iteration)
+			throws Exception {
+		String token = KEYCLOAK.mintToken(userName);
+		send(recorder, "create", HttpRequest.newBuilder(uri("/api/notes")).header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"title\":\"Load %d\",\"content\":\"load test note %d of %s\"}".formatted(iteration,
+								iteration, userName))));
+		HttpResponse<String> list = send(recorder, "list", HttpRequest.newBuilder(uri("/api/notes?limit=20"))
+				.header("Authorization", "Bearer " + token).GET());
+		send(recorder, "search", HttpRequest.newBuilder(uri("/api/notes/search?query=load&limit=20"))
+				.header("Authorization", "Bearer " + token).GET());
+		Matcher noteId = FIRST_ID.matcher(list.body());
+		if (noteId.find()) {
+			send(recorder, "share", HttpRequest.newBuilder(uri("/api/notes/share"))
+					.header("Authorization", "Bearer " + token).header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers
+							.ofString("{\"noteId\":%s,\"sharedTo\":\"%s\"}".formatted(noteId.group(1), recipient))));
+		}
+		if (iteration % LOGIN_EVERY == 0) {
+			send(recorder, "login",
+					HttpRequest.newBuilder(uri("/api/auth/login")).header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers
+									.ofString("{\"userName\":\"%s\",\"password\":\"load\"}".formatted(userName))));
+		}
+	}
+
+	private HttpResponse<String> send(LatencyRecorder recorder, String endpoint, HttpRequest.Builder request)
+			throws Exception {
+		long start = System.nanoTime();
+		HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		recorder.record(endpoint, System.nanoTime() - start, response.statusCode() == 200);
+		return response;
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+}
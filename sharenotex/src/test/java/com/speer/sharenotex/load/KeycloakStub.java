@@ -0,0 +1,227 @@
+package com.speer.sharenotex.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stand-in for the Keycloak endpoints the application calls: the token
+ * endpoint, the JWK set, and the admin endpoints used for registration and
+ * user lookups. Tokens are JWTs signed with a key generated at start-up and
+ * published through the JWK set, so the application validates them like real
+ * Keycloak tokens. Logins are answered after a configurable delay, while the
+ * admin client's token requests are answered at once. Like a client-side token
+ * cache, the stub hands out the same token to a user until half of its
+ * lifetime has passed, which keeps RSA signing from dominating the CPU profile
+ * of the tests.
+ */
+final class KeycloakStub implements AutoCloseable {
+
+	private static final Pattern TOKEN_PATH = Pattern.compile("/realms/[^/]+/protocol/openid-connect/token");
+	private static final Pattern CERTS_PATH = Pattern.compile("/realms/[^/]+/protocol/openid-connect/certs");
+	private static final Pattern USERS_PATH = Pattern.compile("/admin/realms/[^/]+/users");
+	private static final Pattern USER_PATH = Pattern.compile("/admin/realms/[^/]+/users/([^/]+)");
+	private static final Pattern ROLE_MAPPINGS_PATH = Pattern
+			.compile("/admin/realms/[^/]+/users/[^/]+/role-mappings/realm");
+	private static final Pattern ROLE_PATH = Pattern.compile("/admin/realms/[^/]+/roles/([^/]+)");
+	private static final Pattern USERNAME_FIELD = Pattern.compile("\"username\"\\s*:\\s*\"([^\"]*)\"");
+	private static final String ADMIN_CLIENT_ID = "admin-cli";
+	private static final Duration TOKEN_LIFETIME = Duration.ofMinutes(5);
+
+	private final HttpServer server;
+	private final ExecutorService delayedResponses = Executors.newVirtualThreadPerTaskExecutor();
+	private final Duration tokenLatency;
+	private final RSAKey signingKey;
+	private final ConcurrentMap<String, String> userNames = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, IssuedToken> issuedTokens = new ConcurrentHashMap<>();
+
+	private record IssuedToken(String token, Instant renewAt) {
+	}
+
+	private KeycloakStub(Duration tokenLatency) throws IOException, JOSEException {
+		this.tokenLatency = tokenLatency;
+		this.signingKey = new RSAKeyGenerator(2048).keyID("load-test").generate();
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+		server.createContext("/", this::handle);
+		// Requests are handled on the server's dispatcher thread, and only delayed
+		// login responses wait on virtual threads: the admin client's token and
+		// admin calls are answered without a carrier, which the application's
+		// blocking admin client may be pinning while it waits for the answer
+		server.start();
+	}
+
+	/**
+	 * Starts a stub on a free local port.
+	 *
+	 * @param tokenLatency Delay before token requests are answered.
+	 * @return The running stub.
+	 */
+	static KeycloakStub start(Duration tokenLatency) {
+		try {
+			return new KeycloakStub(tokenLatency);
+		} catch (IOException | JOSEException e) {
+			throw new IllegalStateException("Failed to start the Keycloak stub", e);
+		}
+	}
+
+	/**
+	 * @return Base URL of the stub, to be used as {@code com.keycloak.server.url}.
+	 */
+	String url() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Registers a user, as if created through the admin API.
+	 *
+	 * @param userName User name of the user.
+	 * @return The user's ID, which is also the subject of its tokens.
+	 */
+	String registerUser(String userName) {
+		String userId = userId(userName);
+		userNames.put(userId, userName);
+		return userId;
+	}
+
+	/**
+	 * Issues an access token for a user without a round trip to the token
+	 * endpoint.
+	 *
+	 * @param userName User name of the user.
+	 * @return Signed JWT whose subject is the user's ID.
+	 */
+	String mintToken(String userName) {
+		Instant now = Instant.now();
+		return issuedTokens.compute(userName, (name, issued) -> issued != null && now.isBefore(issued.renewAt())
+				? issued
+				: new IssuedToken(sign(name, now), now.plus(TOKEN_LIFETIME.dividedBy(2)))).token();
+	}
+
+	private String sign(String userName, Instant now) {
+		JWTClaimsSet claims = new JWTClaimsSet.Builder().subject(userId(userName)).claim("preferred_username", userName)
+				.issuer(url() + "/realms/stub").issueTime(Date.from(now))
+				.expirationTime(Date.from(now.plus(TOKEN_LIFETIME))).build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+				claims);
+		try {
+			jwt.sign(new RSASSASigner(signingKey));
+		} catch (JOSEException e) {
+			throw new IllegalStateException(e);
+		}
+		return jwt.serialize();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		delayedResponses.shutdownNow();
+	}
+
+	private static String userId(String userName) {
+		return UUID.nameUUIDFromBytes(userName.getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+		String path = exchange.getRequestURI().getPath();
+		String method = exchange.getRequestMethod();
+		if ("POST".equals(method) && TOKEN_PATH.matcher(path).matches()) {
+			Map<String, String> form = form(body);
+			String userName = form.getOrDefault("username", "admin");
+			if (ADMIN_CLIENT_ID.equals(form.get("client_id"))) {
+				respond(exchange, 200, tokenResponse(userName));
+			} else {
+				delayedResponses.execute(() -> {
+					try {
+						Thread.sleep(tokenLatency);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					respond(exchange, 200, tokenResponse(userName));
+				});
+			}
+			return;
+		}
+		Matcher matcher;
+		if ("GET".equals(method) && CERTS_PATH.matcher(path).matches()) {
+			respond(exchange, 200, new JWKSet(signingKey.toPublicJWK()).toString());
+		} else if ("POST".equals(method) && USERS_PATH.matcher(path).matches()) {
+			Matcher userName = USERNAME_FIELD.matcher(body);
+			String userId = registerUser(userName.find() ? userName.group(1) : UUID.randomUUID().toString());
+			exchange.getResponseHeaders().add("Location", url() + path + "/" + userId);
+			respond(exchange, 201, "");
+		} else if ("POST".equals(method) && ROLE_MAPPINGS_PATH.matcher(path).matches()) {
+			respond(exchange, 204, "");
+		} else if ("GET".equals(method) && (matcher = USER_PATH.matcher(path)).matches()) {
+			String userName = userNames.get(matcher.group(1));
+			if (userName == null) {
+				respond(exchange, 404, "{\"error\":\"User not found\"}");
+			} else {
+				respond(exchange, 200, "{\"id\":\"%s\",\"username\":\"%s\",\"enabled\":true}"
+						.formatted(matcher.group(1), userName));
+			}
+		} else if ("GET".equals(method) && (matcher = ROLE_PATH.matcher(path)).matches()) {
+			respond(exchange, 200, "{\"id\":\"%s\",\"name\":\"%s\"}".formatted(userId(matcher.group(1)),
+					matcher.group(1)));
+		} else {
+			respond(exchange, 404, "{\"error\":\"Not stubbed\"}");
+		}
+	}
+
+	private String tokenResponse(String userName) {
+		return """
+				{"access_token":"%s","expires_in":%d,"refresh_token":"refresh","refresh_expires_in":1800,\
+				"token_type":"Bearer"}""".formatted(mintToken(userName), TOKEN_LIFETIME.toSeconds());
+	}
+
+	private static Map<String, String> form(String body) {
+		return Arrays.stream(body.split("&")).map(pair -> pair.split("=", 2)).filter(pair -> pair.length == 2)
+				.collect(Collectors.toMap(pair -> URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+						pair -> URLDecoder.decode(pair[1], StandardCharsets.UTF_8), (first, second) -> second));
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) {
+		try (exchange) {
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > 0) {
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+			}
+			exchange.sendResponseHeaders(status, bytes.length > 0 ? bytes.length : -1);
+			if (bytes.length > 0) {
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(bytes);
+				}
+			}
+		} catch (IOException e) {
+			// The client went away; nothing to answer
+		}
+	}
+}
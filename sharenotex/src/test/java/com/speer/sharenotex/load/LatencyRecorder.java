@@ -0,0 +1,101 @@
+package com.speer.sharenotex.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects request latencies per endpoint from concurrent workers and
+ * summarizes them as throughput and latency percentiles.
+ */
+@Slf4j
+final class LatencyRecorder {
+
+	/**
+	 * Summary of the requests to one endpoint.
+	 *
+	 * @param endpoint   Name of the endpoint.
+	 * @param requests   Number of requests sent.
+	 * @param errors     Number of requests answered with an unexpected status.
+	 * @param throughput Requests per second over the measurement.
+	 * @param p50Millis  Median latency in milliseconds.
+	 * @param p99Millis  99th percentile latency in milliseconds.
+	 * @param maxMillis  Maximum latency in milliseconds.
+	 */
+	record EndpointStats(String endpoint, long requests, long errors, double throughput, double p50Millis,
+			double p99Millis, double maxMillis) {
+	}
+
+	private final Map<String, Queue<Long>> latencies = new ConcurrentSkipListMap<>();
+	private final Map<String, LongAdder> errors = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Records one request.
+	 *
+	 * @param endpoint Name of the endpoint.
+	 * @param nanos    Latency of the request in nanoseconds.
+	 * @param success  Whether the request was answered with the expected status.
+	 */
+	void record(String endpoint, long nanos, boolean success) {
+		latencies.computeIfAbsent(endpoint, e -> new ConcurrentLinkedQueue<>()).add(nanos);
+		LongAdder endpointErrors = errors.computeIfAbsent(endpoint, e -> new LongAdder());
+		if (!success) {
+			endpointErrors.increment();
+		}
+	}
+
+	/**
+	 * Summarizes the recorded requests.
+	 *
+	 * @param elapsed Duration of the measurement.
+	 * @return Statistics per endpoint, ordered by endpoint name.
+	 */
+	List<EndpointStats> summarize(Duration elapsed) {
+		List<EndpointStats> stats = new ArrayList<>();
+		latencies.forEach((endpoint, values) -> {
+			List<Long> sorted = new ArrayList<>(values);
+			Collections.sort(sorted);
+			stats.add(new EndpointStats(endpoint, sorted.size(), errors.get(endpoint).sum(),
+					sorted.size() * 1000.0 / elapsed.toMillis(), percentile(sorted, 0.50), percentile(sorted, 0.99),
+					sorted.get(sorted.size() - 1) / 1_000_000.0));
+		});
+		return stats;
+	}
+
+	/**
+	 * Logs the statistics as a table and writes them as JSON.
+	 *
+	 * @param stats  Statistics per endpoint.
+	 * @param report File to write the JSON report to.
+	 * @throws IOException if the report cannot be written.
+	 */
+	static void report(List<EndpointStats> stats, File report) throws IOException {
+		StringBuilder table = new StringBuilder(String.format("%-10s %9s %7s %10s %9s %9s %9s", "endpoint",
+				"requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+		for (EndpointStats endpoint : stats) {
+			table.append(String.format("%n%-10s %9d %7d %10.1f %9.1f %9.1f %9.1f", endpoint.endpoint(),
+					endpoint.requests(), endpoint.errors(), endpoint.throughput(), endpoint.p50Millis(),
+					endpoint.p99Millis(), endpoint.maxMillis()));
+		}
+		log.info("Latency per endpoint:{}{}", System.lineSeparator(), table);
+		report.getParentFile().mkdirs();
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report, stats);
+	}
+
+	private static double percentile(List<Long> sorted, double percentile) {
+		int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+		return sorted.get(Math.max(0, index)) / 1_000_000.0;
+	}
+}
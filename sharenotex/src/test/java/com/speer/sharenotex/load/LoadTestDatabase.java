@@ -0,0 +1,83 @@
+package com.speer.sharenotex.load;
+
+import java.io.IOException;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Database for the load tests. By default an embedded PostgreSQL server is
+ * started once per JVM; setting {@code loadtest.datasource.url} (with
+ * {@code loadtest.datasource.username} and {@code .password}) runs the tests
+ * against an existing server instead, e.g. where PostgreSQL cannot be started
+ * by the current user. The reactive profile reaches the same database through
+ * R2DBC.
+ */
+final class LoadTestDatabase {
+
+	private static EmbeddedPostgres embeddedPostgres;
+
+	private LoadTestDatabase() {
+	}
+
+	/**
+	 * Points the application's JDBC data source, and the R2DBC connection factory
+	 * of the reactive profile, at the load-test database.
+	 *
+	 * @param registry Registry of the test's dynamic properties.
+	 */
+	static void register(DynamicPropertyRegistry registry) {
+		String url = System.getProperty("loadtest.datasource.url");
+		if (url != null) {
+			String username = System.getProperty("loadtest.datasource.username");
+			String password = System.getProperty("loadtest.datasource.password");
+			registry.add("spring.datasource.url", () -> url);
+			registry.add("spring.datasource.username", () -> username);
+			registry.add("spring.datasource.password", () -> password);
+			registry.add("spring.r2dbc.url", () -> toR2dbcUrl(url));
+			registry.add("spring.r2dbc.username", () -> username);
+			registry.add("spring.r2dbc.password", () -> password);
+			return;
+		}
+		EmbeddedPostgres postgres = embeddedPostgres();
+		registry.add("spring.datasource.url",
+				() -> postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "");
+		registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+		registry.add("spring.r2dbc.username", () -> "postgres");
+		registry.add("spring.r2dbc.password", () -> "");
+	}
+
+	/**
+	 * Converts a PostgreSQL JDBC URL into the R2DBC URL of the same database.
+	 * Query parameters are dropped, as they are JDBC driver settings.
+	 *
+	 * @param jdbcUrl JDBC URL, e.g. {@code jdbc:postgresql://host:5432/db?ssl=true}.
+	 * @return The R2DBC URL, e.g. {@code r2dbc:postgresql://host:5432/db}.
+	 */
+	private static String toR2dbcUrl(String jdbcUrl) {
+		int query = jdbcUrl.indexOf('?');
+		String url = query >= 0 ? jdbcUrl.substring(0, query) : jdbcUrl;
+		return "r2dbc:" + url.substring("jdbc:".length());
+	}
+
+	private static synchronized EmbeddedPostgres embeddedPostgres() {
+		if (embeddedPostgres == null) {
+			try {
+				embeddedPostgres = EmbeddedPostgres.builder().start();
+			} catch (IOException e) {
+				throw new IllegalStateException("Failed to start embedded PostgreSQL", e);
+			}
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					embeddedPostgres.close();
+				} catch (IOException e) {
+					// The server is stopped with the JVM either way
+				}
+			}));
+		}
+		return embeddedPostgres;
+	}
+}
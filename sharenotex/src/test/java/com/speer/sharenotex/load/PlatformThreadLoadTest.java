@@ -0,0 +1,16 @@
+package com.speer.sharenotex.load;
+
+import java.time.Duration;
+
+/**
+ * Runs the Keycloak latency scenario on the default pool of platform threads,
+ * as a baseline for {@link VirtualThreadLoadTest}. Other requests queue behind
+ * the logins once all request threads are waiting on Keycloak.
+ */
+class PlatformThreadLoadTest extends AbstractKeycloakLatencyLoadTest {
+
+	@Override
+	void verifyProbeLatency(Duration medianProbe) {
+		// Baseline only; the probe latency is reported, not asserted.
+	}
+}
@@ -0,0 +1,27 @@
+package com.speer.sharenotex.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the Keycloak latency scenario with the reactive profile. Logins waiting
+ * on Keycloak are pending WebClient calls rather than threads, so the event
+ * loop keeps serving other requests.
+ * The tables are only created by Hibernate in the servlet mode, so schema.sql
+ * is skipped: on a fresh embedded database it has no note table to alter, and
+ * neither the logins nor the unauthenticated probes read notes.
+ */
+@ActiveProfiles({ "development", "reactive" })
+@TestPropertySource(properties = "spring.sql.init.mode=never")
+class ReactiveLoadTest extends AbstractKeycloakLatencyLoadTest {
+
+	@Override
+	void verifyProbeLatency(Duration medianProbe) {
+		assertTrue(medianProbe.compareTo(KEYCLOAK_LATENCY.multipliedBy(2)) < 0,
+				"Median probe took " + medianProbe.toMillis() + " ms while logins were waiting on Keycloak");
+	}
+}
@@ -0,0 +1,24 @@
+package com.speer.sharenotex.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the Keycloak latency scenario with the virtual-threads profile. Logins
+ * waiting on Keycloak no longer hold a request thread, so other requests are
+ * served without waiting for Keycloak.
+ */
+@ActiveProfiles({ "development", "virtual-threads" })
+class VirtualThreadLoadTest extends AbstractKeycloakLatencyLoadTest {
+
+	@Override
+	void verifyProbeLatency(Duration medianProbe) {
+		// With platform threads probes wait for several rounds of Keycloak calls;
+		// the margin absorbs the CPU cost of the login burst on small machines.
+		assertTrue(medianProbe.compareTo(KEYCLOAK_LATENCY.multipliedBy(2)) < 0,
+				"Median probe took " + medianProbe.toMillis() + " ms while logins were waiting on Keycloak");
+	}
+}
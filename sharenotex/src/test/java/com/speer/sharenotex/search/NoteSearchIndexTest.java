@@ -0,0 +1,197 @@
+package com.speer.sharenotex.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.speer.sharenotex.repository.NoteRepository;
+import com.speer.sharenotex.search.NoteSearchIndex.Hit;
+
+class NoteSearchIndexTest {
+
+	@TempDir
+	private Path path;
+
+	private final NoteRepository noteRepository = mock(NoteRepository.class);
+	// Committed notes, read back by the index when it applies an update
+	private final Map<Integer, NoteIndexDocument> database = new ConcurrentHashMap<>();
+	private NoteSearchIndex index;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		when(noteRepository.findIndexDocumentById(anyInt()))
+				.thenAnswer(invocation -> Optional.ofNullable(database.get(invocation.getArgument(0))));
+		index = open(false);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		index.close();
+	}
+
+	private NoteSearchIndex open(boolean rebuildOnStartup) throws IOException {
+		return new NoteSearchIndex(noteRepository, mock(PlatformTransactionManager.class), path, rebuildOnStartup,
+				100_000);
+	}
+
+	private List<Integer> search(String userId, String query) {
+		index.refresh();
+		return index.search(userId, query, 10, 0).stream().map(Hit::id).toList();
+	}
+
+	private static NoteIndexDocument note(int id, String userId, String title, String content) {
+		return new NoteIndexDocument(id, userId, title, content, null);
+	}
+
+	private void save(int id, String userId, String title, String content) {
+		database.put(id, note(id, userId, title, content));
+		index.indexNote(id);
+	}
+
+	private void remove(int id) {
+		database.remove(id);
+		index.indexNote(id);
+	}
+
+	@Test
+	void findsNotesAsTheyAreIndexedAndDeleted() {
+		save(1, "user", "groceries", "Buy strawberries and milk");
+		save(2, "user", "chores", "Water the plants");
+
+		assertEquals(List.of(1), search("user", "milk"));
+
+		save(1, "user", "groceries", "Buy bread");
+		remove(2);
+
+		assertEquals(List.of(), search("user", "milk"));
+		assertEquals(List.of(1), search("user", "bread"));
+		assertEquals(List.of(), search("user", "plants"));
+	}
+
+	@Test
+	void indexesLatestVersionWhenUpdatesRunOutOfCommitOrder() {
+		save(1, "user", "groceries", "Buy milk");
+		// Two updates commit, and the update of the second one runs first
+		database.put(1, note(1, "user", "groceries", "Buy bread"));
+		database.put(1, note(1, "user", "groceries", "Buy cheese"));
+		index.indexNote(1);
+		index.indexNote(1);
+
+		assertEquals(List.of(1), search("user", "cheese"));
+		assertEquals(List.of(), search("user", "bread"));
+		assertEquals(List.of(), search("user", "milk"));
+	}
+
+	@Test
+	void supportsPrefixPhraseAndExcludedTerms() {
+		save(1, "user", "groceries", "Buy strawberries and milk");
+		save(2, "user", "dessert", "Milk and strawberry cake");
+
+		assertEquals(List.of(1), search("user", "strawberri*"));
+		assertEquals(List.of(1), search("user", "\"strawberries and milk\""));
+		assertEquals(List.of(2), search("user", "milk -groceries"));
+		assertEquals(2, search("user", "milk").size());
+	}
+
+	@Test
+	void ranksTitleMatchesFirstAndHighlightsSnippets() {
+		save(1, "user", "notes", "Remember the milk");
+		save(2, "user", "milk", "Remember it");
+		index.refresh();
+
+		List<Hit> hits = index.search("user", "milk", 10, 0);
+
+		assertEquals(2, hits.get(0).id());
+		assertEquals("Remember the <mark>milk</mark>", hits.get(1).snippet());
+	}
+
+	@Test
+	void findsOnlyNotesOfUser() {
+		save(1, "user", "groceries", "milk");
+		save(2, "other", "groceries", "milk");
+
+		assertEquals(List.of(1), search("user", "milk"));
+		assertEquals(List.of(2), search("other", "milk"));
+	}
+
+	@Test
+	void rebuildReplacesIndexWithDatabaseContent() {
+		save(1, "user", "deleted", "milk");
+		save(2, "user", "stale", "milk");
+		when(noteRepository.streamIndexDocuments())
+				.thenReturn(Stream.of(note(2, "user", "fresh", "bread"), note(3, "other", "new", "milk")));
+
+		assertEquals(2, index.rebuild());
+
+		assertEquals(List.of(), search("user", "milk"));
+		assertEquals(List.of(2), search("user", "bread"));
+		assertEquals(List.of(3), search("other", "milk"));
+	}
+
+	@Test
+	void reindexKeepsNotesSearchableAndLeavesOtherUsersAlone() {
+		save(1, "user", "deleted", "milk");
+		save(2, "user", "kept", "milk");
+		save(3, "other", "kept", "milk");
+		when(noteRepository.streamIndexDocumentsByUserId("user")).thenReturn(Stream.of(note(2, "user", "kept", "milk"))
+				.peek(note -> assertEquals(List.of(1, 2), search("user", "milk").stream().sorted().toList())));
+
+		index.reindex("user");
+
+		assertEquals(List.of(2), search("user", "milk"));
+		assertEquals(List.of(3), search("other", "milk"));
+	}
+
+	@Test
+	void appliesUpdatesMadeDuringRebuildAfterIt() {
+		// The notes change while the rebuild streams the older copies it read
+		when(noteRepository.streamIndexDocuments()).thenReturn(Stream.of(note(1, "user", "old", "milk"),
+				note(2, "user", "deleted", "milk")).peek(note -> {
+					if (note.id() == 1) {
+						save(1, "user", "new", "bread");
+						remove(2);
+						save(3, "user", "created", "milk");
+					}
+				}));
+
+		index.rebuild();
+
+		assertEquals(List.of(3), search("user", "milk"));
+		assertEquals(List.of(1), search("user", "bread"));
+	}
+
+	@Test
+	void discardsDamagedIndexWhenRebuildingOnStartup() throws IOException {
+		save(1, "user", "groceries", "milk");
+		index.close();
+		try (Stream<Path> files = Files.list(path)) {
+			for (Path file : files.filter(file -> !file.getFileName().toString().equals("write.lock")).toList()) {
+				Files.write(file, new byte[] { 1, 2, 3 });
+			}
+		}
+		when(noteRepository.streamIndexDocuments()).thenReturn(Stream.of(note(2, "user", "groceries", "bread")));
+
+		index = open(true);
+		index.rebuild();
+
+		assertEquals(List.of(2), search("user", "bread"));
+		assertTrue(search("user", "milk").isEmpty());
+	}
+}
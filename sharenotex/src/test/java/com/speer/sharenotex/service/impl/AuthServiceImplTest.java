@@ -0,0 +1,128 @@
+package com.speer.sharenotex.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.speer.sharenotex.exception.BadRequestException;
+import com.speer.sharenotex.exception.NotFoundException;
+import com.speer.sharenotex.exception.RateLimitExceedException;
+import com.speer.sharenotex.requesdto.UserRegistrationRequestDto;
+import com.speer.sharenotex.responsedto.RegistrationStatusDto;
+import com.speer.sharenotex.service.KeycloakService;
+import com.speer.sharenotex.util.Constants;
+import com.speer.sharenotex.util.RegistrationStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthServiceImplTest {
+
+	private static final UserRegistrationRequestDto USER = new UserRegistrationRequestDto("Jane", "Doe",
+			"jane@example.com", "secret");
+
+	private final KeycloakService keycloakService = mock(KeycloakService.class);
+	// One registration at a time and one more waiting
+	private final AuthServiceImpl authService = new AuthServiceImpl(keycloakService, new SimpleMeterRegistry(), true,
+			1, 1, 60_000);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		release.countDown();
+		authService.shutdown();
+	}
+
+	/**
+	 * Makes Keycloak registrations wait until {@link #release} is counted down
+	 * and then answer with the given result.
+	 */
+	private void registrationsWaitFor(Boolean result) {
+		when(keycloakService.addKeycloakUser(any())).thenAnswer(invocation -> {
+			release.await();
+			return result;
+		});
+	}
+
+	private RegistrationStatusDto awaitDone(String registrationId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		RegistrationStatusDto status = authService.getRegistrationStatus(registrationId);
+		while (status.getStatus() == RegistrationStatus.PENDING && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			status = authService.getRegistrationStatus(registrationId);
+		}
+		return status;
+	}
+
+	@Test
+	void completesQueuedRegistration() throws InterruptedException {
+		registrationsWaitFor(true);
+
+		RegistrationStatusDto queued = authService.queueNewUser(USER);
+
+		assertEquals(RegistrationStatus.PENDING, queued.getStatus());
+		assertEquals(queued, authService.getRegistrationStatus(queued.getId()));
+		release.countDown();
+		assertEquals(new RegistrationStatusDto(queued.getId(), RegistrationStatus.COMPLETED,
+				Constants.USER_REGISTER_SUCCESS), awaitDone(queued.getId()));
+	}
+
+	@Test
+	void failsQueuedRegistrationRejectedByKeycloak() throws InterruptedException {
+		when(keycloakService.addKeycloakUser(any())).thenReturn(false);
+
+		String registrationId = authService.queueNewUser(USER).getId();
+
+		assertEquals(new RegistrationStatusDto(registrationId, RegistrationStatus.FAILED, Constants.USER_REGISTER_FAIL),
+				awaitDone(registrationId));
+	}
+
+	@Test
+	void failsQueuedRegistrationWithMessageOfItsError() throws InterruptedException {
+		when(keycloakService.addKeycloakUser(any())).thenThrow(new BadRequestException("email", "Email exists"))
+				.thenThrow(new IllegalStateException("Connection refused"));
+
+		String rejected = authService.queueNewUser(USER).getId();
+		String crashed = authService.queueNewUser(USER).getId();
+
+		assertEquals(new RegistrationStatusDto(rejected, RegistrationStatus.FAILED, "Email exists"),
+				awaitDone(rejected));
+		// Unexpected errors are not shown to the user
+		assertEquals(new RegistrationStatusDto(crashed, RegistrationStatus.FAILED, Constants.USER_REGISTER_FAIL),
+				awaitDone(crashed));
+	}
+
+	@Test
+	void rejectsRegistrationWhenQueueIsFull() throws InterruptedException {
+		registrationsWaitFor(true);
+		String running = authService.queueNewUser(USER).getId();
+		String waiting = authService.queueNewUser(USER).getId();
+
+		RateLimitExceedException e = assertThrows(RateLimitExceedException.class,
+				() -> authService.queueNewUser(USER));
+
+		assertEquals(Constants.EXCEPTION_KEY_REGISTRATION, e.getFieldName());
+		assertEquals(Constants.REGISTRATION_QUEUE_FULL_MESSAGE, e.getMessage());
+		release.countDown();
+		assertEquals(RegistrationStatus.COMPLETED, awaitDone(running).getStatus());
+		assertEquals(RegistrationStatus.COMPLETED, awaitDone(waiting).getStatus());
+		// The queue has room again
+		assertEquals(RegistrationStatus.PENDING, authService.queueNewUser(USER).getStatus());
+	}
+
+	@Test
+	void rejectsStatusLookupOfUnknownRegistration() {
+		NotFoundException e = assertThrows(NotFoundException.class,
+				() -> authService.getRegistrationStatus("unknown"));
+
+		assertEquals(Constants.EXCEPTION_KEY_REGISTRATION, e.getFieldName());
+		assertEquals(Constants.NOT_FOUND_MESSAGE, e.getMessage());
+	}
+}
@@ -0,0 +1,101 @@
+package com.speer.sharenotex.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.UserRepresentation;
+
+import com.speer.sharenotex.cache.KeycloakUserCache;
+import com.speer.sharenotex.config.WebClientConfig;
+
+class KeycloakServiceImplTest {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private UsersResource usersResource;
+	private KeycloakServiceImpl keycloakService;
+
+	@BeforeEach
+	void setUp() {
+		Keycloak keycloak = mock(Keycloak.class);
+		RealmResource realmResource = mock(RealmResource.class);
+		usersResource = mock(UsersResource.class);
+		when(keycloak.realm(any())).thenReturn(realmResource);
+		when(realmResource.users()).thenReturn(usersResource);
+		when(usersResource.get(anyString())).thenAnswer(invocation -> userResource(invocation.getArgument(0)));
+		keycloakService = new KeycloakServiceImpl(keycloak, mock(WebClientConfig.class),
+				new KeycloakUserCache(1000, 60_000, 60_000, executor));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns a user resource whose lookup takes a while, fails for IDs starting
+	 * with "unknown" and records how many lookups run at the same time.
+	 */
+	private UserResource userResource(String userId) {
+		UserResource userResource = mock(UserResource.class);
+		when(userResource.toRepresentation()).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(50);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			if (userId.startsWith("unknown")) {
+				throw new jakarta.ws.rs.NotFoundException();
+			}
+			UserRepresentation user = new UserRepresentation();
+			user.setId(userId);
+			return user;
+		});
+		return userResource;
+	}
+
+	@Test
+	void resolvesManyRecipientsConcurrently() {
+		List<String> userIds = IntStream.range(0, 40).mapToObj(i -> (i % 10 == 0 ? "unknown-" : "user-") + i)
+				.toList();
+
+		Set<String> unknown = keycloakService.findUnknownUserIds(userIds);
+
+		assertEquals(Set.of("unknown-0", "unknown-10", "unknown-20", "unknown-30"), unknown);
+		verify(usersResource, times(40)).get(anyString());
+		assertTrue(maxInFlight.get() > 1, "lookups did not overlap");
+		assertTrue(maxInFlight.get() <= 8, "more than 8 lookups in flight: " + maxInFlight.get());
+	}
+
+	@Test
+	void looksUpCachedRecipientsOnce() {
+		keycloakService.findUnknownUserIds(List.of("user-1", "unknown-2"));
+
+		Set<String> unknown = keycloakService.findUnknownUserIds(List.of("user-1", "unknown-2", "user-3"));
+
+		assertEquals(Set.of("unknown-2"), unknown);
+		verify(usersResource, times(3)).get(anyString());
+	}
+}
@@ -0,0 +1,55 @@
+package com.speer.sharenotex.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speer.sharenotex.exception.BadRequestException;
+import com.speer.sharenotex.repository.ReactiveNoteRepository;
+import com.speer.sharenotex.repository.ReactiveSharedNoteRepository;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.service.ReactiveKeycloakService;
+import com.speer.sharenotex.util.Constants;
+
+import reactor.core.publisher.Mono;
+
+class ReactiveNoteServiceImplTest {
+
+	private final ReactiveNoteRepository noteRepository = mock(ReactiveNoteRepository.class);
+	private final ReactiveNoteServiceImpl noteService = new ReactiveNoteServiceImpl(noteRepository,
+			mock(ReactiveSharedNoteRepository.class), mock(ReactiveKeycloakService.class), new ObjectMapper());
+
+	private void assertRejected(Function<NoteRequestDto, Mono<?>> write, NoteRequestDto note, String field,
+			String message) {
+		BadRequestException e = assertThrows(BadRequestException.class, () -> write.apply(note).block());
+
+		assertEquals(field, e.getFieldName());
+		assertEquals(message, e.getMessage());
+	}
+
+	private void assertInvalidNotesRejected(Function<NoteRequestDto, Mono<?>> write) {
+		assertRejected(write, new NoteRequestDto(null, "content"), "title", Constants.TITLE_EMPTY_MESSAGE);
+		assertRejected(write, new NoteRequestDto(" ", "content"), "title", Constants.TITLE_EMPTY_MESSAGE);
+		assertRejected(write, new NoteRequestDto("t".repeat(Constants.MAX_TITLE_LENGTH + 1), "content"), "title",
+				"Title cannot be longer than 255 characters");
+		assertRejected(write, new NoteRequestDto("title", null), "content", Constants.CONTENT_EMPTY_MESSAGE);
+		assertRejected(write, new NoteRequestDto("title", "\n"), "content", Constants.CONTENT_EMPTY_MESSAGE);
+		verifyNoInteractions(noteRepository);
+	}
+
+	@Test
+	void rejectsInvalidNewNote() {
+		assertInvalidNotesRejected(noteService::createNewNote);
+	}
+
+	@Test
+	void rejectsInvalidNoteUpdate() {
+		assertInvalidNotesRejected(note -> noteService.updateNote(1, note, null));
+	}
+}
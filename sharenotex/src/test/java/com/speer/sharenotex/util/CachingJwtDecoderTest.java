@@ -0,0 +1,77 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import com.speer.sharenotex.cache.VerifiedJwtCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingJwtDecoderTest {
+
+	private final JwtDecoder delegate = mock(JwtDecoder.class);
+	private final VerifiedJwtCache verifiedJwtCache = new VerifiedJwtCache(100, 60_000);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, verifiedJwtCache, meterRegistry);
+
+	static Jwt jwt(String token) {
+		Instant now = Instant.now();
+		return Jwt.withTokenValue(token).header("alg", "RS256").subject("user").issuedAt(now)
+				.expiresAt(now.plus(Duration.ofMinutes(5))).build();
+	}
+
+	private long verifications(String outcome) {
+		return meterRegistry.get(Constants.METRIC_JWT_VERIFICATION).tag("outcome", outcome).timer().count();
+	}
+
+	@Test
+	void verifiesTokenOnlyOnce() {
+		Jwt jwt = jwt("token");
+		when(delegate.decode("token")).thenReturn(jwt);
+
+		assertSame(jwt, decoder.decode("token"));
+		assertSame(jwt, decoder.decode("token"));
+
+		verify(delegate, times(1)).decode("token");
+		assertEquals(1, verifications("success"));
+	}
+
+	@Test
+	void cachesNothingWhenVerificationFails() {
+		when(delegate.decode("token")).thenThrow(new BadJwtException("Invalid signature"));
+
+		assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+		assertNull(verifiedJwtCache.get("token"));
+		assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+
+		verify(delegate, times(2)).decode("token");
+		assertEquals(2, verifications("failure"));
+	}
+
+	@Test
+	void verifiesTokenAgainAfterFailure() {
+		Jwt jwt = jwt("token");
+		when(delegate.decode("token")).thenThrow(new BadJwtException("Key not found")).thenReturn(jwt);
+
+		assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+		assertSame(jwt, decoder.decode("token"));
+		assertSame(jwt, verifiedJwtCache.get("token"));
+
+		verify(delegate, times(2)).decode("token");
+	}
+}
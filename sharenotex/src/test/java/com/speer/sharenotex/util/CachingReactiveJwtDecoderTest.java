@@ -0,0 +1,64 @@
+package com.speer.sharenotex.util;
+
+import static com.speer.sharenotex.util.CachingJwtDecoderTest.jwt;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.speer.sharenotex.cache.VerifiedJwtCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class CachingReactiveJwtDecoderTest {
+
+	private final ReactiveJwtDecoder delegate = mock(ReactiveJwtDecoder.class);
+	private final VerifiedJwtCache verifiedJwtCache = new VerifiedJwtCache(100, 60_000);
+	private final CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, verifiedJwtCache,
+			new SimpleMeterRegistry());
+
+	@Test
+	void verifiesTokenOnlyOnce() {
+		Jwt jwt = jwt("token");
+		when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+
+		assertSame(jwt, decoder.decode("token").block());
+		assertSame(jwt, decoder.decode("token").block());
+
+		verify(delegate, times(1)).decode("token");
+	}
+
+	@Test
+	void looksUpCacheOnSubscription() {
+		Mono<Jwt> decoded = decoder.decode("token");
+		Jwt jwt = jwt("token");
+		verifiedJwtCache.put("token", jwt);
+
+		assertSame(jwt, decoded.block());
+		verifyNoInteractions(delegate);
+	}
+
+	@Test
+	void verifiesTokenAgainAfterFailure() {
+		Jwt jwt = jwt("token");
+		when(delegate.decode("token")).thenReturn(Mono.error(new BadJwtException("Key not found")))
+				.thenReturn(Mono.just(jwt));
+
+		assertThrows(BadJwtException.class, () -> decoder.decode("token").block());
+		assertNull(verifiedJwtCache.get("token"));
+		assertSame(jwt, decoder.decode("token").block());
+		assertSame(jwt, verifiedJwtCache.get("token"));
+
+		verify(delegate, times(2)).decode("token");
+	}
+}
@@ -0,0 +1,52 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.speer.sharenotex.exception.BadRequestException;
+
+class ChangeCursorTest {
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void decodesEncodedCursor() {
+		ChangeCursor cursor = new ChangeCursor(Long.MAX_VALUE, Integer.MAX_VALUE, 1_705_313_730_123L);
+
+		assertEquals(cursor, ChangeCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void encodesUrlSafeToken() {
+		String token = new ChangeCursor(123_456_789L, 42, System.currentTimeMillis()).encode();
+
+		assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "not base64!", "MTIz=" })
+	void rejectsTokenThatIsNotBase64(String token) {
+		BadRequestException e = assertThrows(BadRequestException.class, () -> ChangeCursor.decode(token));
+
+		assertEquals("since", e.getFieldName());
+		assertEquals(Constants.INVALID_CURSOR_MESSAGE, e.getMessage());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "100:7", "100:7:1705313730123:1", "x:7:1705313730123", "100:7.5:1705313730123",
+			"100:99999999999:1705313730123", "100:7:" })
+	void rejectsTamperedToken(String raw) {
+		String token = token(raw);
+
+		assertThrows(BadRequestException.class, () -> ChangeCursor.decode(token));
+	}
+}
@@ -0,0 +1,33 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.speer.sharenotex.exception.PreconditionFailedException;
+
+class ETagsTest {
+
+	@Test
+	void readsVersionOfNoteETag() {
+		assertEquals(3L, ETags.expectedVersion(ETags.forNote(42, 3L), 42));
+		assertEquals(3L, ETags.expectedVersion(" \"42-3\" ", 42));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", " ", "*" })
+	void acceptsAnyVersionWithoutTag(String ifMatch) {
+		assertNull(ETags.expectedVersion(ifMatch, 42));
+		assertNull(ETags.expectedVersion(null, 42));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "\"41-3\"", "\"42-\"", "\"42-x\"", "42-3", "W/\"42-3\"", "\"c3-1a2b\"" })
+	void rejectsTagThatCannotMatchNote(String ifMatch) {
+		assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion(ifMatch, 42));
+	}
+}
@@ -0,0 +1,140 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class KeycloakJwkSourceTest {
+
+	private static final String REALM = "test";
+	private static final long ONE_HOUR = 3_600_000;
+
+	private HttpServer server;
+	private final AtomicInteger fetches = new AtomicInteger();
+	private volatile JWKSet published;
+
+	@BeforeEach
+	void setUp() throws IOException, JOSEException {
+		published = new JWKSet(key("current"));
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext(String.format(Constants.KEYCLOAK_JWK_SET_PATH, REALM), this::serveJwkSet);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	private void serveJwkSet(HttpExchange exchange) throws IOException {
+		fetches.incrementAndGet();
+		byte[] body = published.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static ECKey key(String keyId) throws JOSEException {
+		return new ECKeyGenerator(Curve.P_256).keyID(keyId).generate();
+	}
+
+	private static JWKSelector selector(String keyId) {
+		return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+	}
+
+	private KeycloakJwkSource source(long minRefreshIntervalMillis) {
+		return new KeycloakJwkSource("http://localhost:" + server.getAddress().getPort(), REALM,
+				minRefreshIntervalMillis);
+	}
+
+	@Test
+	void servesKnownKeysFromCachedSet() throws Exception {
+		KeycloakJwkSource source = source(0);
+		source.refresh();
+
+		assertEquals(1, source.get(selector("current"), null).size());
+		assertEquals(1, source.get(selector("current"), null).size());
+
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	void refetchesForUnknownKeyOncePerInterval() throws Exception {
+		KeycloakJwkSource source = source(ONE_HOUR);
+		source.refresh();
+
+		assertTrue(source.get(selector("unknown"), null).isEmpty());
+		assertTrue(source.get(selector("unknown"), null).isEmpty());
+
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	void refetchesForUnknownKeyAfterInterval() throws Exception {
+		KeycloakJwkSource source = source(100);
+		source.refresh();
+		published = new JWKSet(List.of(key("current"), key("rotated")));
+
+		assertTrue(source.get(selector("rotated"), null).isEmpty());
+		assertEquals(1, fetches.get());
+
+		Thread.sleep(150);
+
+		assertEquals(1, source.get(selector("rotated"), null).size());
+		assertTrue(source.get(selector("unknown"), null).isEmpty());
+		assertEquals(2, fetches.get());
+	}
+
+	@Test
+	void fetchesOnceForConcurrentRequestsBeforeFirstFetch() throws Exception {
+		KeycloakJwkSource source = source(ONE_HOUR);
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<List<JWK>>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return source.get(selector("current"), null);
+				}));
+			}
+			start.countDown();
+			for (Future<List<JWK>> result : results) {
+				assertEquals(1, result.get().size());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, fetches.get());
+	}
+}
@@ -0,0 +1,58 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.speer.sharenotex.exception.BadRequestException;
+
+class KeysetCursorTest {
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void decodesEncodedCursor() {
+		KeysetCursor cursor = new KeysetCursor(Timestamp.from(Instant.parse("2024-01-15T10:15:30.123456789Z")), 42);
+
+		KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+		assertEquals(cursor, decoded);
+		assertEquals(123456789, decoded.timestamp().getNanos());
+	}
+
+	@Test
+	void encodesUrlSafeToken() {
+		String token = new KeysetCursor(Timestamp.from(Instant.ofEpochSecond(-1, 999_999_999)), Integer.MAX_VALUE)
+				.encode();
+
+		assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "not base64!", "MTIz=" })
+	void rejectsTokenThatIsNotBase64(String token) {
+		BadRequestException e = assertThrows(BadRequestException.class, () -> KeysetCursor.decode(token));
+
+		assertEquals("cursor", e.getFieldName());
+		assertEquals(Constants.INVALID_CURSOR_MESSAGE, e.getMessage());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "1705313730:0", "1705313730:0:42:7", "1705313730:x:42", "1705313730:0:4.2",
+			"1705313730:0:99999999999", "99999999999999999:0:42" })
+	void rejectsTamperedToken(String raw) {
+		String token = token(raw);
+
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode(token));
+	}
+}
@@ -0,0 +1,127 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.speer.sharenotex.util.NoteContentCodec.StoredContent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NoteContentCodecTest {
+
+	private static final int THRESHOLD = 1024;
+
+	private MeterRegistry meterRegistry;
+	private NoteContentCodec codec;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		codec = new NoteContentCodec(THRESHOLD, meterRegistry);
+	}
+
+	private static String content(int length) {
+		StringBuilder content = new StringBuilder(length);
+		while (content.length() < length) {
+			content.append("line ").append(content.length()).append(" of the log\n");
+		}
+		return content.substring(0, length);
+	}
+
+	private double countedBytes(String form) {
+		return meterRegistry.get(Constants.METRIC_NOTE_CONTENT_BYTES).tag("form", form).counter().count();
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, 1, THRESHOLD - 1, THRESHOLD })
+	void storesContentUpToThresholdAsIs(int length) {
+		String content = content(length);
+
+		StoredContent stored = codec.encode(content);
+
+		assertSame(content, stored.text());
+		assertNull(stored.deflated());
+		assertEquals(content, NoteContentCodec.decode(stored.text(), stored.deflated()));
+		assertEquals(0, countedBytes("stored"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { THRESHOLD + 1, THRESHOLD * 2, THRESHOLD * 64 })
+	void compressesContentAboveThresholdAndKeepsPrefix(int length) {
+		String content = content(length);
+
+		StoredContent stored = codec.encode(content);
+
+		assertEquals(content.substring(0, THRESHOLD), stored.text());
+		assertNotNull(stored.deflated());
+		assertEquals(content, NoteContentCodec.decode(stored.text(), stored.deflated()));
+	}
+
+	@Test
+	void countsPrefixAndCompressedContentAsStoredSize() {
+		String content = content(THRESHOLD + 1);
+
+		StoredContent stored = codec.encode(content);
+
+		assertEquals(content.getBytes(StandardCharsets.UTF_8).length, countedBytes("original"));
+		assertEquals(THRESHOLD + stored.deflated().length, countedBytes("stored"));
+	}
+
+	@Test
+	void storesLessThanOriginalWellAboveThreshold() {
+		String content = content(THRESHOLD * 64);
+
+		StoredContent stored = codec.encode(content);
+
+		// The prefix is stored twice, but at most threshold characters of it
+		assertTrue(stored.text().length() + stored.deflated().length < content.length() / 2,
+				"stored " + countedBytes("stored") + " of " + countedBytes("original") + " bytes");
+	}
+
+	@Test
+	void keepsSurrogatePairOutOfPrefixWhenThresholdSplitsIt() {
+		String content = "a".repeat(THRESHOLD - 1) + "😀" + "b".repeat(10);
+
+		StoredContent stored = codec.encode(content);
+
+		assertEquals(THRESHOLD - 1, stored.text().length());
+		assertEquals(content, NoteContentCodec.decode(stored.text(), stored.deflated()));
+	}
+
+	@Test
+	void roundTripsMultibyteContent() {
+		String content = "Grüße, 你好 😀 ".repeat(THRESHOLD);
+
+		StoredContent stored = codec.encode(content);
+
+		assertEquals(content, NoteContentCodec.decode(stored.text(), stored.deflated()));
+	}
+
+	@Test
+	void leavesNullContentUnchanged() {
+		StoredContent stored = codec.encode(null);
+
+		assertNull(stored.text());
+		assertNull(stored.deflated());
+	}
+
+	@Test
+	void rejectsCorruptCompressedContent() {
+		byte[] corrupt = { 1, 2, 3, 4 };
+
+		assertThrows(UncheckedIOException.class, () -> NoteContentCodec.decode("prefix", corrupt));
+	}
+}
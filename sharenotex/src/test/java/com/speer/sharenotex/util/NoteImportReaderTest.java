@@ -0,0 +1,147 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speer.sharenotex.requesdto.NoteRequestDto;
+import com.speer.sharenotex.responsedto.ImportErrorDto;
+
+class NoteImportReaderTest {
+
+	private static final int MAX_ERRORS = 2;
+	private static final int MAX_RECORD_SIZE = 2048;
+
+	private static NoteImportReader reader(ImportFormat format, String body) {
+		return new NoteImportReader(new BufferedReader(new StringReader(body)), format,
+				new ObjectMapper().readerFor(NoteRequestDto.class)
+						.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+				MAX_ERRORS, MAX_RECORD_SIZE);
+	}
+
+	private static List<NoteRequestDto> readAll(NoteImportReader reader) {
+		List<NoteRequestDto> notes = new ArrayList<>();
+		reader.forEachRemaining(notes::add);
+		return notes;
+	}
+
+	@Test
+	void readsNdjsonLines() {
+		NoteImportReader reader = reader(ImportFormat.NDJSON, """
+				{"title":"a","content":"first"}
+
+				{"title":"b","content":"second","id":7}\r
+				{"title":"c","content":"line\\nbreak"}""");
+
+		assertEquals(List.of(new NoteRequestDto("a", "first"), new NoteRequestDto("b", "second"),
+				new NoteRequestDto("c", "line\nbreak")), readAll(reader));
+		assertEquals(0, reader.getFailed());
+	}
+
+	@Test
+	void rejectsMalformedNdjsonLines() {
+		NoteImportReader reader = reader(ImportFormat.NDJSON, """
+				{"title":"a","content":"first"}
+				{"title":"b",
+				{"title":"","content":"untitled"}
+				{"title":"d"}
+				{"title":"e","content":"fifth"}
+				""");
+
+		assertEquals(List.of(new NoteRequestDto("a", "first"), new NoteRequestDto("e", "fifth")), readAll(reader));
+		assertEquals(3, reader.getFailed());
+		// Only the first rejections are reported in detail
+		assertEquals(MAX_ERRORS, reader.getErrors().size());
+		assertEquals(2, reader.getErrors().get(0).getRow());
+		assertEquals(new ImportErrorDto(3, "Title cannot be empty"), reader.getErrors().get(1));
+	}
+
+	@Test
+	void readsCsvRecordsWithQuotedFields() {
+		NoteImportReader reader = reader(ImportFormat.CSV, "title,content\r\n"
+				+ "plain,text\r\n"
+				+ "\"with, comma\",\"said \"\"hi\"\"\"\n"
+				+ "\"multi\",\"line one\nline two\"\n"
+				+ "\n"
+				+ "last,no terminator");
+
+		assertEquals(List.of(new NoteRequestDto("plain", "text"), new NoteRequestDto("with, comma", "said \"hi\""),
+				new NoteRequestDto("multi", "line one\nline two"), new NoteRequestDto("last", "no terminator")),
+				readAll(reader));
+		assertEquals(0, reader.getFailed());
+	}
+
+	@Test
+	void rejectsMalformedCsvRecords() {
+		NoteImportReader reader = reader(ImportFormat.CSV, """
+				one field
+				a,b,c
+				,no title
+				ok,fine
+				"unterminated,quote
+				""");
+
+		assertEquals(List.of(new NoteRequestDto("ok", "fine")), readAll(reader));
+		assertEquals(4, reader.getFailed());
+		assertEquals(new ImportErrorDto(1, "Expected 2 fields (title, content) but found 1"),
+				reader.getErrors().get(0));
+		assertEquals(new ImportErrorDto(2, "Expected 2 fields (title, content) but found 3"),
+				reader.getErrors().get(1));
+	}
+
+	@Test
+	void rejectsUnterminatedQuote() {
+		NoteImportReader reader = reader(ImportFormat.CSV, "ok,fine\n\"open,quote\nnext,row\n");
+
+		assertEquals(List.of(new NoteRequestDto("ok", "fine")), readAll(reader));
+		assertEquals(List.of(new ImportErrorDto(2, "Unterminated quoted field")), reader.getErrors());
+	}
+
+	@Test
+	void rejectsOversizedNdjsonLineAndContinues() {
+		String content = "x".repeat(MAX_RECORD_SIZE);
+		NoteImportReader reader = reader(ImportFormat.NDJSON, "{\"title\":\"big\",\"content\":\"" + content + "\"}\n"
+				+ "{\"title\":\"small\",\"content\":\"fits\"}\n");
+
+		assertEquals(List.of(new NoteRequestDto("small", "fits")), readAll(reader));
+		assertEquals(List.of(new ImportErrorDto(1, "Row exceeds " + MAX_RECORD_SIZE + " characters")),
+				reader.getErrors());
+	}
+
+	@Test
+	void rejectsOversizedCsvRecordAndContinues() {
+		String content = "x\n".repeat(MAX_RECORD_SIZE);
+		NoteImportReader reader = reader(ImportFormat.CSV, "big,\"" + content + "\"\nsmall,fits\n");
+
+		assertEquals(List.of(new NoteRequestDto("small", "fits")), readAll(reader));
+		assertEquals(List.of(new ImportErrorDto(1, "Row exceeds " + MAX_RECORD_SIZE + " characters")),
+				reader.getErrors());
+	}
+
+	@Test
+	void acceptsRecordOfMaximumSize() {
+		String content = "x".repeat(MAX_RECORD_SIZE - "t".length());
+		NoteImportReader reader = reader(ImportFormat.CSV, "t," + content + "\n");
+
+		assertEquals(List.of(new NoteRequestDto("t", content)), readAll(reader));
+	}
+
+	@Test
+	void rejectsTitleLongerThanColumn() {
+		String title = "t".repeat(Constants.MAX_TITLE_LENGTH);
+		NoteImportReader reader = reader(ImportFormat.CSV, title + "x,too long\n" + title + ",fits\n"
+				+ "😀".repeat(Constants.MAX_TITLE_LENGTH) + ",fits too\n");
+
+		assertEquals(List.of(new NoteRequestDto(title, "fits"),
+				new NoteRequestDto("😀".repeat(Constants.MAX_TITLE_LENGTH), "fits too")), readAll(reader));
+		assertEquals(List.of(new ImportErrorDto(1, "Title cannot be longer than 255 characters")),
+				reader.getErrors());
+	}
+}
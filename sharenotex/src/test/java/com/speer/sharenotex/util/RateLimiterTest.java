@@ -0,0 +1,107 @@
+package com.speer.sharenotex.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+	@Test
+	void grantsLimitThenRejects() {
+		RateLimiter rateLimiter = new RateLimiter(3, TimeUnit.HOURS.toMillis(1));
+
+		assertEquals(3, rateLimiter.getAvailableTokens());
+		assertTrue(rateLimiter.tryAcquire());
+		assertTrue(rateLimiter.tryAcquire());
+		assertTrue(rateLimiter.tryAcquire());
+		assertFalse(rateLimiter.tryAcquire());
+		assertEquals(0, rateLimiter.getAvailableTokens());
+	}
+
+	@Test
+	void reportsWaitUntilNextToken() {
+		RateLimiter rateLimiter = new RateLimiter(1, 60_000);
+
+		assertEquals(0, rateLimiter.getMillisUntilNextToken());
+		rateLimiter.tryAcquire();
+
+		long wait = rateLimiter.getMillisUntilNextToken();
+		assertTrue(wait > 59_000 && wait <= 60_001, "wait was " + wait);
+	}
+
+	@Test
+	void refillsOverTime() throws InterruptedException {
+		RateLimiter rateLimiter = new RateLimiter(1, 100);
+		assertTrue(rateLimiter.tryAcquire());
+		assertFalse(rateLimiter.tryAcquire());
+
+		Thread.sleep(rateLimiter.getMillisUntilNextToken() + 50);
+
+		assertTrue(rateLimiter.tryAcquire());
+	}
+
+	@Test
+	void refillsNoMoreThanLimit() throws InterruptedException {
+		RateLimiter rateLimiter = new RateLimiter(2, 10);
+		rateLimiter.tryAcquire();
+
+		Thread.sleep(100);
+
+		assertEquals(2, rateLimiter.getAvailableTokens());
+		assertTrue(rateLimiter.tryAcquire());
+		assertTrue(rateLimiter.tryAcquire());
+	}
+
+	@Test
+	void grantsExactlyLimitToConcurrentCallers() throws Exception {
+		int limit = 1_000;
+		int threads = 16;
+		RateLimiter rateLimiter = new RateLimiter(limit, TimeUnit.HOURS.toMillis(1));
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> granted = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				granted.add(executor.submit(() -> {
+					start.await();
+					int count = 0;
+					for (int j = 0; j < limit / 4; j++) {
+						if (rateLimiter.tryAcquire()) {
+							count++;
+						}
+					}
+					return count;
+				}));
+			}
+			start.countDown();
+
+			int total = 0;
+			for (Future<Integer> future : granted) {
+				total += future.get(10, TimeUnit.SECONDS);
+			}
+			assertEquals(limit, total);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void tracksIdleTime() {
+		RateLimiter rateLimiter = new RateLimiter(1, 1_000);
+		rateLimiter.tryAcquire();
+		long now = System.nanoTime();
+
+		assertFalse(rateLimiter.isIdle(TimeUnit.SECONDS.toNanos(10), now));
+		assertTrue(rateLimiter.isIdle(TimeUnit.SECONDS.toNanos(10), now + TimeUnit.SECONDS.toNanos(11)));
+	}
+}